@@ -0,0 +1,96 @@
+package com.gameengine.bench;
+
+import com.gameengine.components.EnemyAIComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.JobSystem;
+import com.gameengine.core.PhysicsSystem;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * 每帧分配量基准：无渲染地运行经典玩法的逻辑帧（场景更新、玩家输入、物理、避障、碰撞），
+ * 用 ThreadMXBean.getThreadAllocatedBytes 统计主线程稳态下每帧分配的字节数。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.AllocationBenchmark [敌人数]
+ */
+public class AllocationBenchmark {
+    private static final int WARMUP_FRAMES = 500;
+    private static final int MEASURE_FRAMES = 1000;
+    private static final float DT = 1f / 60f;
+
+    public static void main(String[] args) {
+        int enemyCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            System.err.println("当前 JVM 不支持线程分配统计");
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        JobSystem jobs = JobSystem.createDefault();
+        Scene scene = new Scene("AllocationBenchmark");
+        scene.setJobSystem(jobs);
+        Random random = new Random(42);
+        GameObject player = new GameObject("Player");
+        player.addComponent(new TransformComponent(new Vector2(400, 300)));
+        player.addComponent(new PhysicsComponent(1.0f));
+        player.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE, new Vector2(20, 20), new RenderComponent.Color(1f, 0f, 0f, 1f)));
+        scene.addGameObject(player);
+        for (int i = 0; i < enemyCount; i++) {
+            GameObject enemy = new GameObject("Enemy");
+            enemy.addComponent(new TransformComponent(new Vector2(random.nextFloat() * 780, random.nextFloat() * 580)));
+            enemy.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE, new Vector2(20, 20), new RenderComponent.Color(1f, 0.5f, 0f, 1f)));
+            enemy.addComponent(new PhysicsComponent(0.5f));
+            enemy.addComponent(new EnemyAIComponent());
+            scene.addGameObject(enemy);
+        }
+        scene.initialize();
+
+        GameLogic logic = new GameLogic(scene);
+        logic.setWorldSize(800, 600);
+        PhysicsSystem physics = new PhysicsSystem(scene, 800, 600);
+        long threadId = Thread.currentThread().getId();
+
+        try {
+            for (int f = 0; f < WARMUP_FRAMES; f++) {
+                frame(scene, logic, physics);
+            }
+
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int f = 0; f < MEASURE_FRAMES; f++) {
+                frame(scene, logic, physics);
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+            System.out.printf("敌人数: %d, 帧数: %d%n", enemyCount, MEASURE_FRAMES);
+            System.out.printf("每帧分配: %.1f 字节%n", (double) allocated / MEASURE_FRAMES);
+            System.out.printf("每帧耗时: %.3f ms%n", elapsed / 1_000_000.0 / MEASURE_FRAMES);
+        } finally {
+            physics.cleanup();
+            logic.cleanup();
+            jobs.shutdown();
+        }
+    }
+
+    private static void frame(Scene scene, GameLogic logic, PhysicsSystem physics) {
+        // 保持游戏不结束，避免对象被整体停用
+        logic.setLives(3);
+        scene.update(DT);
+        physics.update(DT);
+        logic.handlePlayerInput();
+        logic.updatePhysics();
+        logic.handleAIPlayerAvoidance();
+        logic.checkCollisions();
+    }
+}
@@ -0,0 +1,150 @@
+package com.gameengine.bench;
+
+import com.gameengine.components.EnemyAIComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.JobSystem;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * AI 避障基准与校验：先用逐对扫描全部敌人的参考实现算出每个敌人的速度，
+ * 与 GameLogic.handleAIPlayerAvoidance（邻域网格查询）的结果逐位比较，再给出不同规模下的每帧耗时。
+ * 速度不一致时以非零状态退出。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.AvoidanceBenchmark [敌人数...]
+ */
+public class AvoidanceBenchmark {
+    private static final float AVOID_DIST = 80f;
+    private static final float STRENGTH = 30f;
+    // 参考实现为 O(n²)，超过该规模只计时网格版本
+    private static final int REFERENCE_LIMIT = 20_000;
+
+    public static void main(String[] args) {
+        int[] sizes = {500, 2_000, 10_000, 20_000, 50_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        JobSystem jobs = JobSystem.createDefault();
+        boolean allMatched = true;
+        System.out.printf("%8s %14s %14s%n", "敌人数", "逐对扫描(ms)", "邻域查询(ms)");
+        for (int n : sizes) {
+            Scene scene = createScene(n, 31L * n);
+            scene.setJobSystem(jobs);
+            GameLogic logic = new GameLogic(scene);
+            List<GameObject> enemies = scene.query(EnemyAIComponent.class).asList();
+
+            String referenceColumn = "-";
+            if (n <= REFERENCE_LIMIT) {
+                long start = System.nanoTime();
+                float[] expected = referenceVelocities(enemies);
+                referenceColumn = String.format("%.3f", (System.nanoTime() - start) / 1_000_000.0);
+
+                logic.handleAIPlayerAvoidance();
+                int mismatches = 0;
+                for (int i = 0; i < enemies.size(); i++) {
+                    PhysicsComponent physics = enemies.get(i).getComponent(PhysicsComponent.class);
+                    if (Float.floatToIntBits(physics.getVelocityX()) != Float.floatToIntBits(expected[i * 2])
+                        || Float.floatToIntBits(physics.getVelocityY()) != Float.floatToIntBits(expected[i * 2 + 1])) {
+                        mismatches++;
+                    }
+                }
+                if (mismatches > 0) {
+                    allMatched = false;
+                    System.err.printf("避障结果不一致: n=%d, %d 个敌人速度不同%n", n, mismatches);
+                }
+            }
+
+            for (int i = 0; i < 5; i++) {
+                logic.handleAIPlayerAvoidance();
+            }
+            int iterations = 20;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                logic.handleAIPlayerAvoidance();
+            }
+            double gridMs = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+            logic.cleanup();
+
+            System.out.printf("%8d %14s %14.3f%n", n, referenceColumn, gridMs);
+        }
+
+        jobs.shutdown();
+        if (!allMatched) {
+            System.exit(1);
+        }
+        System.out.println("避障结果与逐对扫描逐位一致");
+    }
+
+    // 与 800x600 窗口中约 300 个敌人的密度相当
+    private static Scene createScene(int n, long seed) {
+        Scene scene = new Scene("Avoidance");
+        Random random = new Random(seed);
+        float side = (float) Math.sqrt(n * 1500.0);
+        for (int i = 0; i < n; i++) {
+            GameObject enemy = new GameObject("Enemy");
+            enemy.addComponent(new TransformComponent(new Vector2(random.nextFloat() * side, random.nextFloat() * side)));
+            enemy.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE, new Vector2(20, 20), new RenderComponent.Color(1f, 0.5f, 0f, 1f)));
+            PhysicsComponent physics = enemy.addComponent(new PhysicsComponent(0.5f));
+            physics.setVelocity(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+            enemy.addComponent(new EnemyAIComponent());
+            scene.addGameObject(enemy);
+        }
+        scene.initialize();
+        scene.update(0f);
+        return scene;
+    }
+
+    // 原先的全量扫描：每个敌人按顺序累加所有其他敌人的排斥向量
+    private static float[] referenceVelocities(List<GameObject> enemies) {
+        int n = enemies.size();
+        float[] result = new float[n * 2];
+        for (int i = 0; i < n; i++) {
+            TransformComponent selfT = enemies.get(i).getComponent(TransformComponent.class);
+            PhysicsComponent selfP = enemies.get(i).getComponent(PhysicsComponent.class);
+            float vx = selfP.getVelocityX();
+            float vy = selfP.getVelocityY();
+            float repelX = 0f;
+            float repelY = 0f;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                TransformComponent ot = enemies.get(j).getComponent(TransformComponent.class);
+                float dx = selfT.getX() - ot.getX();
+                float dy = selfT.getY() - ot.getY();
+                float dist = (float) Math.sqrt(dx * dx + dy * dy);
+                if (dist > 0 && dist < AVOID_DIST) {
+                    float factor = (AVOID_DIST - dist) / AVOID_DIST;
+                    repelX += dx / dist * factor;
+                    repelY += dy / dist * factor;
+                }
+            }
+            float repelLen = (float) Math.sqrt(repelX * repelX + repelY * repelY);
+            if (repelLen > 0) {
+                float proximity = Math.min(1.0f, repelLen / AVOID_DIST);
+                float effect = STRENGTH * (proximity * proximity);
+                float deltaX = repelX / repelLen * effect;
+                float deltaY = repelY / repelLen * effect;
+                float deltaLen = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+                if (deltaLen > 30f) {
+                    deltaX = deltaX / deltaLen * 30f;
+                    deltaY = deltaY / deltaLen * 30f;
+                }
+                vx += deltaX;
+                vy += deltaY;
+            }
+            result[i * 2] = vx;
+            result[i * 2 + 1] = vy;
+        }
+        return result;
+    }
+}
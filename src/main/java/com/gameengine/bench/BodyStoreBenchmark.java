@@ -0,0 +1,92 @@
+package com.gameengine.bench;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.JobSystem;
+import com.gameengine.core.PhysicsSystem;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.Random;
+
+/**
+ * 物理积分基准：同样数量的刚体分别放在普通场景与启用 BodyStore 的场景中，
+ * 对比 PhysicsSystem.update 逐组件积分与按列数组批量积分的每帧耗时。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.BodyStoreBenchmark [刚体数]
+ */
+public class BodyStoreBenchmark {
+    private static final int WARMUP_FRAMES = 100;
+    private static final int MEASURE_FRAMES = 300;
+    private static final float DT = 1f / 60f;
+
+    public static void main(String[] args) {
+        int bodyCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        JobSystem jobs = JobSystem.createDefault();
+        Scene objectScene = createScene("Objects", bodyCount, false);
+        Scene storeScene = createScene("BodyStore", bodyCount, true);
+        objectScene.setJobSystem(jobs);
+        storeScene.setJobSystem(jobs);
+        PhysicsSystem objectPhysics = new PhysicsSystem(objectScene);
+        PhysicsSystem storePhysics = new PhysicsSystem(storeScene);
+
+        try {
+            for (int f = 0; f < WARMUP_FRAMES; f++) {
+                objectPhysics.update(DT);
+                storePhysics.update(DT);
+            }
+
+            long objectStart = System.nanoTime();
+            for (int f = 0; f < MEASURE_FRAMES; f++) {
+                objectPhysics.update(DT);
+            }
+            long objectNs = (System.nanoTime() - objectStart) / MEASURE_FRAMES;
+
+            long storeStart = System.nanoTime();
+            for (int f = 0; f < MEASURE_FRAMES; f++) {
+                storePhysics.update(DT);
+            }
+            long storeNs = (System.nanoTime() - storeStart) / MEASURE_FRAMES;
+
+            System.out.printf("刚体数: %d%n", bodyCount);
+            System.out.printf("组件对象: %.3f ms/帧%n", objectNs / 1_000_000.0);
+            System.out.printf("SoA 列存储: %.3f ms/帧%n", storeNs / 1_000_000.0);
+            System.out.printf("加速比: %.2fx (校验和 %.1f / %.1f)%n",
+                (double) objectNs / Math.max(1, storeNs), checksum(objectScene), checksum(storeScene));
+        } finally {
+            objectPhysics.cleanup();
+            storePhysics.cleanup();
+            jobs.shutdown();
+        }
+    }
+
+    private static Scene createScene(String name, int bodyCount, boolean soa) {
+        Scene scene = new Scene(name);
+        if (soa) {
+            scene.enableBodyStore(bodyCount);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < bodyCount; i++) {
+            GameObject obj = new GameObject("Body");
+            obj.addComponent(new TransformComponent(new Vector2(random.nextFloat() * 1900, random.nextFloat() * 1060)));
+            PhysicsComponent physics = obj.addComponent(new PhysicsComponent(1.0f));
+            physics.setFriction(0.99f);
+            physics.setVelocity(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+            scene.addGameObject(obj);
+        }
+        scene.initialize();
+        scene.update(0f);
+        return scene;
+    }
+
+    private static double checksum(Scene scene) {
+        double sum = 0;
+        for (GameObject obj : scene.query(TransformComponent.class).asList()) {
+            Vector2 pos = obj.getComponent(TransformComponent.class).getPosition();
+            sum += pos.x + pos.y;
+        }
+        return sum;
+    }
+}
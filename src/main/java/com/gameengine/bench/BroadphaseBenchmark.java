@@ -0,0 +1,269 @@
+package com.gameengine.bench;
+
+import com.gameengine.components.EnemyAIComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.SpatialHashGrid;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 碰撞宽相位基准与校验：在保持密度不变的世界里放置 100 ~ 50k 个敌人（矩形、圆、无渲染组件混合），
+ * 先校验空间哈希候选对经窄相位过滤后的接触集合与两两暴力判定完全一致、checkCollisions 分离后
+ * 每个敌人的位置和速度与逐对扫描完全一致，再比较两者每帧耗时，并给出 GameLogic.checkCollisions 的整帧耗时。
+ * 校验失败时以非零状态退出。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.BroadphaseBenchmark [实体数...]
+ */
+public class BroadphaseBenchmark {
+    // 暴力 O(n²) 校验与计时的上限，再大只跑宽相位
+    private static final int BRUTE_FORCE_LIMIT = 20_000;
+
+    public static void main(String[] args) {
+        int[] sizes = {100, 1_000, 5_000, 20_000, 50_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        boolean allMatched = true;
+        System.out.printf("%8s %10s %12s %12s %14s%n", "实体数", "接触数", "暴力(ms)", "网格(ms)", "checkCollisions(ms)");
+        for (int n : sizes) {
+            Scene scene = createScene(n, worldSide(n), 7L * n);
+            GameLogic logic = new GameLogic(scene);
+            float side = worldSide(n);
+            logic.setWorldSize((int) side, (int) side);
+            GameObject[] enemies = scene.query(EnemyAIComponent.class).asList().toArray(new GameObject[0]);
+
+            SpatialHashGrid grid = new SpatialHashGrid(64f);
+            Set<Long> gridContacts = gridContacts(logic, grid, enemies);
+            String bruteColumn = "-";
+            if (n <= BRUTE_FORCE_LIMIT) {
+                Set<Long> bruteContacts = bruteForceContacts(logic, enemies);
+                if (!bruteContacts.equals(gridContacts)) {
+                    allMatched = false;
+                    System.err.printf("接触集合不一致: n=%d 暴力=%d 网格=%d%n", n, bruteContacts.size(), gridContacts.size());
+                }
+                if (!queriesMatch(grid, side, new Random(n))) {
+                    allMatched = false;
+                    System.err.printf("区域查询结果不一致: n=%d%n", n);
+                }
+                if (!separationMatches(n)) {
+                    allMatched = false;
+                    System.err.printf("分离后的位置或速度与逐对扫描不一致: n=%d%n", n);
+                }
+                int iterations = n <= 1_000 ? 50 : 1;
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    bruteForceContacts(logic, enemies);
+                }
+                bruteColumn = String.format("%.3f", (System.nanoTime() - start) / 1_000_000.0 / iterations);
+            }
+
+            int iterations = 20;
+            for (int i = 0; i < 5; i++) {
+                gridContacts(logic, grid, enemies);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                gridContacts(logic, grid, enemies);
+            }
+            double gridMs = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                logic.setLives(3);
+                logic.checkCollisions();
+            }
+            double frameMs = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+            logic.cleanup();
+
+            System.out.printf("%8d %10d %12s %12.3f %14.3f%n", n, gridContacts.size(), bruteColumn, gridMs, frameMs);
+        }
+
+        if (!allMatched) {
+            System.exit(1);
+        }
+        System.out.println("接触集合和分离结果与暴力判定一致");
+    }
+
+    // 密度约每 1500 平方像素一个敌人，与 800x600 窗口中约 300 个敌人相当
+    private static float worldSide(int n) {
+        return (float) Math.sqrt(n * 1500.0);
+    }
+
+    private static Scene createScene(int n, float side, long seed) {
+        Scene scene = new Scene("Broadphase");
+        Random random = new Random(seed);
+
+        // 玩家放在世界外，避免触发扣血复位
+        GameObject player = new GameObject("Player");
+        player.addComponent(new TransformComponent(new Vector2(-1000, -1000)));
+        scene.addGameObject(player);
+
+        for (int i = 0; i < n; i++) {
+            GameObject enemy = new GameObject("Enemy");
+            enemy.addComponent(new TransformComponent(new Vector2(random.nextFloat() * side, random.nextFloat() * side)));
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                enemy.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE,
+                    new Vector2(10 + random.nextFloat() * 20, 10 + random.nextFloat() * 20), new RenderComponent.Color(1f, 0.5f, 0f, 1f)));
+            } else if (kind < 9) {
+                enemy.addComponent(new RenderComponent(RenderComponent.RenderType.CIRCLE,
+                    new Vector2(8 + random.nextFloat() * 24, 8 + random.nextFloat() * 24), new RenderComponent.Color(1f, 0.5f, 0f, 1f)));
+            }
+            enemy.addComponent(new PhysicsComponent(0.5f));
+            enemy.addComponent(new EnemyAIComponent());
+            scene.addGameObject(enemy);
+        }
+        scene.initialize();
+        scene.update(0f);
+        return scene;
+    }
+
+    private static Set<Long> bruteForceContacts(GameLogic logic, GameObject[] enemies) {
+        Set<Long> contacts = new HashSet<>();
+        for (int i = 0; i < enemies.length; i++) {
+            for (int j = i + 1; j < enemies.length; j++) {
+                if (logic.isColliding(enemies[i], enemies[j])) {
+                    contacts.add(((long) i << 32) | j);
+                }
+            }
+        }
+        return contacts;
+    }
+
+    // 随机区域查询与逐条目包围盒判定比较
+    private static boolean queriesMatch(SpatialHashGrid grid, float side, Random random) {
+        int[] out = new int[grid.size()];
+        for (int q = 0; q < 200; q++) {
+            float x0 = random.nextFloat() * side;
+            float y0 = random.nextFloat() * side;
+            float x1 = x0 + random.nextFloat() * 200;
+            float y1 = y0 + random.nextFloat() * 200;
+            Set<Integer> expected = new HashSet<>();
+            for (int e = 0; e < grid.size(); e++) {
+                if (grid.getMinX(e) <= x1 && grid.getMaxX(e) >= x0 && grid.getMinY(e) <= y1 && grid.getMaxY(e) >= y0) {
+                    expected.add(e);
+                }
+            }
+            int found = grid.query(x0, y0, x1, y1, out);
+            Set<Integer> actual = new HashSet<>();
+            for (int i = 0; i < found; i++) {
+                actual.add(out[i]);
+            }
+            if (found != expected.size() || !actual.equals(expected)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 同一场景各建一份：一份走 checkCollisions，一份按 (i, j) 升序逐对扫描分离，比较结果。
+    // 密度取常规的 36 倍，敌人一帧内被多次推动，容易推进分离前并不相交的邻居
+    private static boolean separationMatches(int n) {
+        Scene gridScene = createScene(n, worldSide(n) / 6, 7L * n);
+        Scene bruteScene = createScene(n, worldSide(n) / 6, 7L * n);
+        GameLogic gridLogic = new GameLogic(gridScene);
+        GameLogic bruteLogic = new GameLogic(bruteScene);
+        GameObject[] gridEnemies = gridScene.query(EnemyAIComponent.class).asList().toArray(new GameObject[0]);
+        GameObject[] bruteEnemies = bruteScene.query(EnemyAIComponent.class).asList().toArray(new GameObject[0]);
+
+        gridLogic.checkCollisions();
+        bruteForceSeparate(bruteLogic, bruteEnemies);
+        boolean matched = true;
+        for (int i = 0; i < n; i++) {
+            TransformComponent tg = gridEnemies[i].getComponent(TransformComponent.class);
+            TransformComponent tb = bruteEnemies[i].getComponent(TransformComponent.class);
+            PhysicsComponent pg = gridEnemies[i].getComponent(PhysicsComponent.class);
+            PhysicsComponent pb = bruteEnemies[i].getComponent(PhysicsComponent.class);
+            matched &= tg.getX() == tb.getX() && tg.getY() == tb.getY()
+                && pg.getVelocityX() == pb.getVelocityX() && pg.getVelocityY() == pb.getVelocityY();
+        }
+        gridLogic.cleanup();
+        bruteLogic.cleanup();
+        return matched;
+    }
+
+    // 宽相位之前 GameLogic 的分离：两两扫描，每对用处理到它时的当前位置判定
+    private static void bruteForceSeparate(GameLogic logic, GameObject[] enemies) {
+        for (int i = 0; i < enemies.length; i++) {
+            for (int j = i + 1; j < enemies.length; j++) {
+                GameObject a = enemies[i];
+                GameObject b = enemies[j];
+                if (!logic.isColliding(a, b)) continue;
+
+                float diffX = centerX(a) - centerX(b);
+                float diffY = centerY(a) - centerY(b);
+                float dist = (float) Math.sqrt(diffX * diffX + diffY * diffY);
+                if (dist == 0) {
+                    diffX = 0.01f;
+                    diffY = 0.01f;
+                    dist = (float) Math.sqrt(diffX * diffX + diffY * diffY);
+                }
+                float overlap = Math.max(0f, 8f - dist);
+                if (overlap <= 0f) {
+                    overlap = 2f;
+                }
+                float pushX = diffX / dist;
+                float pushY = diffY / dist;
+                float shiftX = pushX * (overlap / 2f);
+                float shiftY = pushY * (overlap / 2f);
+                a.getComponent(TransformComponent.class).translate(shiftX, shiftY);
+                b.getComponent(TransformComponent.class).translate(-shiftX, -shiftY);
+
+                float dvScale = 40f * (overlap / 8f);
+                float dvX = pushX * dvScale;
+                float dvY = pushY * dvScale;
+                float dvLen = (float) Math.sqrt(dvX * dvX + dvY * dvY);
+                if (dvLen > 30f) {
+                    dvX = dvX / dvLen * 30f;
+                    dvY = dvY / dvLen * 30f;
+                }
+                a.getComponent(PhysicsComponent.class).addVelocity(dvX, dvY);
+                b.getComponent(PhysicsComponent.class).addVelocity(-dvX, -dvY);
+            }
+        }
+    }
+
+    private static float centerX(GameObject obj) {
+        RenderComponent r = obj.getComponent(RenderComponent.class);
+        float x = obj.getComponent(TransformComponent.class).getX();
+        return r == null ? x : x + r.getWidth() / 2f;
+    }
+
+    private static float centerY(GameObject obj) {
+        RenderComponent r = obj.getComponent(RenderComponent.class);
+        float y = obj.getComponent(TransformComponent.class).getY();
+        return r == null ? y : y + r.getHeight() / 2f;
+    }
+
+    private static Set<Long> gridContacts(GameLogic logic, SpatialHashGrid grid, GameObject[] enemies) {
+        float[] bounds = new float[4];
+        grid.clear();
+        for (GameObject enemy : enemies) {
+            GameLogic.computeBounds(enemy, 0f, bounds);
+            grid.add(bounds[0], bounds[1], bounds[2], bounds[3]);
+        }
+        grid.build();
+        Set<Long> contacts = new HashSet<>();
+        int pairs = grid.findPairs();
+        for (int p = 0; p < pairs; p++) {
+            int a = grid.getPairA(p);
+            int b = grid.getPairB(p);
+            if (logic.isColliding(enemies[a], enemies[b])) {
+                contacts.add(((long) a << 32) | b);
+            }
+        }
+        return contacts;
+    }
+}
@@ -0,0 +1,111 @@
+package com.gameengine.bench;
+
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.graphics.RenderCommandBuffer;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.Random;
+
+/**
+ * 视口裁剪校验与基准：在边长为窗口若干倍的世界里随机放置矩形、圆和线段，
+ * 校验裁剪后生成的命令数等于逐个求交得到的可见数，再比较开关裁剪时的场景渲染耗时。
+ * 校验失败时以非零状态退出。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.CullingBenchmark [实体数] [世界边长/窗口边长]
+ */
+public class CullingBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURE_FRAMES = 1000;
+
+    public static void main(String[] args) {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int worldScale = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        float worldW = WIDTH * worldScale;
+        float worldH = HEIGHT * worldScale;
+
+        RenderCommandBuffer commands = new RenderCommandBuffer(WIDTH, HEIGHT, "culling");
+        Scene scene = new Scene("CullingBenchmark");
+        Random random = new Random(17);
+        RenderComponent.RenderType[] types = RenderComponent.RenderType.values();
+        float viewX = (worldW - WIDTH) / 2;
+        float viewY = (worldH - HEIGHT) / 2;
+        int expected = 0;
+        for (int i = 0; i < entities; i++) {
+            float x = random.nextFloat() * worldW;
+            float y = random.nextFloat() * worldH;
+            RenderComponent.RenderType type = types[i % types.length];
+            float w = type == RenderComponent.RenderType.LINE ? random.nextFloat() * 80 - 40 : 4 + random.nextFloat() * 30;
+            float h = type == RenderComponent.RenderType.LINE ? random.nextFloat() * 80 - 40 : w;
+            GameObject obj = new GameObject("Entity");
+            obj.addComponent(new TransformComponent(new Vector2(x, y)));
+            RenderComponent rc = obj.addComponent(new RenderComponent(type, new Vector2(w, h),
+                new RenderComponent.Color(0.5f, 0.5f, 1f, 1f)));
+            rc.setRenderer(commands);
+            scene.addGameObject(obj);
+            if (intersects(x, y, w, h, type == RenderComponent.RenderType.LINE, viewX, viewY)) {
+                expected++;
+            }
+        }
+        scene.update(0f);
+
+        boolean ok = true;
+        scene.setViewport(viewX, viewY, WIDTH, HEIGHT);
+        commands.beginFrame();
+        scene.render();
+        ok &= check("可见实体生成的命令数", commands.size(), expected);
+        ok &= check("裁剪数", scene.getCulledCount(), entities - expected);
+
+        scene.clearViewport();
+        commands.beginFrame();
+        scene.render();
+        ok &= check("不裁剪时的命令数", commands.size(), entities);
+
+        scene.setViewport(viewX, viewY, WIDTH, HEIGHT);
+        double culledUs = measure(scene, commands);
+        scene.clearViewport();
+        double allUs = measure(scene, commands);
+        System.out.printf("%d 个实体, 世界 %.0fx%.0f, 可见 %d: 裁剪 %.1f us/帧, 不裁剪 %.1f us/帧%n",
+            entities, worldW, worldH, expected, culledUs, allUs);
+
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("视口裁剪结果与逐个求交一致");
+    }
+
+    // 与 RenderComponent 的包围盒规则相同：线段按端点外接框外扩半个线宽
+    private static boolean intersects(float x, float y, float w, float h, boolean line, float viewX, float viewY) {
+        float pad = line ? 1.25f : 0f;
+        float minX = Math.min(x, x + w) - pad;
+        float maxX = Math.max(x, x + w) + pad;
+        float minY = Math.min(y, y + h) - pad;
+        float maxY = Math.max(y, y + h) + pad;
+        return maxX >= viewX && minX <= viewX + WIDTH && maxY >= viewY && minY <= viewY + HEIGHT;
+    }
+
+    private static double measure(Scene scene, RenderCommandBuffer commands) {
+        for (int f = 0; f < WARMUP_FRAMES; f++) {
+            commands.beginFrame();
+            scene.render();
+        }
+        long start = System.nanoTime();
+        for (int f = 0; f < MEASURE_FRAMES; f++) {
+            commands.beginFrame();
+            scene.render();
+        }
+        return (System.nanoTime() - start) / 1000.0 / MEASURE_FRAMES;
+    }
+
+    private static boolean check(String name, long actual, long expected) {
+        if (actual != expected) {
+            System.err.printf("%s: 期望 %d, 实际 %d%n", name, expected, actual);
+            return false;
+        }
+        return true;
+    }
+}
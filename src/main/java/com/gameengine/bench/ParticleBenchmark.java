@@ -0,0 +1,101 @@
+package com.gameengine.bench;
+
+import com.gameengine.core.JobSystem;
+import com.gameengine.core.ParticleManager;
+import com.gameengine.core.ParticlePool;
+import com.gameengine.core.ParticleSystem;
+
+import java.util.Random;
+
+/**
+ * 粒子并行更新基准与校验：两个使用相同种子的粒子管理器分别串行和并行更新，
+ * 每帧先校验两边池中的数据逐位一致，再比较每帧更新耗时。数据不一致时以非零状态退出。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.ParticleBenchmark [存活粒子数...]
+ */
+public class ParticleBenchmark {
+    private static final int VERIFY_FRAMES = 300;
+    private static final int MEASURE_FRAMES = 300;
+    private static final float DT = 1f / 60f;
+
+    public static void main(String[] args) {
+        int[] sizes = {10_000, 100_000, 500_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        JobSystem jobs = JobSystem.createDefault();
+        ParticleSystem.Config config = new ParticleSystem.Config();
+        boolean allMatched = true;
+        System.out.printf("%10s %12s %12s %10s%n", "粒子数", "串行(ms)", "并行(ms)", "一致");
+        try {
+            for (int n : sizes) {
+                // 平均寿命约 1.1 秒，每帧补充 n / 66 个即可维持约 n 个存活粒子
+                int perFrame = Math.max(1, n / 66);
+                ParticleManager serial = createManager(n, 99L + n);
+                ParticleManager parallel = createManager(n, 99L + n);
+
+                boolean matched = true;
+                for (int f = 0; f < VERIFY_FRAMES && matched; f++) {
+                    frame(serial, config, perFrame, null);
+                    frame(parallel, config, perFrame, jobs);
+                    matched = samePools(serial.getPool(), parallel.getPool());
+                }
+                if (!matched) {
+                    allMatched = false;
+                    System.err.printf("并行结果与串行不一致: n=%d%n", n);
+                }
+
+                long start = System.nanoTime();
+                for (int f = 0; f < MEASURE_FRAMES; f++) {
+                    frame(serial, config, perFrame, null);
+                }
+                double serialMs = (System.nanoTime() - start) / 1_000_000.0 / MEASURE_FRAMES;
+
+                start = System.nanoTime();
+                for (int f = 0; f < MEASURE_FRAMES; f++) {
+                    frame(parallel, config, perFrame, jobs);
+                }
+                double parallelMs = (System.nanoTime() - start) / 1_000_000.0 / MEASURE_FRAMES;
+
+                System.out.printf("%10d %12.3f %12.3f %10s%n",
+                    serial.getParticleCount(), serialMs, parallelMs, matched ? "是" : "否");
+            }
+        } finally {
+            jobs.shutdown();
+        }
+
+        if (!allMatched) {
+            System.exit(1);
+        }
+        System.out.println("并行更新结果与串行一致");
+    }
+
+    private static ParticleManager createManager(int n, long seed) {
+        return new ParticleManager(null, n * 2, ParticlePool.OverflowPolicy.GROW, new Random(seed));
+    }
+
+    private static void frame(ParticleManager manager, ParticleSystem.Config config, int perFrame, JobSystem jobs) {
+        manager.burst(400, 300, perFrame, config);
+        manager.update(DT, jobs);
+    }
+
+    private static boolean samePools(ParticlePool a, ParticlePool b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (Float.floatToIntBits(a.getX(i)) != Float.floatToIntBits(b.getX(i))
+                || Float.floatToIntBits(a.getY(i)) != Float.floatToIntBits(b.getY(i))
+                || Float.floatToIntBits(a.getVelocityX(i)) != Float.floatToIntBits(b.getVelocityX(i))
+                || Float.floatToIntBits(a.getVelocityY(i)) != Float.floatToIntBits(b.getVelocityY(i))
+                || Float.floatToIntBits(a.getLife(i)) != Float.floatToIntBits(b.getLife(i))
+                || Float.floatToIntBits(a.getSize(i)) != Float.floatToIntBits(b.getSize(i))
+                || Float.floatToIntBits(a.getG(i)) != Float.floatToIntBits(b.getG(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
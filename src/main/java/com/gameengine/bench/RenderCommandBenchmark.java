@@ -0,0 +1,138 @@
+package com.gameengine.bench;
+
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.InstanceBuffer;
+import com.gameengine.graphics.NullRenderer;
+import com.gameengine.graphics.RenderCommandBuffer;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 渲染命令缓冲校验与基准：同一组绘制分别直接画到 NullRenderer 和经命令缓冲回放，
+ * 校验各类型绘制数和逐条参数一致、排序键生效，再分别测量命令生成和回放提交的耗时。
+ * 校验失败时以非零状态退出。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.RenderCommandBenchmark [每帧形状数]
+ */
+public class RenderCommandBenchmark {
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURE_FRAMES = 1000;
+
+    public static void main(String[] args) {
+        int shapes = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        Random random = new Random(11);
+        float[] xs = new float[shapes];
+        float[] ys = new float[shapes];
+        for (int i = 0; i < shapes; i++) {
+            xs[i] = random.nextFloat() * 800;
+            ys[i] = random.nextFloat() * 600;
+        }
+        InstanceBuffer particles = new InstanceBuffer();
+        for (int i = 0; i < shapes / 2; i++) {
+            particles.add(xs[i], ys[i], 3, 3, 1f, 0.5f, 0f, 0.8f);
+        }
+
+        boolean ok = true;
+        NullRenderer direct = new NullRenderer(800, 600, "direct");
+        NullRenderer replayed = new NullRenderer(800, 600, "replayed");
+        direct.setRecording(true);
+        replayed.setRecording(true);
+        RenderCommandBuffer commands = RenderCommandBuffer.of(replayed);
+
+        direct.beginFrame();
+        draw(direct, xs, ys, particles);
+        replayed.beginFrame();
+        commands.beginFrame();
+        draw(commands, xs, ys, particles);
+        commands.execute(replayed);
+        for (NullRenderer.DrawType type : NullRenderer.DrawType.values()) {
+            ok &= check(type + " 数量", replayed.getFrameDrawCalls(type), direct.getFrameDrawCalls(type));
+        }
+        ok &= sameCalls(direct.getRecordedCalls(), replayed.getRecordedCalls());
+
+        // 排序键：后记录的小键命令先回放，键相同时保持记录顺序
+        replayed.beginFrame();
+        commands.beginFrame();
+        commands.setSortKey(10);
+        commands.drawText(0, 0, "HUD", 1, 1, 1, 1);
+        commands.setSortKey(0);
+        commands.drawRect(1, 0, 1, 1, 1, 1, 1, 1);
+        commands.drawRect(2, 0, 1, 1, 1, 1, 1, 1);
+        commands.execute(replayed);
+        List<NullRenderer.DrawCall> sorted = replayed.getRecordedCalls();
+        ok &= check("排序后命令数", sorted.size(), 3);
+        ok &= check("排序首条", (long) sorted.get(0).a0, 1);
+        ok &= check("排序次条", (long) sorted.get(1).a0, 2);
+        ok &= check("排序末条为文字", sorted.get(2).type == NullRenderer.DrawType.TEXT ? 1 : 0, 1);
+        ok &= check("同类合并批次", replayed.getFrameBatchCalls(), 1);
+
+        replayed.setRecording(false);
+        long generateNanos = 0;
+        long submitNanos = 0;
+        for (int f = 0; f < WARMUP_FRAMES + MEASURE_FRAMES; f++) {
+            long t0 = System.nanoTime();
+            commands.beginFrame();
+            draw(commands, xs, ys, particles);
+            long t1 = System.nanoTime();
+            replayed.beginFrame();
+            commands.execute(replayed);
+            replayed.endFrame();
+            long t2 = System.nanoTime();
+            if (f >= WARMUP_FRAMES) {
+                generateNanos += t1 - t0;
+                submitNanos += t2 - t1;
+            }
+        }
+        System.out.printf("%d 条命令/帧: 生成 %.1f us/帧, 提交 %.1f us/帧%n", commands.size(),
+            generateNanos / 1000.0 / MEASURE_FRAMES, submitNanos / 1000.0 / MEASURE_FRAMES);
+
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("命令缓冲回放结果与直接绘制一致");
+    }
+
+    // 模拟一帧场景：背景、逐个绘制的实体、批量粒子、连线和 HUD 文字
+    private static void draw(IRenderer r, float[] xs, float[] ys, InstanceBuffer particles) {
+        r.drawRect(0, 0, 800, 600, 0.1f, 0.1f, 0.1f, 1f);
+        for (int i = 0; i < xs.length; i++) {
+            if ((i & 3) == 0) {
+                r.drawCircle(xs[i], ys[i], 6, 16, 0.2f, 0.8f, 0.2f, 1f);
+            } else {
+                r.drawRect(xs[i], ys[i], 10, 10, 0.8f, 0.2f, 0.2f, 1f);
+            }
+        }
+        r.drawRects(particles.getData(), particles.size());
+        for (int i = 1; i < 64 && i < xs.length; i++) {
+            r.drawLine(xs[i - 1], ys[i - 1], xs[i], ys[i], 1f, 1f, 1f, 0.5f);
+        }
+        r.drawText(10, 20, "SCORE: 12345", 1f, 1f, 1f, 1f);
+    }
+
+    private static boolean sameCalls(List<NullRenderer.DrawCall> a, List<NullRenderer.DrawCall> b) {
+        if (!check("记录条数", b.size(), a.size())) return false;
+        for (int i = 0; i < a.size(); i++) {
+            NullRenderer.DrawCall x = a.get(i);
+            NullRenderer.DrawCall y = b.get(i);
+            boolean same = x.type == y.type
+                && Math.abs(x.a0 - y.a0) < 1e-3f && Math.abs(x.a1 - y.a1) < 1e-3f
+                && Math.abs(x.a2 - y.a2) < 1e-3f && Math.abs(x.a3 - y.a3) < 1e-3f
+                && x.r == y.r && x.g == y.g && x.b == y.b && x.a == y.a
+                && (x.text == null ? y.text == null : x.text.equals(y.text));
+            if (!same) {
+                System.err.printf("第 %d 条绘制不一致: %s / %s%n", i, x.type, y.type);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean check(String name, long actual, long expected) {
+        if (actual != expected) {
+            System.err.printf("%s: 期望 %d, 实际 %d%n", name, expected, actual);
+            return false;
+        }
+        return true;
+    }
+}
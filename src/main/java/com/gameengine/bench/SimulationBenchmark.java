@@ -0,0 +1,256 @@
+package com.gameengine.bench;
+
+import com.gameengine.components.EnemyAIComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.JobSystem;
+import com.gameengine.core.PhysicsSystem;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 核心模拟热路径的基准套件：Scene.update、PhysicsSystem.update、GameLogic.checkCollisions、
+ * GameLogic.handleAIPlayerAvoidance 和 GameObject.getComponent，规模为 100 / 1k / 10k / 100k 实体。
+ * 按 JMH 的做法先跑若干轮固定时长的预热，再跑若干轮测量，报告每次操作的平均耗时和误差、
+ * 每次操作分配的字节数、分配速率以及测量期间的 GC 次数和耗时。
+ * 分配量对所有线程求和，因此任务系统工作线程上的分配也计算在内。不需要窗口和 GPU。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.SimulationBenchmark [--serial] [基准名...] [实体数...]
+ * 基准名：scene, physics, collisions, avoidance, getComponent；不指定时全部运行。
+ */
+public class SimulationBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 500_000_000L;
+    private static final float DT = 1f / 60f;
+    private static final String[] ALL = {"scene", "physics", "collisions", "avoidance", "getComponent"};
+
+    private interface Op {
+        long run();
+    }
+
+    // 写入结果防止 JIT 消除被测代码
+    private static volatile long blackhole;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int[] sizes = {100, 1_000, 10_000, 100_000};
+        String[] names = ALL;
+        boolean serial = false;
+        int sizeCount = 0;
+        int nameCount = 0;
+        int[] argSizes = new int[args.length];
+        String[] argNames = new String[args.length];
+        for (String arg : args) {
+            if (arg.equals("--serial")) {
+                serial = true;
+            } else if (Character.isDigit(arg.charAt(0))) {
+                argSizes[sizeCount++] = Integer.parseInt(arg);
+            } else {
+                argNames[nameCount++] = arg;
+            }
+        }
+        if (sizeCount > 0) sizes = Arrays.copyOf(argSizes, sizeCount);
+        if (nameCount > 0) names = Arrays.copyOf(argNames, nameCount);
+
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        JobSystem jobs = serial ? JobSystem.serial() : JobSystem.createDefault();
+        System.out.printf("并行度: %d%n", jobs.getParallelism());
+        System.out.printf("%-14s %8s %14s %10s %12s %12s %6s %8s%n",
+            "基准", "实体数", "耗时(us/op)", "误差(%)", "分配(B/op)", "分配(MB/s)", "GC次数", "GC(ms)");
+        try {
+            for (String name : names) {
+                for (int n : sizes) {
+                    Scene scene = createScene(n, 17L * n + 1);
+                    scene.setJobSystem(jobs);
+                    Op op = createOp(name, scene, n);
+                    if (op == null) {
+                        System.err.println("未知基准: " + name);
+                        break;
+                    }
+                    measure(name, n, op);
+                    scene.clear();
+                }
+            }
+        } finally {
+            jobs.shutdown();
+        }
+    }
+
+    private static Op createOp(String name, Scene scene, int n) {
+        float side = worldSide(n);
+        switch (name) {
+            case "scene":
+                return () -> {
+                    scene.update(DT);
+                    return 1;
+                };
+            case "physics": {
+                PhysicsSystem physics = new PhysicsSystem(scene, (int) side, (int) side);
+                return () -> {
+                    physics.update(DT);
+                    return 1;
+                };
+            }
+            case "collisions": {
+                GameLogic logic = new GameLogic(scene);
+                logic.setWorldSize((int) side, (int) side);
+                return () -> {
+                    logic.setLives(3);
+                    logic.checkCollisions();
+                    return logic.getScore();
+                };
+            }
+            case "avoidance": {
+                GameLogic logic = new GameLogic(scene);
+                logic.setWorldSize((int) side, (int) side);
+                return () -> {
+                    logic.handleAIPlayerAvoidance();
+                    return 1;
+                };
+            }
+            case "getComponent": {
+                List<GameObject> objects = scene.query(TransformComponent.class).asList();
+                return () -> {
+                    long hits = 0;
+                    for (int i = 0; i < objects.size(); i++) {
+                        GameObject obj = objects.get(i);
+                        if (obj.getComponent(TransformComponent.class) != null) hits++;
+                        if (obj.getComponent(PhysicsComponent.class) != null) hits++;
+                        if (obj.getComponent(RenderComponent.class) != null) hits++;
+                    }
+                    return hits;
+                };
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static void measure(String name, int n, Op op) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += runIteration(op, null);
+        }
+
+        List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+        long gcCountBefore = gcCount(gcs);
+        long gcTimeBefore = gcTime(gcs);
+        long allocatedBefore = totalAllocatedBytes();
+
+        double[] perOp = new double[MEASURE_ITERATIONS];
+        long[] stats = new long[2];
+        long totalOps = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            sink += runIteration(op, stats);
+            perOp[i] = (double) stats[1] / stats[0];
+            totalOps += stats[0];
+            totalNanos += stats[1];
+        }
+
+        long allocated = totalAllocatedBytes() - allocatedBefore;
+        long gcCount = gcCount(gcs) - gcCountBefore;
+        long gcTime = gcTime(gcs) - gcTimeBefore;
+
+        double mean = (double) totalNanos / totalOps;
+        double variance = 0;
+        for (double v : perOp) {
+            variance += (v - mean) * (v - mean);
+        }
+        double stdDev = Math.sqrt(variance / Math.max(1, MEASURE_ITERATIONS - 1));
+        double allocPerOp = (double) allocated / totalOps;
+        double allocRate = allocated / (totalNanos / 1_000_000_000.0) / (1024 * 1024);
+
+        System.out.printf("%-14s %8d %14.3f %10.1f %12.1f %12.2f %6d %8d%n",
+            name, n, mean / 1_000.0, stdDev / mean * 100, allocPerOp, allocRate, gcCount, gcTime);
+        blackhole = sink;
+    }
+
+    // 运行一轮固定时长的测量，stats 写入 {操作次数, 总纳秒}
+    private static long runIteration(Op op, long[] stats) {
+        long sink = 0;
+        long ops = 0;
+        long start = System.nanoTime();
+        long now;
+        do {
+            sink += op.run();
+            ops++;
+            now = System.nanoTime();
+        } while (now - start < ITERATION_NANOS);
+        if (stats != null) {
+            stats[0] = ops;
+            stats[1] = now - start;
+        }
+        return sink;
+    }
+
+    private static long totalAllocatedBytes() {
+        long[] ids = THREADS.getAllThreadIds();
+        long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+        long sum = 0;
+        for (long b : bytes) {
+            if (b > 0) sum += b;
+        }
+        return sum;
+    }
+
+    private static long gcCount(List<GarbageCollectorMXBean> gcs) {
+        long sum = 0;
+        for (GarbageCollectorMXBean gc : gcs) {
+            sum += Math.max(0, gc.getCollectionCount());
+        }
+        return sum;
+    }
+
+    private static long gcTime(List<GarbageCollectorMXBean> gcs) {
+        long sum = 0;
+        for (GarbageCollectorMXBean gc : gcs) {
+            sum += Math.max(0, gc.getCollectionTime());
+        }
+        return sum;
+    }
+
+    // 密度约每 1500 平方像素一个敌人，与 BroadphaseBenchmark 一致
+    private static float worldSide(int n) {
+        return (float) Math.sqrt(n * 1500.0);
+    }
+
+    private static Scene createScene(int n, long seed) {
+        Scene scene = new Scene("SimulationBenchmark");
+        Random random = new Random(seed);
+        float side = worldSide(n);
+
+        // 玩家放在世界外，避免触发扣血复位
+        GameObject player = new GameObject("Player");
+        player.addComponent(new TransformComponent(new Vector2(-1000, -1000)));
+        player.addComponent(new PhysicsComponent(1.0f));
+        scene.addGameObject(player);
+
+        for (int i = 0; i < n; i++) {
+            GameObject enemy = new GameObject("Enemy");
+            enemy.addComponent(new TransformComponent(new Vector2(random.nextFloat() * side, random.nextFloat() * side)));
+            enemy.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE,
+                new Vector2(20, 20), new RenderComponent.Color(1f, 0.5f, 0f, 1f)));
+            PhysicsComponent physics = enemy.addComponent(new PhysicsComponent(0.5f));
+            physics.setVelocity((random.nextFloat() - 0.5f) * 100, (random.nextFloat() - 0.5f) * 100);
+            physics.setFriction(0.98f);
+            enemy.addComponent(new EnemyAIComponent());
+            scene.addGameObject(enemy);
+        }
+        scene.initialize();
+        scene.update(0f);
+        return scene;
+    }
+}
@@ -0,0 +1,135 @@
+package com.gameengine.bench;
+
+import com.gameengine.core.JobSystem;
+import com.gameengine.graphics.SoftwareRenderer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * 软件光栅化校验与基准：先检查几个手算的像素（覆盖规则和 alpha 混合），
+ * 再用串行和并行条带分别渲染同一场景并逐像素比较，最后测量并行渲染的帧率。
+ * 校验失败时以非零状态退出；给出文件路径时把最后一帧保存为 PNG。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.SoftwareRendererBenchmark [每帧形状数] [输出.png]
+ */
+public class SoftwareRendererBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WARMUP_FRAMES = 50;
+    private static final int MEASURE_FRAMES = 300;
+
+    public static void main(String[] args) throws IOException {
+        int shapes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        boolean ok = true;
+
+        SoftwareRenderer golden = new SoftwareRenderer(WIDTH, HEIGHT, "golden");
+        golden.beginFrame();
+        golden.drawRect(10, 10, 20, 20, 1f, 0f, 0f, 1f);
+        golden.drawRect(100, 100, 10, 10, 1f, 1f, 1f, 128 / 255f);
+        golden.drawCircle(200, 200, 10, 16, 0f, 0f, 1f, 1f);
+        golden.drawLine(300, 50, 400, 50, 0f, 1f, 0f, 1f);
+        golden.endFrame();
+        ok &= checkPixel(golden, 15, 15, 0xFFFF0000);
+        // 像素中心 30.5 不在 [10, 30) 内
+        ok &= checkPixel(golden, 30, 15, 0xFF333333);
+        // 半透明白色叠在清屏色上：rgb = (255*128 + 51*127) / 255，alpha 同样按 SRC_ALPHA 混合
+        ok &= checkPixel(golden, 105, 105, 0xBF999999);
+        ok &= checkPixel(golden, 200, 200, 0xFF0000FF);
+        ok &= checkPixel(golden, 209, 200, 0xFF0000FF);
+        ok &= checkPixel(golden, 211, 200, 0xFF333333);
+        // 宽 2.5 的水平线覆盖 y ∈ [48.75, 51.25) 的像素中心，即第 49、50 行
+        ok &= checkPixel(golden, 350, 48, 0xFF333333);
+        ok &= checkPixel(golden, 350, 49, 0xFF00FF00);
+        ok &= checkPixel(golden, 350, 50, 0xFF00FF00);
+        ok &= checkPixel(golden, 350, 51, 0xFF333333);
+
+        // 完全在画面外（右侧、下方、左上）或跨越边缘的图形：不越界，边缘内的部分照常覆盖
+        SoftwareRenderer edge = new SoftwareRenderer(100, 50, "edge");
+        edge.beginFrame();
+        edge.drawRect(150, 40, 20, 20, 1f, 0f, 0f, 1f);
+        edge.drawRect(10, 60, 20, 20, 1f, 0f, 0f, 1f);
+        edge.drawRect(-40, -40, 20, 20, 1f, 0f, 0f, 1f);
+        edge.drawCircle(130, 45, 10, 16, 1f, 0f, 0f, 1f);
+        edge.drawLine(120, 49, 160, 49, 1f, 0f, 0f, 1f);
+        edge.drawRect(90, 45, 20, 20, 0f, 1f, 0f, 1f);
+        edge.endFrame();
+        ok &= checkPixel(edge, 99, 49, 0xFF00FF00);
+        ok &= checkPixel(edge, 89, 49, 0xFF333333);
+        ok &= checkPixel(edge, 0, 0, 0xFF333333);
+
+        JobSystem jobs = JobSystem.createDefault();
+        try {
+            SoftwareRenderer serial = new SoftwareRenderer(WIDTH, HEIGHT, "serial", JobSystem.serial());
+            SoftwareRenderer parallel = new SoftwareRenderer(WIDTH, HEIGHT, "parallel", jobs);
+            drawScene(serial, shapes, 1);
+            drawScene(parallel, shapes, 1);
+            int[] a = serial.getPixels();
+            int[] b = parallel.getPixels();
+            int mismatches = 0;
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[i]) mismatches++;
+            }
+            if (mismatches != 0) {
+                System.err.printf("并行条带与串行结果有 %d 个像素不同%n", mismatches);
+                ok = false;
+            }
+
+            for (int f = 0; f < WARMUP_FRAMES; f++) {
+                drawScene(parallel, shapes, f);
+            }
+            long start = System.nanoTime();
+            for (int f = 0; f < MEASURE_FRAMES; f++) {
+                drawScene(parallel, shapes, f);
+            }
+            double ms = (System.nanoTime() - start) / 1_000_000.0 / MEASURE_FRAMES;
+            System.out.printf("%dx%d, %d 个形状/帧, %d 线程: %.2f ms/帧 (%.0f 帧/秒)%n",
+                WIDTH, HEIGHT, shapes, jobs.getParallelism(), ms, 1000.0 / ms);
+
+            if (args.length > 1) {
+                parallel.writePng(new File(args[1]));
+                System.out.println("已保存 " + args[1]);
+            }
+        } finally {
+            jobs.shutdown();
+        }
+
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("软件光栅化像素校验通过");
+    }
+
+    private static void drawScene(SoftwareRenderer renderer, int shapes, int frame) {
+        Random random = new Random(5);
+        renderer.beginFrame();
+        for (int i = 0; i < shapes; i++) {
+            float x = (random.nextFloat() * WIDTH + frame) % WIDTH;
+            float y = random.nextFloat() * HEIGHT;
+            float alpha = 0.3f + random.nextFloat() * 0.7f;
+            switch (i % 3) {
+                case 0:
+                    renderer.drawRect(x, y, 12, 12, 0.9f, 0.3f, 0.2f, alpha);
+                    break;
+                case 1:
+                    renderer.drawCircle(x, y, 7, 16, 0.2f, 0.8f, 0.3f, alpha);
+                    break;
+                default:
+                    renderer.drawLine(x, y, x + 30, y + 20, 0.9f, 0.9f, 0.2f, alpha);
+                    break;
+            }
+        }
+        renderer.drawText(10, 10, "SCORE: 12345", 1f, 1f, 1f, 1f);
+        renderer.endFrame();
+    }
+
+    private static boolean checkPixel(SoftwareRenderer renderer, int x, int y, int expected) {
+        int actual = renderer.getPixel(x, y);
+        if (actual != expected) {
+            System.err.printf("像素 (%d, %d): 期望 %08X, 实际 %08X%n", x, y, expected, actual);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+package com.gameengine.bench;
+
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.RenderCommandBuffer;
+import com.gameengine.graphics.SoftwareRenderer;
+import com.gameengine.graphics.StaticLayer;
+
+import java.util.Random;
+
+/**
+ * 静态图层校验与基准：在软件后端上把背景和若干装饰圆分别逐帧直接绘制、烘焙成静态图层后绘制，
+ * 校验两者 RGB 逐像素一致、排序键不单调的图层与按键排序后直接绘制一致、图层只在失效后重新烘焙，
+ * 再比较每帧的命令数和耗时。
+ * 校验失败时以非零状态退出。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.StaticLayerBenchmark [装饰数]
+ */
+public class StaticLayerBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WARMUP_FRAMES = 30;
+    private static final int MEASURE_FRAMES = 200;
+
+    public static void main(String[] args) {
+        int decorations = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        Random random = new Random(23);
+        float[] xs = new float[decorations];
+        float[] ys = new float[decorations];
+        for (int i = 0; i < decorations; i++) {
+            xs[i] = random.nextFloat() * WIDTH;
+            ys[i] = random.nextFloat() * HEIGHT;
+        }
+
+        boolean ok = true;
+        SoftwareRenderer direct = new SoftwareRenderer(WIDTH, HEIGHT, "direct");
+        SoftwareRenderer layered = new SoftwareRenderer(WIDTH, HEIGHT, "layered");
+        StaticLayer layer = new StaticLayer(WIDTH, HEIGHT);
+        RenderCommandBuffer directCommands = RenderCommandBuffer.of(direct);
+        RenderCommandBuffer layeredCommands = RenderCommandBuffer.of(layered);
+
+        drawDirect(direct, directCommands, xs, ys);
+        drawLayered(layered, layeredCommands, layer, xs, ys);
+        ok &= check("图层与直接绘制不同的像素数", mismatches(direct, layered), 0);
+
+        // 图层内容的排序键不单调：烘焙须按键排序后的顺序绘制，红色键更大，盖在后录制的绿色上面
+        SoftwareRenderer keyedDirect = new SoftwareRenderer(WIDTH, HEIGHT, "keyed-direct");
+        SoftwareRenderer keyedLayered = new SoftwareRenderer(WIDTH, HEIGHT, "keyed-layered");
+        RenderCommandBuffer keyedCommands = RenderCommandBuffer.of(keyedDirect);
+        keyedCommands.beginFrame();
+        drawKeyed(keyedCommands);
+        submit(keyedDirect, keyedCommands);
+        StaticLayer keyedLayer = new StaticLayer(WIDTH, HEIGHT);
+        drawKeyed((RenderCommandBuffer) keyedLayer.begin());
+        keyedLayer.end();
+        keyedCommands = RenderCommandBuffer.of(keyedLayered);
+        keyedCommands.beginFrame();
+        keyedCommands.drawLayer(keyedLayer.getSnapshot());
+        submit(keyedLayered, keyedCommands);
+        ok &= check("排序键不单调时图层与直接绘制不同的像素数", mismatches(keyedDirect, keyedLayered), 0);
+        ok &= check("重叠处的颜色", keyedLayered.getPixels()[175 * WIDTH + 175] & 0xFFFFFF, 0xFF0000);
+
+        drawLayered(layered, layeredCommands, layer, xs, ys);
+        ok &= check("内容未变时的烘焙次数", layered.getLayerBakeCount(), 1);
+        layer.invalidate();
+        drawLayered(layered, layeredCommands, layer, xs, ys);
+        ok &= check("失效后的烘焙次数", layered.getLayerBakeCount(), 2);
+
+        for (int f = 0; f < WARMUP_FRAMES; f++) {
+            drawDirect(direct, directCommands, xs, ys);
+            drawLayered(layered, layeredCommands, layer, xs, ys);
+        }
+        long start = System.nanoTime();
+        for (int f = 0; f < MEASURE_FRAMES; f++) {
+            drawDirect(direct, directCommands, xs, ys);
+        }
+        double directMs = (System.nanoTime() - start) / 1_000_000.0 / MEASURE_FRAMES;
+        start = System.nanoTime();
+        for (int f = 0; f < MEASURE_FRAMES; f++) {
+            drawLayered(layered, layeredCommands, layer, xs, ys);
+        }
+        double layeredMs = (System.nanoTime() - start) / 1_000_000.0 / MEASURE_FRAMES;
+        System.out.printf("%d 个装饰: 直接绘制 %d 条命令 %.2f ms/帧, 静态图层 %d 条命令 %.2f ms/帧%n",
+            decorations, directCommands.size(), directMs, layeredCommands.size(), layeredMs);
+
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("静态图层与直接绘制一致");
+    }
+
+    private static void drawDirect(SoftwareRenderer backend, RenderCommandBuffer commands, float[] xs, float[] ys) {
+        commands.beginFrame();
+        drawScenery(commands, xs, ys);
+        commands.drawRect(100, 100, 50, 50, 1f, 0f, 0f, 1f);
+        submit(backend, commands);
+    }
+
+    private static void drawLayered(SoftwareRenderer backend, RenderCommandBuffer commands, StaticLayer layer,
+                                    float[] xs, float[] ys) {
+        if (layer.isDirty()) {
+            drawScenery(layer.begin(), xs, ys);
+            layer.end();
+        }
+        commands.beginFrame();
+        commands.drawLayer(layer.getSnapshot());
+        commands.drawRect(100, 100, 50, 50, 1f, 0f, 0f, 1f);
+        submit(backend, commands);
+    }
+
+    // 与 GameScene 相同的背景色和装饰外观
+    private static void drawScenery(IRenderer r, float[] xs, float[] ys) {
+        r.drawRect(0, 0, WIDTH, HEIGHT, 0.1f, 0.1f, 0.2f, 1.0f);
+        for (int i = 0; i < xs.length; i++) {
+            r.drawCircle(xs[i], ys[i], 2.5f, 16, 0.5f, 0.5f, 1.0f, 0.8f);
+        }
+    }
+
+    // 红色矩形键为 2，之后录制的绿色矩形和圆键为 1
+    private static void drawKeyed(RenderCommandBuffer r) {
+        r.setSortKey(2);
+        r.drawRect(100, 100, 100, 100, 1f, 0f, 0f, 1f);
+        r.setSortKey(1);
+        r.drawRect(150, 150, 100, 100, 0f, 1f, 0f, 1f);
+        r.drawCircle(190, 120, 30, 16, 0f, 1f, 0f, 1f);
+        r.setSortKey(0);
+    }
+
+    // RGB 不同的像素数
+    private static long mismatches(SoftwareRenderer x, SoftwareRenderer y) {
+        int[] a = x.getPixels();
+        int[] b = y.getPixels();
+        long count = 0;
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & 0xFFFFFF) != (b[i] & 0xFFFFFF)) count++;
+        }
+        return count;
+    }
+
+    private static void submit(SoftwareRenderer backend, RenderCommandBuffer commands) {
+        backend.beginFrame();
+        commands.execute(backend);
+        backend.endFrame();
+    }
+
+    private static boolean check(String name, long actual, long expected) {
+        if (actual != expected) {
+            System.err.printf("%s: 期望 %d, 实际 %d%n", name, expected, actual);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gameengine.bench;
+
+import com.gameengine.graphics.VertexBatcher;
+import com.gameengine.graphics.VertexSink;
+
+import java.util.Random;
+
+/**
+ * 顶点批处理校验与基准：用只计数的 {@link VertexSink} 代替 GL，
+ * 校验混合绘制时的提交次数（只在图元类型改变或缓冲写满时提交），再测量每帧写入顶点的耗时。
+ * 提交次数不符时以非零状态退出。
+ *
+ * 运行：java -cp build/classes com.gameengine.bench.VertexBatchBenchmark [每帧矩形数]
+ */
+public class VertexBatchBenchmark {
+    private static final int MAX_VERTICES = 6 * 4096;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURE_FRAMES = 1000;
+
+    public static void main(String[] args) {
+        int sprites = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        VertexSink.Counting sink = new VertexSink.Counting();
+        VertexBatcher batcher = new VertexBatcher(sink, MAX_VERTICES);
+
+        boolean ok = true;
+        // 矩形 + 圆都是三角形，连续写入只需按容量切分
+        batcher.beginFrame();
+        int trianglesVertices = sprites * 6 + 100 * 16 * 3;
+        for (int i = 0; i < sprites; i++) {
+            batcher.quad(i, i, 8, 8, 1, 1, 1, 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            batcher.circle(i, i, 5, 16, 1, 0, 0, 1);
+        }
+        batcher.flush();
+        int expected = (trianglesVertices + MAX_VERTICES - 1) / MAX_VERTICES;
+        ok &= check("三角形批次", batcher.getFrameFlushCount(), expected);
+        ok &= check("三角形顶点", sink.getVertexCount(), trianglesVertices);
+
+        // 三角形和线段交替：每次切换图元类型提交一次
+        sink.reset();
+        batcher.beginFrame();
+        for (int i = 0; i < 10; i++) {
+            batcher.quad(0, 0, 1, 1, 1, 1, 1, 1);
+            batcher.line(0, 0, 1, 1, 1, 1, 1, 1);
+        }
+        batcher.flush();
+        ok &= check("交替批次", batcher.getFrameFlushCount(), 20);
+
+        // 空 flush 不提交
+        batcher.beginFrame();
+        batcher.flush();
+        ok &= check("空批次", batcher.getFrameFlushCount(), 0);
+
+        Random random = new Random(7);
+        float[] xs = new float[sprites];
+        float[] ys = new float[sprites];
+        for (int i = 0; i < sprites; i++) {
+            xs[i] = random.nextFloat() * 800;
+            ys[i] = random.nextFloat() * 600;
+        }
+        for (int f = 0; f < WARMUP_FRAMES; f++) {
+            frame(batcher, xs, ys);
+        }
+        long start = System.nanoTime();
+        for (int f = 0; f < MEASURE_FRAMES; f++) {
+            frame(batcher, xs, ys);
+        }
+        double usPerFrame = (System.nanoTime() - start) / 1000.0 / MEASURE_FRAMES;
+        System.out.printf("%d 个矩形/帧: %.1f us/帧, %d 次提交/帧%n", sprites, usPerFrame, batcher.getFrameFlushCount());
+
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("批处理提交次数符合预期");
+    }
+
+    private static void frame(VertexBatcher batcher, float[] xs, float[] ys) {
+        batcher.beginFrame();
+        for (int i = 0; i < xs.length; i++) {
+            batcher.quad(xs[i], ys[i], 8, 8, 0.5f, 0.5f, 1f, 1f);
+        }
+        batcher.flush();
+    }
+
+    private static boolean check(String name, long actual, long expected) {
+        if (actual != expected) {
+            System.err.printf("%s: 期望 %d, 实际 %d%n", name, expected, actual);
+            return false;
+        }
+        return true;
+    }
+}
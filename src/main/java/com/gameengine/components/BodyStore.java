@@ -0,0 +1,207 @@
+package com.gameengine.components;
+
+import java.util.Arrays;
+
+/**
+ * 刚体的结构化数组（SoA）存储：位置、速度、加速度、摩擦、质量等按列存放在连续的 float[] 中。
+ * 由 Scene 持有；绑定后 TransformComponent / PhysicsComponent 的读写都转发到所在行，
+ * 物理积分可以直接在列数组上顺序执行。行在释放时与末行交换，保持数组紧凑。
+ */
+public class BodyStore {
+    private int size;
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private float[] ax;
+    private float[] ay;
+    private float[] friction;
+    private float[] mass;
+    // 有效重力（未启用重力时为 0）
+    private float[] gx;
+    private float[] gy;
+    private boolean[] enabled;
+    private TransformComponent[] transforms;
+    private PhysicsComponent[] bodies;
+
+    public BodyStore() {
+        this(256);
+    }
+
+    public BodyStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        ax = new float[capacity];
+        ay = new float[capacity];
+        friction = new float[capacity];
+        mass = new float[capacity];
+        gx = new float[capacity];
+        gy = new float[capacity];
+        enabled = new boolean[capacity];
+        transforms = new TransformComponent[capacity];
+        bodies = new PhysicsComponent[capacity];
+    }
+
+    /**
+     * 当前行数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 为一对组件分配一行，复制其当前状态并把组件切换为行视图
+     * @return 行号；若组件已绑定则返回原行号
+     */
+    public int bind(TransformComponent transform, PhysicsComponent physics) {
+        if (physics.isBound()) {
+            return physics.getRow();
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+        transform.writeTo(this, row);
+        physics.writeTo(this, row);
+        transforms[row] = transform;
+        bodies[row] = physics;
+        transform.attach(this, row);
+        physics.attach(this, row);
+        return row;
+    }
+
+    /**
+     * 释放一行：把数据写回组件自身字段，并把末行搬到该位置
+     */
+    public void release(int row) {
+        if (row < 0 || row >= size) return;
+        TransformComponent transform = transforms[row];
+        PhysicsComponent physics = bodies[row];
+        transform.detach();
+        physics.detach();
+
+        int last = --size;
+        if (row != last) {
+            x[row] = x[last];
+            y[row] = y[last];
+            vx[row] = vx[last];
+            vy[row] = vy[last];
+            ax[row] = ax[last];
+            ay[row] = ay[last];
+            friction[row] = friction[last];
+            mass[row] = mass[last];
+            gx[row] = gx[last];
+            gy[row] = gy[last];
+            enabled[row] = enabled[last];
+            transforms[row] = transforms[last];
+            bodies[row] = bodies[last];
+            transforms[row].attach(this, row);
+            bodies[row].attach(this, row);
+        }
+        transforms[last] = null;
+        bodies[last] = null;
+    }
+
+    /**
+     * 释放全部行
+     */
+    public void clear() {
+        while (size > 0) {
+            release(size - 1);
+        }
+    }
+
+    /**
+     * 对全部行做一次积分
+     */
+    public void integrate(float deltaTime) {
+        integrate(0, size, deltaTime);
+    }
+
+    /**
+     * 对 [from, to) 行做一次积分，语义与 PhysicsComponent.update 相同：
+     * 叠加重力，更新速度并施加摩擦，推进位置，最后清零加速度。不同区间可并行调用。
+     */
+    public void integrate(int from, int to, float deltaTime) {
+        final float[] x = this.x, y = this.y, vx = this.vx, vy = this.vy;
+        final float[] ax = this.ax, ay = this.ay, friction = this.friction;
+        final float[] gx = this.gx, gy = this.gy;
+        final boolean[] enabled = this.enabled;
+        int end = Math.min(to, size);
+        for (int i = from; i < end; i++) {
+            if (!enabled[i]) continue;
+            float accX = ax[i] + gx[i];
+            float accY = ay[i] + gy[i];
+            float velX = (vx[i] + accX * deltaTime) * friction[i];
+            float velY = (vy[i] + accY * deltaTime) * friction[i];
+            vx[i] = velX;
+            vy[i] = velY;
+            x[i] += velX * deltaTime;
+            y[i] += velY * deltaTime;
+            ax[i] = 0f;
+            ay[i] = 0f;
+        }
+    }
+
+    /**
+     * 单行积分（供未经 PhysicsSystem 批量驱动的 PhysicsComponent.update 使用）
+     */
+    public void integrateRow(int row, float deltaTime) {
+        integrate(row, row + 1, deltaTime);
+    }
+
+    // 列访问
+
+    public float getX(int row) { return x[row]; }
+    public float getY(int row) { return y[row]; }
+    public float getVelocityX(int row) { return vx[row]; }
+    public float getVelocityY(int row) { return vy[row]; }
+    public float getAccelerationX(int row) { return ax[row]; }
+    public float getAccelerationY(int row) { return ay[row]; }
+    public float getFriction(int row) { return friction[row]; }
+    public float getMass(int row) { return mass[row]; }
+    public boolean isEnabled(int row) { return enabled[row]; }
+
+    public void setPosition(int row, float px, float py) {
+        x[row] = px;
+        y[row] = py;
+    }
+
+    public void setVelocity(int row, float velX, float velY) {
+        vx[row] = velX;
+        vy[row] = velY;
+    }
+
+    public void setAcceleration(int row, float accX, float accY) {
+        ax[row] = accX;
+        ay[row] = accY;
+    }
+
+    public void setFriction(int row, float value) { friction[row] = value; }
+    public void setMass(int row, float value) { mass[row] = value; }
+    public void setEnabled(int row, boolean value) { enabled[row] = value; }
+
+    void setGravity(int row, float gravityX, float gravityY) {
+        gx[row] = gravityX;
+        gy[row] = gravityY;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= x.length) return;
+        int capacity = Math.max(required, x.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        ax = Arrays.copyOf(ax, capacity);
+        ay = Arrays.copyOf(ay, capacity);
+        friction = Arrays.copyOf(friction, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        gx = Arrays.copyOf(gx, capacity);
+        gy = Arrays.copyOf(gy, capacity);
+        enabled = Arrays.copyOf(enabled, capacity);
+        transforms = Arrays.copyOf(transforms, capacity);
+        bodies = Arrays.copyOf(bodies, capacity);
+    }
+}
@@ -1,7 +1,6 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
-import com.gameengine.math.Vector2;
 import java.util.Random;
 
 /**
@@ -39,10 +38,7 @@ public class EnemyAIComponent extends Component<EnemyAIComponent> {
                 // fallback: move transform directly
                 TransformComponent tf = owner.getComponent(TransformComponent.class);
                 if (tf != null) {
-                    Vector2 pos = tf.getPosition();
-                    pos.x += vx * 0.1f; // small nudge
-                    pos.y += vy * 0.1f;
-                    tf.setPosition(pos);
+                    tf.translate(vx * 0.1f, vy * 0.1f); // small nudge
                 }
             }
 
@@ -0,0 +1,45 @@
+package com.gameengine.components;
+
+import com.gameengine.core.Component;
+import com.gameengine.core.ParticleManager;
+
+/**
+ * 粒子发射器句柄：只记录在 {@link ParticleManager} 中的槽位，
+ * 发射和绘制由管理器批量完成。组件销毁时自动释放槽位。
+ */
+public class ParticleEmitterComponent extends Component<ParticleEmitterComponent> {
+    private final ParticleManager manager;
+    private final int slot;
+
+    /**
+     * 由 {@link ParticleManager#attach} 创建
+     */
+    public ParticleEmitterComponent(ParticleManager manager, int slot) {
+        this.manager = manager;
+        this.slot = slot;
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        // 由 ParticleManager 统一更新
+    }
+
+    @Override
+    public void render() {
+        // 由 ParticleManager 统一绘制
+    }
+
+    @Override
+    public void destroy() {
+        manager.release(this);
+        super.destroy();
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+}
@@ -13,6 +13,9 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     private float friction;
     private boolean useGravity;
     private Vector2 gravity;
+    // 绑定到 BodyStore 时速度、加速度、摩擦、质量以行数据为准
+    private BodyStore store;
+    private int row = -1;
     
     public PhysicsComponent() {
         this.velocity = new Vector2();
@@ -37,26 +40,31 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     public void update(float deltaTime) {
         if (!enabled) return;
         
+        if (store != null) {
+            // 由 PhysicsSystem 批量积分时这里不会被调用；单独驱动时按行积分，语义不变
+            store.integrateRow(row, deltaTime);
+            return;
+        }
+        
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform == null) return;
         
         // 应用重力
         if (useGravity) {
-            acceleration = acceleration.add(gravity);
+            acceleration.addLocal(gravity);
         }
         
         // 更新速度
-        velocity = velocity.add(acceleration.multiply(deltaTime));
+        velocity.addScaledLocal(acceleration, deltaTime);
         
         // 应用摩擦力
-        velocity = velocity.multiply(friction);
+        velocity.scaleLocal(friction);
         
         // 更新位置
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
+        transform.translate(velocity.x * deltaTime, velocity.y * deltaTime);
         
         // 重置加速度
-        acceleration = new Vector2();
+        acceleration.set(0, 0);
     }
     
     @Override
@@ -68,8 +76,17 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 应用力
      */
     public void applyForce(Vector2 force) {
+        if (store != null) {
+            float m = store.getMass(row);
+            if (m > 0) {
+                float inv = 1.0f / m;
+                store.setAcceleration(row, store.getAccelerationX(row) + force.x * inv,
+                                      store.getAccelerationY(row) + force.y * inv);
+            }
+            return;
+        }
         if (mass > 0) {
-            acceleration = acceleration.add(force.multiply(1.0f / mass));
+            acceleration.addScaledLocal(force, 1.0f / mass);
         }
     }
     
@@ -77,8 +94,17 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 应用冲量
      */
     public void applyImpulse(Vector2 impulse) {
+        if (store != null) {
+            float m = store.getMass(row);
+            if (m > 0) {
+                float inv = 1.0f / m;
+                store.setVelocity(row, store.getVelocityX(row) + impulse.x * inv,
+                                  store.getVelocityY(row) + impulse.y * inv);
+            }
+            return;
+        }
         if (mass > 0) {
-            velocity = velocity.add(impulse.multiply(1.0f / mass));
+            velocity.addScaledLocal(impulse, 1.0f / mass);
         }
     }
     
@@ -86,28 +112,44 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 设置速度
      */
     public void setVelocity(Vector2 velocity) {
-        this.velocity = new Vector2(velocity);
+        setVelocity(velocity.x, velocity.y);
     }
     
     /**
      * 设置速度
      */
     public void setVelocity(float x, float y) {
-        this.velocity = new Vector2(x, y);
+        if (store != null) {
+            store.setVelocity(row, x, y);
+            return;
+        }
+        velocity.set(x, y);
     }
     
     /**
      * 添加速度
      */
     public void addVelocity(Vector2 delta) {
-        this.velocity = velocity.add(delta);
+        addVelocity(delta.x, delta.y);
+    }
+    
+    /**
+     * 添加速度（无临时对象）
+     */
+    public void addVelocity(float dx, float dy) {
+        if (store != null) {
+            store.setVelocity(row, store.getVelocityX(row) + dx, store.getVelocityY(row) + dy);
+            return;
+        }
+        velocity.addLocal(dx, dy);
     }
     
     /**
      * 设置重力
      */
     public void setGravity(Vector2 gravity) {
-        this.gravity = new Vector2(gravity);
+        this.gravity.set(gravity);
+        syncGravity();
     }
     
     /**
@@ -115,6 +157,7 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void setUseGravity(boolean useGravity) {
         this.useGravity = useGravity;
+        syncGravity();
     }
     
     /**
@@ -122,6 +165,9 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void setFriction(float friction) {
         this.friction = Math.max(0, Math.min(1, friction));
+        if (store != null) {
+            store.setFriction(row, this.friction);
+        }
     }
     
     /**
@@ -129,22 +175,73 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void setMass(float mass) {
         this.mass = Math.max(0.1f, mass);
+        if (store != null) {
+            store.setMass(row, this.mass);
+        }
     }
     
     // Getters
     public Vector2 getVelocity() {
+        if (store != null) {
+            return new Vector2(store.getVelocityX(row), store.getVelocityY(row));
+        }
         return new Vector2(velocity);
     }
     
+    /**
+     * 将速度写入 out 并返回 out，供热路径复用向量
+     */
+    public Vector2 getVelocity(Vector2 out) {
+        return out.set(getVelocityX(), getVelocityY());
+    }
+    
+    public float getVelocityX() {
+        return store != null ? store.getVelocityX(row) : velocity.x;
+    }
+    
+    public float getVelocityY() {
+        return store != null ? store.getVelocityY(row) : velocity.y;
+    }
+    
     public Vector2 getAcceleration() {
+        if (store != null) {
+            return new Vector2(store.getAccelerationX(row), store.getAccelerationY(row));
+        }
         return new Vector2(acceleration);
     }
 
+    public float getAccelerationX() {
+        return store != null ? store.getAccelerationX(row) : acceleration.x;
+    }
+    
+    public float getAccelerationY() {
+        return store != null ? store.getAccelerationY(row) : acceleration.y;
+    }
+    
+    /**
+     * 清零加速度
+     */
+    public void clearAcceleration() {
+        if (store != null) {
+            store.setAcceleration(row, 0f, 0f);
+            return;
+        }
+        acceleration.set(0, 0);
+    }
+
     public void setAcceleration(Vector2 acceleration) {
+        if (store != null) {
+            if (acceleration == null) {
+                store.setAcceleration(row, 0f, 0f);
+            } else {
+                store.setAcceleration(row, acceleration.x, acceleration.y);
+            }
+            return;
+        }
         if (acceleration == null) {
-            this.acceleration = new Vector2();
+            this.acceleration.set(0, 0);
         } else {
-            this.acceleration = new Vector2(acceleration);
+            this.acceleration.set(acceleration);
         }
     }
     
@@ -163,4 +260,78 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     public Vector2 getGravity() {
         return new Vector2(gravity);
     }
+    
+    public float getGravityX() {
+        return gravity.x;
+    }
+    
+    public float getGravityY() {
+        return gravity.y;
+    }
+    
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        if (store != null) {
+            store.setEnabled(row, enabled);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        if (store != null) {
+            store.release(row);
+        }
+        super.destroy();
+    }
+    
+    /**
+     * 是否已绑定到 BodyStore 的某一行
+     */
+    public boolean isBound() {
+        return store != null;
+    }
+    
+    /**
+     * 绑定的行号，未绑定时为 -1
+     */
+    public int getRow() {
+        return row;
+    }
+    
+    void writeTo(BodyStore target, int targetRow) {
+        target.setVelocity(targetRow, velocity.x, velocity.y);
+        target.setAcceleration(targetRow, acceleration.x, acceleration.y);
+        target.setFriction(targetRow, friction);
+        target.setMass(targetRow, mass);
+        target.setEnabled(targetRow, enabled);
+        if (useGravity) {
+            target.setGravity(targetRow, gravity.x, gravity.y);
+        } else {
+            target.setGravity(targetRow, 0f, 0f);
+        }
+    }
+    
+    void attach(BodyStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+    
+    void detach() {
+        if (store == null) return;
+        velocity.set(store.getVelocityX(row), store.getVelocityY(row));
+        acceleration.set(store.getAccelerationX(row), store.getAccelerationY(row));
+        this.store = null;
+        this.row = -1;
+    }
+    
+    private void syncGravity() {
+        if (store != null) {
+            if (useGravity) {
+                store.setGravity(row, gravity.x, gravity.y);
+            } else {
+                store.setGravity(row, 0f, 0f);
+            }
+        }
+    }
 }
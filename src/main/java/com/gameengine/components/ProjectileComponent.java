@@ -26,10 +26,9 @@ public class ProjectileComponent extends Component<ProjectileComponent> {
         if (tf == null) return;
 
         // 移动
-        Vector2 pos = tf.getPosition();
-        pos.x += velocity.x * deltaTime;
-        pos.y += velocity.y * deltaTime;
-        tf.setPosition(pos);
+        float x = tf.getX() + velocity.x * deltaTime;
+        float y = tf.getY() + velocity.y * deltaTime;
+        tf.setPosition(x, y);
 
         lifetime -= deltaTime;
         if (lifetime <= 0f) {
@@ -37,7 +36,7 @@ public class ProjectileComponent extends Component<ProjectileComponent> {
         }
 
         // 简单边界处理（确保不会无限飞出）
-        if (pos.x < -50 || pos.y < -50 || pos.x > 850 || pos.y > 650) {
+        if (x < -50 || y < -50 || x > 850 || y > 650) {
             owner.destroy();
         }
     }
@@ -53,7 +52,7 @@ public class ProjectileComponent extends Component<ProjectileComponent> {
 
     public void setVelocity(Vector2 velocity) {
         if (velocity != null) {
-            this.velocity = new Vector2(velocity);
+            this.velocity.set(velocity);
         }
     }
 
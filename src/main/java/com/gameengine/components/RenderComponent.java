@@ -1,18 +1,32 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentTypes;
 import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.RenderBatch;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
 
 /**
  * 渲染组件，负责对象的渲染
  */
 public class RenderComponent extends Component<RenderComponent> {
+    private static final int TRANSFORM_TYPE = ComponentTypes.idOf(TransformComponent.class);
     private IRenderer renderer;
     private RenderType renderType;
     private Vector2 size;
     private Color color;
     private boolean visible;
+    // 静态对象烘焙进场景的静态图层，不逐帧绘制
+    private boolean staticLayer;
+    // 世界空间包围盒缓存，位置和尺寸都没变时不重算
+    private float drawX = Float.NaN;
+    private float drawY = Float.NaN;
+    private float boundsW = Float.NaN;
+    private float boundsH = Float.NaN;
+    private float minX, minY, maxX, maxY;
+    // 线宽的一半，线段包围盒按此外扩
+    private static final float LINE_PAD = 1.25f;
     
     public enum RenderType {
         RECTANGLE,
@@ -74,25 +88,100 @@ public class RenderComponent extends Component<RenderComponent> {
             return;
         }
         
-        Vector2 position = transform.getPosition();
+        Scene scene = owner.getScene();
+        float alpha = scene != null ? scene.getInterpolationAlpha() : 1f;
+        updateBounds(transform, alpha);
+        emit(renderer, scene != null ? scene.getRenderBatch() : null);
+    }
+    
+    /**
+     * 按缓存的位置绘制到指定渲染器，batch 非空时经批次提交；场景烘焙静态图层时调用
+     */
+    public void renderTo(IRenderer target, RenderBatch batch) {
+        if (!visible || !updateBounds(1f)) {
+            return;
+        }
+        emit(target, batch);
+    }
+    
+    private void emit(IRenderer renderer, RenderBatch batch) {
+        float x = drawX;
+        float y = drawY;
+        
+        // 在场景中时交给场景的批次，一帧内同类图元一次提交
+        if (batch != null) {
+            switch (renderType) {
+                case RECTANGLE:
+                    batch.addRect(renderer, x, y, size.x, size.y, color.r, color.g, color.b, color.a);
+                    break;
+                case CIRCLE:
+                    batch.addCircle(renderer, x, y, size.x, size.y, color.r, color.g, color.b, color.a);
+                    break;
+                case LINE:
+                    batch.addLine(renderer, x, y, size.x, size.y, color.r, color.g, color.b, color.a);
+                    break;
+            }
+            return;
+        }
         
         switch (renderType) {
             case RECTANGLE:
-                renderer.drawRect(position.x, position.y, size.x, size.y, 
+                renderer.drawRect(x, y, size.x, size.y, 
                                 color.r, color.g, color.b, color.a);
                 break;
             case CIRCLE:
-                renderer.drawCircle(position.x + size.x/2, position.y + size.y/2, 
+                renderer.drawCircle(x + size.x/2, y + size.y/2, 
                                   size.x/2, 16, color.r, color.g, color.b, color.a);
                 break;
             case LINE:
-                renderer.drawLine(position.x, position.y, 
-                                position.x + size.x, position.y + size.y,
+                renderer.drawLine(x, y, 
+                                x + size.x, y + size.y,
                                 color.r, color.g, color.b, color.a);
                 break;
         }
     }
     
+    /**
+     * 按插值位置刷新世界空间包围盒，位置和尺寸都没变时直接返回。
+     * 矩形和圆为 (x, y) 起的 size 外接框，线段为两端点的外接框（按线宽外扩）。
+     * @return 没有 TransformComponent 时返回 false，此时包围盒无效
+     */
+    public boolean updateBounds(float alpha) {
+        TransformComponent transform = owner != null ? (TransformComponent) owner.getComponentByTypeId(TRANSFORM_TYPE) : null;
+        if (transform == null) return false;
+        updateBounds(transform, alpha);
+        return true;
+    }
+    
+    private void updateBounds(TransformComponent transform, float alpha) {
+        float x = transform.getInterpolatedX(alpha);
+        float y = transform.getInterpolatedY(alpha);
+        if (x == drawX && y == drawY && size.x == boundsW && size.y == boundsH) return;
+        drawX = x;
+        drawY = y;
+        boundsW = size.x;
+        boundsH = size.y;
+        if (renderType == RenderType.LINE) {
+            minX = Math.min(x, x + size.x) - LINE_PAD;
+            maxX = Math.max(x, x + size.x) + LINE_PAD;
+            minY = Math.min(y, y + size.y) - LINE_PAD;
+            maxY = Math.max(y, y + size.y) + LINE_PAD;
+        } else {
+            minX = x;
+            minY = y;
+            maxX = x + size.x;
+            maxY = y + size.y;
+        }
+    }
+    
+    /**
+     * 最近一次 {@link #updateBounds} 得到的包围盒
+     */
+    public float getMinX() { return minX; }
+    public float getMinY() { return minY; }
+    public float getMaxX() { return maxX; }
+    public float getMaxY() { return maxY; }
+    
     /**
      * 设置渲染器
      */
@@ -105,6 +194,7 @@ public class RenderComponent extends Component<RenderComponent> {
      */
     public void setColor(Color color) {
         this.color = color;
+        staticChanged();
     }
     
     /**
@@ -112,13 +202,15 @@ public class RenderComponent extends Component<RenderComponent> {
      */
     public void setColor(float r, float g, float b, float a) {
         this.color = new Color(r, g, b, a);
+        staticChanged();
     }
     
     /**
      * 设置大小
      */
     public void setSize(Vector2 size) {
-        this.size = new Vector2(size);
+        this.size.set(size);
+        staticChanged();
     }
     
     /**
@@ -126,6 +218,35 @@ public class RenderComponent extends Component<RenderComponent> {
      */
     public void setVisible(boolean visible) {
         this.visible = visible;
+        staticChanged();
+    }
+    
+    /**
+     * 标记为静态：对象不再逐帧绘制，而是烘焙进场景的静态图层，每帧随图层画一次。
+     * 外观变化（颜色、尺寸、可见性）会让图层重新烘焙；静态对象移动或直接修改 Color 字段后
+     * 需调用 {@link Scene#invalidateStaticLayer()}
+     */
+    public void setStatic(boolean isStatic) {
+        if (this.staticLayer == isStatic) return;
+        this.staticLayer = isStatic;
+        invalidateLayer();
+    }
+    
+    public boolean isStatic() {
+        return staticLayer;
+    }
+    
+    private void staticChanged() {
+        if (staticLayer) {
+            invalidateLayer();
+        }
+    }
+    
+    private void invalidateLayer() {
+        Scene scene = owner != null ? owner.getScene() : null;
+        if (scene != null) {
+            scene.invalidateStaticLayer();
+        }
     }
     
     // Getters
@@ -137,6 +258,14 @@ public class RenderComponent extends Component<RenderComponent> {
         return new Vector2(size);
     }
     
+    public float getWidth() {
+        return size.x;
+    }
+    
+    public float getHeight() {
+        return size.y;
+    }
+    
     public Color getColor() {
         return color;
     }
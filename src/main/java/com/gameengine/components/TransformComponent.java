@@ -11,6 +11,13 @@ public class TransformComponent extends Component<TransformComponent> {
     private Vector2 position;
     private Vector2 scale;
     private float rotation;
+    // 绑定到 BodyStore 时位置以行数据为准
+    private BodyStore store;
+    private int row = -1;
+    // 上一个固定步长结束时的位置，渲染时按插值系数在两步之间过渡
+    private float previousX;
+    private float previousY;
+    private boolean hasPrevious;
     
     public TransformComponent() {
         this.position = new Vector2();
@@ -48,14 +55,29 @@ public class TransformComponent extends Component<TransformComponent> {
      * 移动到指定位置
      */
     public void moveTo(Vector2 newPosition) {
-        this.position = new Vector2(newPosition);
+        setPosition(newPosition);
     }
     
     /**
      * 移动相对距离
      */
     public void translate(Vector2 delta) {
-        this.position = position.add(delta);
+        if (store != null) {
+            store.setPosition(row, store.getX(row) + delta.x, store.getY(row) + delta.y);
+            return;
+        }
+        position.addLocal(delta);
+    }
+    
+    /**
+     * 移动相对距离（无临时对象）
+     */
+    public void translate(float dx, float dy) {
+        if (store != null) {
+            store.setPosition(row, store.getX(row) + dx, store.getY(row) + dy);
+            return;
+        }
+        position.addLocal(dx, dy);
     }
     
     /**
@@ -76,23 +98,78 @@ public class TransformComponent extends Component<TransformComponent> {
      * 缩放
      */
     public void scale(Vector2 scaleFactor) {
-        this.scale = new Vector2(this.scale.x * scaleFactor.x, this.scale.y * scaleFactor.y);
+        scale.set(scale.x * scaleFactor.x, scale.y * scaleFactor.y);
     }
     
     /**
      * 设置缩放
      */
     public void setScale(Vector2 newScale) {
-        this.scale = new Vector2(newScale);
+        scale.set(newScale);
     }
     
     // Getters and Setters
     public Vector2 getPosition() {
+        if (store != null) {
+            return new Vector2(store.getX(row), store.getY(row));
+        }
         return new Vector2(position);
     }
     
     public void setPosition(Vector2 position) {
-        this.position = new Vector2(position);
+        if (store != null) {
+            store.setPosition(row, position.x, position.y);
+            return;
+        }
+        this.position.set(position);
+    }
+    
+    /**
+     * 设置位置（无临时对象）
+     */
+    public void setPosition(float x, float y) {
+        if (store != null) {
+            store.setPosition(row, x, y);
+            return;
+        }
+        position.set(x, y);
+    }
+    
+    /**
+     * 将位置写入 out 并返回 out，供热路径复用向量
+     */
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(getX(), getY());
+    }
+    
+    public float getX() {
+        return store != null ? store.getX(row) : position.x;
+    }
+    
+    public float getY() {
+        return store != null ? store.getY(row) : position.y;
+    }
+    
+    /**
+     * 记录当前位置作为插值起点，由 Scene 在每个固定步长开始前调用
+     */
+    public void snapshotPosition() {
+        previousX = getX();
+        previousY = getY();
+        hasPrevious = true;
+    }
+    
+    /**
+     * 渲染用的插值位置：alpha 为 0 时是上一步的位置，为 1 时是当前位置
+     */
+    public float getInterpolatedX(float alpha) {
+        float x = getX();
+        return hasPrevious ? previousX + (x - previousX) * alpha : x;
+    }
+    
+    public float getInterpolatedY(float alpha) {
+        float y = getY();
+        return hasPrevious ? previousY + (y - previousY) * alpha : y;
     }
     
     public Vector2 getScale() {
@@ -102,4 +179,35 @@ public class TransformComponent extends Component<TransformComponent> {
     public float getRotation() {
         return rotation;
     }
+    
+    /**
+     * 是否已绑定到 BodyStore 的某一行
+     */
+    public boolean isBound() {
+        return store != null;
+    }
+    
+    void writeTo(BodyStore target, int targetRow) {
+        target.setPosition(targetRow, position.x, position.y);
+    }
+    
+    void attach(BodyStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+    
+    void detach() {
+        if (store == null) return;
+        position.set(store.getX(row), store.getY(row));
+        this.store = null;
+        this.row = -1;
+    }
+    
+    @Override
+    public void destroy() {
+        if (store != null) {
+            store.release(row);
+        }
+        super.destroy();
+    }
 }
@@ -0,0 +1,47 @@
+package com.gameengine.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 组件类型注册表：为每个组件类分配一个稠密的整数 ID，
+ * GameObject 以该 ID 作为组件槽位数组的下标，实现 O(1) 查找。
+ */
+public final class ComponentTypes {
+    private static final Map<Class<?>, Integer> registered = new HashMap<>();
+
+    private static final ClassValue<Integer> IDS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return register(type);
+        }
+    };
+
+    private ComponentTypes() {}
+
+    /**
+     * 获取组件类的类型 ID（首次访问时注册）
+     */
+    public static int idOf(Class<?> componentType) {
+        return IDS.get(componentType);
+    }
+
+    /**
+     * 已注册的类型数量（即当前最大 ID + 1）
+     */
+    public static synchronized int count() {
+        return registered.size();
+    }
+
+    private static synchronized int register(Class<?> type) {
+        if (!Component.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("不是组件类型: " + type.getName());
+        }
+        Integer id = registered.get(type);
+        if (id == null) {
+            id = registered.size();
+            registered.put(type, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,256 @@
+package com.gameengine.core;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按阶段计时的帧分析器，支持嵌套的命名作用域。
+ * 作用域在首次使用时登记并分配好全部缓冲区，之后 begin/end 只读写基本类型数组，不产生分配。
+ * 每个作用域保存最近若干次耗时的环形缓冲，以及对数-线性分桶的直方图（HDR 风格，相对误差约 3%），
+ * 用于输出 p50 / p99 / max。
+ *
+ * 只应在主循环线程上调用 begin/end；并行任务内部不要单独计时，而是由外层作用域整体包住。
+ */
+public class FrameProfiler {
+    // 小于 2^LINEAR_BITS 纳秒的值逐一分桶，之后每个 2 的幂区间再等分为 2^SUB_BITS 个桶
+    private static final int SUB_BITS = 5;
+    private static final int LINEAR_BITS = SUB_BITS + 1;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = 1 << LINEAR_BITS;
+    // 最高到 2^41 纳秒（约 36 分钟），再大的值计入最后一个桶
+    private static final int MAX_EXPONENT = 41;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - LINEAR_BITS) * SUB_COUNT;
+
+    private static final int MAX_DEPTH = 32;
+    private static final int DEFAULT_HISTORY = 256;
+
+    private static final FrameProfiler DISABLED = new FrameProfiler(false, DEFAULT_HISTORY);
+
+    private final Map<String, Integer> scopeIds = new HashMap<>();
+    private final List<Scope> scopes = new ArrayList<>();
+    private final int historySize;
+    private volatile boolean enabled;
+
+    // 作用域栈
+    private final int[] stackIds = new int[MAX_DEPTH];
+    private final long[] stackStarts = new long[MAX_DEPTH];
+    private int depth;
+
+    private static final class Scope {
+        final String name;
+        int parent = -2; // 首次 begin 时记录外层作用域，-1 表示顶层
+        final long[] history;
+        int historyHead;
+        final long[] buckets = new long[BUCKET_COUNT];
+        long count;
+        long totalNanos;
+        long maxNanos;
+
+        Scope(String name, int historySize) {
+            this.name = name;
+            this.history = new long[historySize];
+        }
+    }
+
+    public FrameProfiler(boolean enabled) {
+        this(enabled, DEFAULT_HISTORY);
+    }
+
+    /**
+     * @param historySize 每个作用域环形缓冲保存的最近耗时个数
+     */
+    public FrameProfiler(boolean enabled, int historySize) {
+        this.enabled = enabled;
+        this.historySize = Math.max(1, historySize);
+    }
+
+    /**
+     * 不计时的共享实例，供未挂到引擎上的场景使用
+     */
+    public static FrameProfiler disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this == DISABLED) return;
+        this.enabled = enabled;
+        this.depth = 0;
+    }
+
+    /**
+     * 获取（必要时登记）命名作用域的编号。调用方应缓存编号，每帧只调用 begin/end。
+     */
+    public synchronized int scope(String name) {
+        Integer id = scopeIds.get(name);
+        if (id == null) {
+            id = scopes.size();
+            scopes.add(new Scope(name, historySize));
+            scopeIds.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * 进入作用域，必须与 {@link #end(int)} 成对调用
+     */
+    public void begin(int scopeId) {
+        if (!enabled) return;
+        if (depth < MAX_DEPTH) {
+            stackIds[depth] = scopeId;
+            stackStarts[depth] = System.nanoTime();
+        }
+        depth++;
+    }
+
+    /**
+     * 离开作用域并记录耗时；与栈顶不匹配时（中途开关分析器等）丢弃这次样本
+     */
+    public void end(int scopeId) {
+        if (!enabled || depth == 0) return;
+        long now = System.nanoTime();
+        depth--;
+        if (depth >= MAX_DEPTH || stackIds[depth] != scopeId) return;
+        Scope scope = scopes.get(scopeId);
+        if (scope.parent == -2) {
+            scope.parent = depth > 0 ? stackIds[depth - 1] : -1;
+        }
+        record(scope, now - stackStarts[depth]);
+    }
+
+    private static void record(Scope scope, long nanos) {
+        if (nanos < 0) nanos = 0;
+        scope.history[scope.historyHead] = nanos;
+        scope.historyHead = (scope.historyHead + 1) % scope.history.length;
+        scope.buckets[bucketIndex(nanos)]++;
+        scope.count++;
+        scope.totalNanos += nanos;
+        if (nanos > scope.maxNanos) {
+            scope.maxNanos = nanos;
+        }
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_COUNT + sub;
+    }
+
+    // 桶内最大值，百分位取上界，保证不低估
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int offset = index - LINEAR_LIMIT;
+        int exponent = offset / SUB_COUNT + LINEAR_BITS;
+        int sub = offset % SUB_COUNT;
+        long base = (long) (SUB_COUNT + sub) << (exponent - SUB_BITS);
+        return base + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * 作用域的百分位耗时（纳秒），percentile 取 0..100
+     */
+    public synchronized long getPercentileNanos(int scopeId, double percentile) {
+        Scope scope = scopes.get(scopeId);
+        if (scope.count == 0) return 0;
+        long rank = (long) Math.ceil(scope.count * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        rank = Math.max(1, rank);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += scope.buckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), scope.maxNanos);
+            }
+        }
+        return scope.maxNanos;
+    }
+
+    public synchronized long getMaxNanos(int scopeId) {
+        return scopes.get(scopeId).maxNanos;
+    }
+
+    public synchronized long getCount(int scopeId) {
+        return scopes.get(scopeId).count;
+    }
+
+    /**
+     * 将最近的耗时（从旧到新）复制到 out，返回复制的个数
+     */
+    public synchronized int getRecentNanos(int scopeId, long[] out) {
+        Scope scope = scopes.get(scopeId);
+        int available = (int) Math.min(scope.count, scope.history.length);
+        int n = Math.min(available, out.length);
+        int start = scope.historyHead - n;
+        if (start < 0) start += scope.history.length;
+        for (int i = 0; i < n; i++) {
+            out[i] = scope.history[(start + i) % scope.history.length];
+        }
+        return n;
+    }
+
+    /**
+     * 清空所有统计数据（保留已登记的作用域）
+     */
+    public synchronized void reset() {
+        for (Scope scope : scopes) {
+            Arrays.fill(scope.buckets, 0);
+            Arrays.fill(scope.history, 0);
+            scope.historyHead = 0;
+            scope.count = 0;
+            scope.totalNanos = 0;
+            scope.maxNanos = 0;
+        }
+        depth = 0;
+    }
+
+    /**
+     * 输出汇总表：按作用域嵌套关系缩进，列出次数、平均值、p50、p99 和最大值（毫秒）
+     */
+    public synchronized void printSummary(PrintStream out) {
+        out.println("==== 帧分析 ====");
+        out.printf("%-32s %8s %9s %9s %9s %9s%n", "阶段", "次数", "平均", "p50", "p99", "max");
+        for (int i = 0; i < scopes.size(); i++) {
+            if (scopes.get(i).parent < 0) {
+                printScope(out, i, 0);
+            }
+        }
+    }
+
+    public void printSummary() {
+        printSummary(System.out);
+    }
+
+    private void printScope(PrintStream out, int id, int indent) {
+        Scope scope = scopes.get(id);
+        if (scope.count > 0) {
+            StringBuilder label = new StringBuilder();
+            for (int i = 0; i < indent; i++) label.append("  ");
+            label.append(scope.name);
+            out.printf("%-32s %8d %9.3f %9.3f %9.3f %9.3f%n",
+                label, scope.count,
+                scope.totalNanos / (double) scope.count / 1_000_000.0,
+                getPercentileNanos(id, 50) / 1_000_000.0,
+                getPercentileNanos(id, 99) / 1_000_000.0,
+                scope.maxNanos / 1_000_000.0);
+        }
+        for (int i = 0; i < scopes.size(); i++) {
+            if (scopes.get(i).parent == id) {
+                printScope(out, i, indent + 1);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.gameengine.core;
 
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.graphics.RenderBackend;
+import com.gameengine.graphics.RenderCommandBuffer;
 import com.gameengine.graphics.RendererFactory;
 import com.gameengine.input.InputManager;
 import com.gameengine.recording.RecordingService;
@@ -12,6 +13,8 @@ import com.gameengine.scene.Scene;
  */
 public class GameEngine {
     private final IRenderer renderer;
+    // 场景绘制先记录到命令缓冲，再整体回放到后端
+    private final RenderCommandBuffer commands;
     private final InputManager inputManager;
     private Scene currentScene;
     private boolean running;
@@ -19,10 +22,43 @@ public class GameEngine {
     private float deltaTime;
     private RecordingService recordingService;
     private final Object recordingLock = new Object();
+    // 引擎级共享任务系统，生命周期与引擎一致
+    private final JobSystem jobSystem;
+    // 固定步长模式：模拟按 tickRate 推进，渲染与模拟频率解耦
+    private boolean fixedTimestep;
+    private float tickRate = 60f;
+    private int maxStepsPerFrame = 5;
+    private double accumulator;
+    private float interpolationAlpha = 1f;
+    // 不限帧模式：跳过 throttleFrame，模拟速度只受 CPU 限制
+    private boolean uncapped;
+    // 渲染线程模式：回放与呈现放到独立线程，-Dgameengine.renderThread=true 时默认开启
+    private boolean renderThreaded = Boolean.getBoolean("gameengine.renderThread");
+    private int renderQueueDepth = 1;
+    private RenderThread renderThread;
+    // 分阶段帧分析器，-Dgameengine.profile=true 时默认开启
+    private final FrameProfiler profiler;
+    private final int frameScope;
+    private final int pollScope;
+    private final int updateScope;
+    private final int recordingScope;
+    private final int renderScope;
+    private final int submitScope;
+    private final int presentScope;
 
     public GameEngine(int width, int height, String title, RenderBackend backend) {
-        this.renderer = RendererFactory.createRenderer(backend, width, height, title);
+        this.jobSystem = JobSystem.createDefault();
+        this.renderer = RendererFactory.createRenderer(backend, width, height, title, jobSystem);
+        this.commands = RenderCommandBuffer.of(renderer);
         this.inputManager = InputManager.getInstance();
+        this.profiler = new FrameProfiler(Boolean.getBoolean("gameengine.profile"));
+        this.frameScope = profiler.scope("frame");
+        this.pollScope = profiler.scope("pollEvents");
+        this.updateScope = profiler.scope("update");
+        this.recordingScope = profiler.scope("recording");
+        this.renderScope = profiler.scope("render");
+        this.submitScope = profiler.scope("submit");
+        this.presentScope = profiler.scope("present");
     }
 
     /**
@@ -35,38 +71,118 @@ public class GameEngine {
             currentScene.initialize();
         }
         startRecordingIfNeeded();
+        if (renderThreaded) {
+            renderThread = new RenderThread(renderer, renderQueueDepth);
+            renderThread.start();
+        }
 
         while (running) {
             long frameStart = System.nanoTime();
             deltaTime = (frameStart - lastTime) / 1_000_000_000.0f;
             lastTime = frameStart;
+            profiler.begin(frameScope);
 
+            profiler.begin(pollScope);
             renderer.pollEvents();
+            profiler.end(pollScope);
             if (renderer.shouldClose()) {
+                profiler.end(frameScope);
                 running = false;
                 break;
             }
 
+            if (fixedTimestep) {
+                stepFixed(deltaTime);
+            } else {
+                interpolationAlpha = 1f;
+                simulate(deltaTime);
+            }
+
+            // render 只统计生成命令，submit 统计回放到后端
+            profiler.begin(renderScope);
+            commands.beginFrame();
             if (currentScene != null) {
-                currentScene.update(deltaTime);
+                currentScene.render(interpolationAlpha);
+            }
+            profiler.end(renderScope);
+            if (renderThread != null) {
+                // 渲染线程模式下 submit 统计等待空闲缓冲的时间（渲染线程落后时的背压）
+                profiler.begin(submitScope);
+                submitToRenderThread();
+                profiler.end(submitScope);
+            } else {
+                profiler.begin(submitScope);
+                renderer.beginFrame();
+                commands.execute(renderer);
+                profiler.end(submitScope);
+                profiler.begin(presentScope);
+                renderer.endFrame();
+                profiler.end(presentScope);
             }
 
-            if (recordingService != null && recordingService.isRecording() && currentScene != null) {
-                recordingService.update(deltaTime, currentScene, inputManager);
+            if (!fixedTimestep) {
+                inputManager.update();
             }
+            profiler.end(frameScope);
 
-            renderer.beginFrame();
-            if (currentScene != null) {
-                currentScene.render();
+            if (!uncapped) {
+                throttleFrame(frameStart);
             }
-            renderer.endFrame();
+        }
 
+        shutdown();
+    }
+
+    private void submitToRenderThread() {
+        try {
+            renderThread.submit(commands);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        } catch (IllegalStateException e) {
+            System.err.println("渲染线程不可用，停止主循环: " + e.getMessage());
+            running = false;
+        }
+    }
+
+    /**
+     * 按固定步长推进模拟：累积帧时间，每满一个步长调用一次 Scene.update。
+     * 单帧最多追赶 maxStepsPerFrame 步，超出部分直接丢弃，避免慢帧后越积越多；
+     * 剩余不足一步的时间折算成插值系数交给渲染。
+     */
+    private void stepFixed(float frameTime) {
+        float step = getFixedDeltaTime();
+        accumulator += frameTime;
+        int steps = 0;
+        while (accumulator >= step && steps < maxStepsPerFrame) {
+            if (currentScene != null) {
+                currentScene.snapshotTransforms();
+            }
+            simulate(step);
+            // 按键的“刚按下”状态只交给一个模拟步，没有步长执行的帧保留到下一帧
             inputManager.update();
+            accumulator -= step;
+            steps++;
+        }
+        if (accumulator >= step) {
+            accumulator %= step;
+        }
+        interpolationAlpha = (float) (accumulator / step);
+    }
 
-            throttleFrame(frameStart);
+    // 推进一次模拟：场景更新和录制采样
+    private void simulate(float dt) {
+        if (currentScene != null) {
+            profiler.begin(updateScope);
+            currentScene.update(dt);
+            profiler.end(updateScope);
         }
 
-        shutdown();
+        if (recordingService != null && recordingService.isRecording() && currentScene != null) {
+            profiler.begin(recordingScope);
+            recordingService.update(dt, currentScene, inputManager);
+            profiler.end(recordingScope);
+        }
     }
 
     /**
@@ -74,6 +190,12 @@ public class GameEngine {
      */
     public void setScene(Scene scene) {
         this.currentScene = scene;
+        if (scene != null) {
+            scene.setJobSystem(jobSystem);
+            scene.setProfiler(profiler);
+            scene.setViewport(0, 0, renderer.getWidth(), renderer.getHeight());
+            scene.setRenderer(commands);
+        }
         if (scene != null && running) {
             scene.initialize();
             startRecordingIfNeeded();
@@ -88,14 +210,39 @@ public class GameEngine {
         running = false;
     }
 
+    /**
+     * 场景使用的渲染器：绘制调用记录到本帧的命令缓冲，帧末统一提交给后端
+     */
     public IRenderer getRenderer() {
+        return commands;
+    }
+
+    /**
+     * 实际的渲染后端
+     */
+    public IRenderer getBackend() {
         return renderer;
     }
 
+    public RenderCommandBuffer getCommandBuffer() {
+        return commands;
+    }
+
     public InputManager getInputManager() {
         return inputManager;
     }
 
+    public JobSystem getJobSystem() {
+        return jobSystem;
+    }
+
+    /**
+     * 引擎的帧分析器；可随时调用 {@link FrameProfiler#printSummary()} 输出当前统计
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
     public float getDeltaTime() {
         return deltaTime;
     }
@@ -109,6 +256,88 @@ public class GameEngine {
         return targetFPS;
     }
 
+    /**
+     * 开启或关闭固定步长模拟，关闭时每帧以实际帧间隔更新一次
+     */
+    public void setFixedTimestep(boolean enabled) {
+        this.fixedTimestep = enabled;
+        this.accumulator = 0;
+        this.interpolationAlpha = 1f;
+    }
+
+    public boolean isFixedTimestep() {
+        return fixedTimestep;
+    }
+
+    /**
+     * 设置固定步长模式下的模拟频率（次/秒）
+     */
+    public void setTickRate(float ticksPerSecond) {
+        if (ticksPerSecond <= 0) return;
+        this.tickRate = ticksPerSecond;
+    }
+
+    public float getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * 固定步长模式下单帧最多执行的模拟步数
+     */
+    public void setMaxStepsPerFrame(int maxSteps) {
+        if (maxSteps <= 0) return;
+        this.maxStepsPerFrame = maxSteps;
+    }
+
+    public int getMaxStepsPerFrame() {
+        return maxStepsPerFrame;
+    }
+
+    public float getFixedDeltaTime() {
+        return 1f / tickRate;
+    }
+
+    /**
+     * 当前渲染帧的插值系数（0..1），可变步长模式下恒为 1
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    /**
+     * 不限帧模式：不再按 targetFPS 休眠，适合无窗口后端上的批量模拟和性能测试
+     */
+    public void setUncapped(boolean uncapped) {
+        this.uncapped = uncapped;
+    }
+
+    public boolean isUncapped() {
+        return uncapped;
+    }
+
+    /**
+     * 是否在独立线程上回放和呈现，需在 run 之前设置
+     */
+    public void setRenderThreaded(boolean renderThreaded) {
+        this.renderThreaded = renderThreaded;
+    }
+
+    public boolean isRenderThreaded() {
+        return renderThreaded;
+    }
+
+    /**
+     * 渲染线程最多落后的帧数，1 为双缓冲；越大越能吸收帧时间抖动，输入延迟也越高。需在 run 之前设置
+     */
+    public void setRenderQueueDepth(int depth) {
+        if (depth <= 0) return;
+        this.renderQueueDepth = depth;
+    }
+
+    public int getRenderQueueDepth() {
+        return renderQueueDepth;
+    }
+
     public boolean isRunning() {
         return running;
     }
@@ -138,6 +367,7 @@ public class GameEngine {
             currentScene.clear();
         }
         renderer.cleanup();
+        jobSystem.shutdown();
     }
 
     private void startRecordingIfNeeded() {
@@ -172,6 +402,14 @@ public class GameEngine {
     }
 
     private void shutdown() {
+        if (renderThread != null) {
+            // 等渲染线程交还上下文，后续清理在主线程进行
+            renderThread.stop();
+            renderThread = null;
+        }
+        if (profiler.isEnabled()) {
+            profiler.printSummary();
+        }
         disableRecording();
         cleanup();
     }
@@ -3,18 +3,15 @@ package com.gameengine.core;
 import com.gameengine.components.TransformComponent;
 import com.gameengine.components.PhysicsComponent;
 import com.gameengine.components.EnemyAIComponent;
+import com.gameengine.components.ProjectileComponent;
 import com.gameengine.math.Vector2;
 import com.gameengine.input.InputManager;
+import com.gameengine.scene.EntityQuery;
 import com.gameengine.scene.Scene;
 import com.gameengine.graphics.IRenderer;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 
 /**
@@ -24,8 +21,36 @@ public class GameLogic {
     private final Scene scene;
     private final InputManager inputManager;
 
-
-    private final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    // 场景查询视图：玩家取带 Transform 的第一个对象
+    private final EntityQuery transforms;
+    private final EntityQuery bodies;
+    private final EntityQuery enemies;
+    private final EntityQuery projectiles;
+
+
+    // 避障邻域网格及位置快照（条目编号 -> 敌人）
+    private final SpatialHashGrid avoidanceGrid = new SpatialHashGrid(80f);
+    private GameObject[] avoidObjects = new GameObject[64];
+    private float[] avoidX = new float[64];
+    private float[] avoidY = new float[64];
+    private final ThreadLocal<int[]> neighborScratch = ThreadLocal.withInitial(() -> new int[64]);
+
+    // 碰撞宽相位
+    private final SpatialHashGrid collisionGrid = new SpatialHashGrid(64f);
+    private GameObject[] gridObjects = new GameObject[64];
+    private int[] queryBuffer = new int[64];
+    private final float[] bounds = new float[4];
+    // 本帧各条目累计的分离位移（x, y 交替）及其单轴最大值
+    private float[] separationShift = new float[128];
+    private float maxSeparationShift;
+
+    // 分析器作用域编号，场景换了分析器时重新登记
+    private FrameProfiler profiler;
+    private int inputScope;
+    private int physicsScope;
+    private int avoidanceScope;
+    private int collisionScope;
+    private int shootingScope;
 
     // HUD
     private int score = 0;
@@ -50,6 +75,10 @@ public class GameLogic {
     public GameLogic(Scene scene) {
         this.scene = scene;
         this.inputManager = InputManager.getInstance();
+        this.transforms = scene.query(TransformComponent.class);
+        this.bodies = scene.query(PhysicsComponent.class);
+        this.enemies = scene.query(EnemyAIComponent.class);
+        this.projectiles = scene.query(ProjectileComponent.class);
     }
 
     /**
@@ -57,6 +86,8 @@ public class GameLogic {
      */
     public void setGameEngine(GameEngine engine) {
         if (engine != null) {
+            scene.setJobSystem(engine.getJobSystem());
+            scene.setProfiler(engine.getProfiler());
             IRenderer renderer = engine.getRenderer();
             if (renderer != null) {
                 setWorldSize(renderer.getWidth(), renderer.getHeight());
@@ -70,16 +101,26 @@ public class GameLogic {
     }
 
     public void handlePlayerInput() {
-        List<GameObject> players = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (players.isEmpty()) return;
+        FrameProfiler p = profiler();
+        p.begin(inputScope);
+        try {
+            applyPlayerInput();
+        } finally {
+            p.end(inputScope);
+        }
+    }
+
+    private void applyPlayerInput() {
+        if (transforms.isEmpty()) return;
 
-        GameObject player = players.get(0);
+        GameObject player = transforms.get(0);
         TransformComponent transform = player.getComponent(TransformComponent.class);
         PhysicsComponent physics = player.getComponent(PhysicsComponent.class);
 
         if (transform == null || physics == null) return;
 
-        Vector2 movement = new Vector2();
+        float moveX = 0f;
+        float moveY = 0f;
 
         boolean upPressed = inputManager.isKeyPressed(87) || inputManager.isKeyPressed(38) || inputManager.isKeyPressed(265);
         boolean downPressed = inputManager.isKeyPressed(83) || inputManager.isKeyPressed(40) || inputManager.isKeyPressed(264);
@@ -87,110 +128,86 @@ public class GameLogic {
         boolean rightPressed = inputManager.isKeyPressed(68) || inputManager.isKeyPressed(39) || inputManager.isKeyPressed(262);
 
         if (upPressed) { // W或上箭头
-            movement.y -= 1;
+            moveY -= 1;
         }
         if (downPressed) { // S或下箭头
-            movement.y += 1;
+            moveY += 1;
         }
         if (leftPressed) { // A或左箭头
-            movement.x -= 1;
+            moveX -= 1;
         }
         if (rightPressed) { // D或右箭头
-            movement.x += 1;
+            moveX += 1;
         }
 
-        if (movement.magnitude() > 0) {
-            movement = movement.normalize().multiply(200);
-            physics.setVelocity(movement);
+        float moveLen = (float) Math.sqrt(moveX * moveX + moveY * moveY);
+        if (moveLen > 0) {
+            physics.setVelocity(moveX / moveLen * 200, moveY / moveLen * 200);
         }
 
         // 边界检查
-        Vector2 pos = transform.getPosition();
-        if (pos.x < 0) pos.x = 0;
-        if (pos.y < 0) pos.y = 0;
-        if (pos.x > worldWidth - 20) pos.x = worldWidth - 20;
-        if (pos.y > worldHeight - 20) pos.y = worldHeight - 20;
-        transform.setPosition(pos);
+        float px = transform.getX();
+        float py = transform.getY();
+        if (px < 0) px = 0;
+        if (py < 0) py = 0;
+        if (px > worldWidth - 20) px = worldWidth - 20;
+        if (py > worldHeight - 20) py = worldHeight - 20;
+        transform.setPosition(px, py);
     }
 
     /**
      * 更新物理系统
      */
     public void updatePhysics() {
-        List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
-        int total = physicsComponents.size();
-        if (total == 0) return;
-
-        int parallelThreshold = 10;
-        if (total < parallelThreshold) {
-            for (PhysicsComponent physics : physicsComponents) {
-                applyBoundaryAndClamp(physics);
-            }
-            return;
+        FrameProfiler p = profiler();
+        p.begin(physicsScope);
+        try {
+            applyBoundaries();
+        } finally {
+            p.end(physicsScope);
         }
+    }
 
-        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
-        int batchSize = (total + threads - 1) / threads;
-
-        List<Callable<Void>> tasks = new ArrayList<>();
-        for (int i = 0; i < total; i += batchSize) {
-            final int start = i;
-            final int end = Math.min(total, i + batchSize);
-            tasks.add(() -> {
-                for (int j = start; j < end; j++) {
-                    PhysicsComponent physics = physicsComponents.get(j);
-                    applyBoundaryAndClamp(physics);
-                }
-                return null;
-            });
-        }
+    private void applyBoundaries() {
+        int total = bodies.size();
+        if (total == 0) return;
 
-        try {
-            List<Future<Void>> futures = executor.invokeAll(tasks);
-            for (Future<Void> f : futures) {
-                try {
-                    f.get();
-                } catch (ExecutionException ee) {
-                    ee.printStackTrace();
-                }
+        // 边界处理很轻，块要足够大才值得分发
+        scene.getJobSystem().parallelFor(0, total, 256, (start, end) -> {
+            for (int j = start; j < end; j++) {
+                applyBoundaryAndClamp(bodies.get(j));
             }
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-        }
+        });
     }
 
-    private void applyBoundaryAndClamp(PhysicsComponent physics) {
-        TransformComponent transform = physics.getOwner().getComponent(TransformComponent.class);
-        if (transform != null) {
-            Vector2 pos = transform.getPosition();
-            Vector2 velocity = physics.getVelocity();
+    private void applyBoundaryAndClamp(GameObject body) {
+        PhysicsComponent physics = body.getComponent(PhysicsComponent.class);
+        TransformComponent transform = body.getComponent(TransformComponent.class);
+        if (physics != null && transform != null) {
+            float px = transform.getX();
+            float py = transform.getY();
 
             float maxX = worldWidth - 15;
             float maxY = worldHeight - 15;
-            com.gameengine.components.RenderComponent rc = physics.getOwner().getComponent(com.gameengine.components.RenderComponent.class);
+            com.gameengine.components.RenderComponent rc = body.getComponent(com.gameengine.components.RenderComponent.class);
             if (rc != null) {
-                com.gameengine.math.Vector2 sz = rc.getSize();
-                if (sz != null) {
-                    maxX = worldWidth - sz.x;
-                    maxY = worldHeight - sz.y;
-                }
+                maxX = worldWidth - rc.getWidth();
+                maxY = worldHeight - rc.getHeight();
             }
 
-            if (pos.x <= 0 || pos.x >= maxX) {
-                velocity.x = -velocity.x;
-                physics.setVelocity(velocity);
+            if (px <= 0 || px >= maxX) {
+                physics.setVelocity(-physics.getVelocityX(), physics.getVelocityY());
             }
-            if (pos.y <= 0 || pos.y >= maxY) {
-                velocity.y = -velocity.y;
-                physics.setVelocity(velocity);
+            if (py <= 0 || py >= maxY) {
+                physics.setVelocity(physics.getVelocityX(), -physics.getVelocityY());
             }
 
             // 确保在边界内
-            if (pos.x < 0) pos.x = 0;
-            if (pos.y < 0) pos.y = 0;
-            if (pos.x > maxX) pos.x = maxX;
-            if (pos.y > maxY) pos.y = maxY;
-            transform.setPosition(pos);
+            if (px < 0) px = 0;
+            if (py < 0) py = 0;
+            if (px > maxX) px = maxX;
+            if (py > maxY) py = maxY;
+            transform.setPosition(px, py);
         }
     }
 
@@ -202,86 +219,109 @@ public class GameLogic {
     }
 
     public void handleAIPlayerAvoidance() {
-        List<GameObject> enemies = scene.findGameObjectsByComponent(EnemyAIComponent.class);
+        FrameProfiler p = profiler();
+        p.begin(avoidanceScope);
+        try {
+            applyAvoidance();
+        } finally {
+            p.end(avoidanceScope);
+        }
+    }
+
+    private void applyAvoidance() {
         int total = enemies.size();
         if (total <= 1) return;
 
 
-        int serialThreshold = 10;
     final float avoidDist = 80f;
     final float strength = 30f;
 
-        if (total < serialThreshold) {
-            for (GameObject enemy : enemies) {
-                applyAvoidanceForOne(enemy, enemies, avoidDist, strength);
-            }
-            return;
-        }
+        // 每帧一次：快照位置并建立格子边长为 avoidDist 的邻域网格，所有工作线程共享只读
+        int count = buildAvoidanceGrid(avoidDist);
+        if (count <= 1) return;
 
-        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
-        int batchSize = (total + threads - 1) / threads;
-        List<Callable<Void>> tasks = new ArrayList<>();
+        scene.getJobSystem().parallelFor(0, count, 64, (start, end) -> {
+            for (int e = start; e < end; e++) {
+                applyAvoidanceForOne(e, avoidDist, strength);
+            }
+        });
+    }
 
-        for (int i = 0; i < total; i += batchSize) {
-            final int start = i;
-            final int end = Math.min(total, i + batchSize);
-            tasks.add(() -> {
-                for (int j = start; j < end; j++) {
-                    GameObject enemy = enemies.get(j);
-                    applyAvoidanceForOne(enemy, enemies, avoidDist, strength);
-                }
-                return null;
-            });
+    // 登记所有带 Transform 的敌人（条目编号与 enemies 中的先后顺序一致），返回条目数
+    private int buildAvoidanceGrid(float avoidDist) {
+        int total = enemies.size();
+        if (avoidObjects.length < total) {
+            int capacity = Math.max(total, avoidObjects.length * 2);
+            avoidObjects = new GameObject[capacity];
+            avoidX = new float[capacity];
+            avoidY = new float[capacity];
         }
-
-        try {
-            List<Future<Void>> futures = executor.invokeAll(tasks);
-            for (Future<Void> f : futures) {
-                try { f.get(); } catch (ExecutionException ee) { ee.printStackTrace(); }
-            }
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
+        avoidanceGrid.clear();
+        avoidanceGrid.setCellSize(avoidDist);
+        for (int i = 0; i < total; i++) {
+            GameObject enemy = enemies.get(i);
+            TransformComponent t = enemy.getComponent(TransformComponent.class);
+            if (t == null) continue;
+            float x = t.getX();
+            float y = t.getY();
+            int e = avoidanceGrid.add(x, y, x, y);
+            avoidObjects[e] = enemy;
+            avoidX[e] = x;
+            avoidY[e] = y;
         }
+        avoidanceGrid.build();
+        return avoidanceGrid.size();
     }
 
+    private void applyAvoidanceForOne(int self, float avoidDist, float strength) {
+        PhysicsComponent selfP = avoidObjects[self].getComponent(PhysicsComponent.class);
+        if (selfP == null) return;
+
+        float selfX = avoidX[self];
+        float selfY = avoidY[self];
 
-    private void applyAvoidanceForOne(GameObject self, List<GameObject> allEnemies, float avoidDist, float strength) {
-        TransformComponent selfT = self.getComponent(TransformComponent.class);
-        PhysicsComponent selfP = self.getComponent(PhysicsComponent.class);
-        if (selfT == null || selfP == null) return;
+        // 只取 avoidDist 范围内的邻居；按条目编号排序，使累加顺序与逐个扫描全部敌人时相同，结果逐位一致
+        int[] neighbors = neighborScratch.get();
+        int found = avoidanceGrid.query(selfX - avoidDist, selfY - avoidDist, selfX + avoidDist, selfY + avoidDist, neighbors);
+        if (found > neighbors.length) {
+            neighbors = new int[Math.max(found, neighbors.length * 2)];
+            neighborScratch.set(neighbors);
+            found = avoidanceGrid.query(selfX - avoidDist, selfY - avoidDist, selfX + avoidDist, selfY + avoidDist, neighbors);
+        }
+        java.util.Arrays.sort(neighbors, 0, found);
 
-        Vector2 selfPos = selfT.getPosition();
-        Vector2 repel = new Vector2(0,0);
+        float repelX = 0f;
+        float repelY = 0f;
 
-        for (GameObject other : allEnemies) {
+        for (int k = 0; k < found; k++) {
+            int other = neighbors[k];
             if (other == self) continue;
-            TransformComponent ot = other.getComponent(TransformComponent.class);
-            if (ot == null) continue;
-            Vector2 op = ot.getPosition();
-            float dist = selfPos.distance(op);
+            float dx = selfX - avoidX[other];
+            float dy = selfY - avoidY[other];
+            float dist = (float) Math.sqrt(dx * dx + dy * dy);
             if (dist > 0 && dist < avoidDist) {
-                Vector2 away = selfPos.subtract(op).normalize();
                 float factor = (avoidDist - dist) / avoidDist;
-                repel = repel.add(away.multiply(factor));
+                repelX += dx / dist * factor;
+                repelY += dy / dist * factor;
             }
         }
 
-        if (repel.magnitude() > 0) {
-            Vector2 v = selfP.getVelocity();
-            float factor = repel.magnitude();
-       
-            float proximity = Math.min(1.0f, factor / avoidDist);
+        float repelLen = (float) Math.sqrt(repelX * repelX + repelY * repelY);
+        if (repelLen > 0) {
+            float proximity = Math.min(1.0f, repelLen / avoidDist);
             float effect = strength * (proximity * proximity);
 
-            Vector2 delta = repel.normalize().multiply(effect);
+            float deltaX = repelX / repelLen * effect;
+            float deltaY = repelY / repelLen * effect;
 
             float maxDelta = 30f;
-            if (delta.magnitude() > maxDelta) {
-                delta = delta.normalize().multiply(maxDelta);
+            float deltaLen = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+            if (deltaLen > maxDelta) {
+                deltaX = deltaX / deltaLen * maxDelta;
+                deltaY = deltaY / deltaLen * maxDelta;
             }
 
-            Vector2 newV = v.add(delta);
-            selfP.setVelocity(newV);
+            selfP.addVelocity(deltaX, deltaY);
         }
     }
 
@@ -289,20 +329,30 @@ public class GameLogic {
      * 检查碰撞
      */
     public void checkCollisions() {
+        FrameProfiler p = profiler();
+        p.begin(collisionScope);
+        try {
+            detectCollisions();
+        } finally {
+            p.end(collisionScope);
+        }
+    }
+
+    private void detectCollisions() {
         // 直接查找玩家对象
-        List<GameObject> players = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (players.isEmpty()) return;
+        if (transforms.isEmpty()) return;
 
-        GameObject player = players.get(0);
+        GameObject player = transforms.get(0);
         TransformComponent playerTransform = player.getComponent(TransformComponent.class);
         if (playerTransform == null) return;
         // 使用 RenderComponent 的尺寸和类型进行更精确的碰撞判定（像素重合判定）
-        for (GameObject obj : scene.getGameObjects()) {
-            if (!obj.getName().equals("Enemy")) continue;
+        for (int i = 0; i < enemies.size(); i++) {
+            GameObject obj = enemies.get(i);
+            if (!obj.isActive() || !obj.getName().equals("Enemy")) continue;
             if (isColliding(player, obj)) {
                 // 碰撞！玩家受伤并复位
                 lives -= 1;
-                playerTransform.setPosition(new Vector2(400, 300));
+                playerTransform.setPosition(400, 300);
                 if (lives <= 0) {
                     // 标记所有对象停用（简单处理）
                     for (GameObject gobj : scene.getGameObjects()) {
@@ -313,11 +363,18 @@ public class GameLogic {
             }
         }
 
-        // 子弹与敌人碰撞：遍历 bullets，使用像素重合判定
-        for (GameObject bullet : scene.getGameObjects()) {
-            if (!"Bullet".equals(bullet.getName())) continue;
-            for (GameObject enemy : scene.getGameObjects()) {
-                if (!"Enemy".equals(enemy.getName())) continue;
+        // 宽相位：用活跃敌人的包围盒重建空间哈希，条目编号保持 enemies 中的先后顺序
+        buildCollisionGrid();
+
+        // 子弹与敌人碰撞：每颗子弹只对网格中与其包围盒相交的敌人做像素重合判定
+        for (int b = 0; b < projectiles.size(); b++) {
+            GameObject bullet = projectiles.get(b);
+            if (!bullet.isActive() || !"Bullet".equals(bullet.getName())) continue;
+            if (!computeBounds(bullet, 0f, bounds)) continue;
+            int found = queryCollisionGrid();
+            for (int k = 0; k < found; k++) {
+                GameObject enemy = gridObjects[queryBuffer[k]];
+                if (!enemy.isActive() || !"Enemy".equals(enemy.getName())) continue;
                 if (isColliding(bullet, enemy)) {
                     // 命中：销毁子弹，销毁或移除敌人并加分
                     bullet.destroy();
@@ -329,78 +386,191 @@ public class GameLogic {
         }
 
         // 敌人之间的碰撞分离：防止重叠，做小幅移动并加上小的速度冲量以产生可见的短距离分离
-        List<GameObject> enemies = scene.findGameObjectsByComponent(EnemyAIComponent.class);
-        int n = enemies.size();
+        // 按 (i, j) 升序逐对处理，每对用处理到它时的当前位置判定，结果与逐对扫描一致。
+        // 网格里是分离前的包围盒，已处理的对会把敌人推开或推到一起，所以每个 i 用当前位置查询，
+        // 查询框外扩到目前最大的累计位移，i 自己移动超过 SEPARATION_SLACK 后重新查询
+        int count = collisionGrid.size();
+        if (separationShift.length < count * 2) {
+            separationShift = new float[Math.max(count * 2, separationShift.length * 2)];
+        }
+        java.util.Arrays.fill(separationShift, 0, count * 2, 0f);
+        maxSeparationShift = 0f;
+        for (int i = 0; i < count; i++) {
+            GameObject a = gridObjects[i];
+            if (!a.isActive()) continue;
+            TransformComponent ta = a.getComponent(TransformComponent.class);
+            int next = i + 1;
+            boolean requery = true;
+            while (requery) {
+                requery = false;
+                float queryX = ta.getX();
+                float queryY = ta.getY();
+                computeBounds(a, Math.max(0f, maxSeparationShift - SEPARATION_MARGIN) + SEPARATION_SLACK, bounds);
+                int found = queryCollisionGrid();
+                for (int k = 0; k < found; k++) {
+                    int j = queryBuffer[k];
+                    if (j < next) continue;
+                    next = j + 1;
+                    GameObject b = gridObjects[j];
+                    if (!b.isActive() || !isColliding(a, b)) continue;
+                    separate(a, b, i, j);
+                    if (Math.abs(ta.getX() - queryX) > SEPARATION_SLACK || Math.abs(ta.getY() - queryY) > SEPARATION_SLACK) {
+                        requery = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void separate(GameObject a, GameObject b, int entryA, int entryB) {
         final float desiredSeparation = 8f; // 希望的最小分离距离（像素）
         final float separationVelocity = 40f; // 施加到速度上的分量量级
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                GameObject a = enemies.get(i);
-                GameObject b = enemies.get(j);
-                if (a == null || b == null) continue;
-                if (!isColliding(a, b)) continue;
-
-                // 计算中心和当前距离
-                Vector2 ca = getObjectCenter(a);
-                Vector2 cb = getObjectCenter(b);
-                Vector2 diff = ca.subtract(cb);
-                float dist = diff.magnitude();
-                if (dist == 0) {
-                    // 任意小偏移，避免完全重合造成 NaN
-                    diff = new Vector2(0.01f, 0.01f);
-                    dist = diff.magnitude();
-                }
 
-                float overlap = Math.max(0f, desiredSeparation - dist);
-                if (overlap <= 0f) {
-                    
-                    overlap = 2f;
-                }
+        // 计算中心和当前距离
+        float diffX = getCenterX(a) - getCenterX(b);
+        float diffY = getCenterY(a) - getCenterY(b);
+        float dist = (float) Math.sqrt(diffX * diffX + diffY * diffY);
+        if (dist == 0) {
+            // 任意小偏移，避免完全重合造成 NaN
+            diffX = 0.01f;
+            diffY = 0.01f;
+            dist = (float) Math.sqrt(diffX * diffX + diffY * diffY);
+        }
 
-                Vector2 pushDir = diff.normalize();
+        float overlap = Math.max(0f, desiredSeparation - dist);
+        if (overlap <= 0f) {
+            
+            overlap = 2f;
+        }
 
-                TransformComponent ta = a.getComponent(TransformComponent.class);
-                TransformComponent tb = b.getComponent(TransformComponent.class);
-                if (ta != null && tb != null) {
-                    Vector2 pa = ta.getPosition();
-                    Vector2 pb = tb.getPosition();
-                    Vector2 shift = pushDir.multiply(overlap / 2f);
-                    ta.setPosition(pa.add(shift));
-                    tb.setPosition(pb.subtract(shift));
-                }
+        float pushX = diffX / dist;
+        float pushY = diffY / dist;
+
+        TransformComponent ta = a.getComponent(TransformComponent.class);
+        TransformComponent tb = b.getComponent(TransformComponent.class);
+        if (ta != null && tb != null) {
+            float shiftX = pushX * (overlap / 2f);
+            float shiftY = pushY * (overlap / 2f);
+            ta.translate(shiftX, shiftY);
+            tb.translate(-shiftX, -shiftY);
+            recordShift(entryA, shiftX, shiftY);
+            recordShift(entryB, -shiftX, -shiftY);
+        }
 
 
-                PhysicsComponent paPhys = a.getComponent(PhysicsComponent.class);
-                PhysicsComponent pbPhys = b.getComponent(PhysicsComponent.class);
-                if (paPhys != null && pbPhys != null) {
-                    Vector2 dv = pushDir.multiply(separationVelocity * (overlap / desiredSeparation));
+        PhysicsComponent paPhys = a.getComponent(PhysicsComponent.class);
+        PhysicsComponent pbPhys = b.getComponent(PhysicsComponent.class);
+        if (paPhys != null && pbPhys != null) {
+            float dvScale = separationVelocity * (overlap / desiredSeparation);
+            float dvX = pushX * dvScale;
+            float dvY = pushY * dvScale;
 
-                    float maxDv = 30f;
-                    if (dv.magnitude() > maxDv) dv = dv.normalize().multiply(maxDv);
-                    paPhys.setVelocity(paPhys.getVelocity().add(dv));
-                    pbPhys.setVelocity(pbPhys.getVelocity().subtract(dv));
-                }
+            float maxDv = 30f;
+            float dvLen = (float) Math.sqrt(dvX * dvX + dvY * dvY);
+            if (dvLen > maxDv) {
+                dvX = dvX / dvLen * maxDv;
+                dvY = dvY / dvLen * maxDv;
             }
+            paPhys.addVelocity(dvX, dvY);
+            pbPhys.addVelocity(-dvX, -dvY);
         }
     }
 
+    // 累计条目本帧的分离位移，并更新所有条目单轴位移的最大值
+    private void recordShift(int entry, float dx, float dy) {
+        float x = separationShift[entry * 2] += dx;
+        float y = separationShift[entry * 2 + 1] += dy;
+        maxSeparationShift = Math.max(maxSeparationShift, Math.max(Math.abs(x), Math.abs(y)));
+    }
+
 
-    private Vector2 getObjectCenter(GameObject obj) {
+    // 网格包围盒额外外扩的距离：累计分离位移不超过它时，查询框不必再外扩
+    public static final float SEPARATION_MARGIN = 4f;
+    // 分离时查询框为当前对象自身的后续移动预留的余量，超过后重新查询
+    private static final float SEPARATION_SLACK = 8f;
+    // 缺少渲染组件或为 LINE 时窄相位退化为位置距离 < 25，包围盒据此覆盖位置周围 12.5 像素
+    private static final float FALLBACK_HALF_EXTENT = 12.5f;
+
+    private void buildCollisionGrid() {
+        collisionGrid.clear();
+        int n = enemies.size();
+        if (gridObjects.length < n) {
+            gridObjects = new GameObject[Math.max(n, gridObjects.length * 2)];
+        }
+        for (int i = 0; i < n; i++) {
+            GameObject enemy = enemies.get(i);
+            if (!enemy.isActive() || !computeBounds(enemy, SEPARATION_MARGIN, bounds)) continue;
+            gridObjects[collisionGrid.add(bounds[0], bounds[1], bounds[2], bounds[3])] = enemy;
+        }
+        collisionGrid.build();
+    }
+
+    // 查询与 bounds 相交的网格条目，结果按条目编号升序写入 queryBuffer
+    private int queryCollisionGrid() {
+        int found = collisionGrid.query(bounds[0], bounds[1], bounds[2], bounds[3], queryBuffer);
+        if (found > queryBuffer.length) {
+            queryBuffer = new int[Math.max(found, queryBuffer.length * 2)];
+            found = collisionGrid.query(bounds[0], bounds[1], bounds[2], bounds[3], queryBuffer);
+        }
+        java.util.Arrays.sort(queryBuffer, 0, found);
+        return found;
+    }
+
+    /**
+     * 计算对象的保守包围盒写入 out（minX, minY, maxX, maxY），覆盖 isColliding 可能判为相交的全部区域
+     * @return 对象没有 TransformComponent 时返回 false
+     */
+    public static boolean computeBounds(GameObject obj, float margin, float[] out) {
         TransformComponent t = obj.getComponent(TransformComponent.class);
+        if (t == null) return false;
+        float x = t.getX();
+        float y = t.getY();
+        float x0 = x - FALLBACK_HALF_EXTENT, y0 = y - FALLBACK_HALF_EXTENT;
+        float x1 = x + FALLBACK_HALF_EXTENT, y1 = y + FALLBACK_HALF_EXTENT;
         com.gameengine.components.RenderComponent r = obj.getComponent(com.gameengine.components.RenderComponent.class);
-        if (t == null) return new Vector2();
-        Vector2 p = t.getPosition();
-        if (r == null) return p;
-        Vector2 s = r.getSize();
-        if (r.getRenderType() == com.gameengine.components.RenderComponent.RenderType.CIRCLE) {
-            return new Vector2(p.x + s.x / 2f, p.y + s.y / 2f);
+        if (r != null) {
+            x0 = Math.min(x0, Math.min(x, x + r.getWidth()));
+            y0 = Math.min(y0, Math.min(y, y + r.getHeight()));
+            x1 = Math.max(x1, Math.max(x, x + r.getWidth()));
+            y1 = Math.max(y1, Math.max(y, y + r.getHeight()));
+            if (r.getRenderType() == com.gameengine.components.RenderComponent.RenderType.CIRCLE) {
+                // 圆的半径只取宽度的一半，宽高不等时可能超出矩形
+                float radius = Math.abs(r.getWidth()) / 2f;
+                float cx = x + r.getWidth() / 2f;
+                float cy = y + r.getHeight() / 2f;
+                x0 = Math.min(x0, cx - radius);
+                y0 = Math.min(y0, cy - radius);
+                x1 = Math.max(x1, cx + radius);
+                y1 = Math.max(y1, cy + radius);
+            }
         }
+        out[0] = x0 - margin;
+        out[1] = y0 - margin;
+        out[2] = x1 + margin;
+        out[3] = y1 + margin;
+        return true;
+    }
+
+    // 对象中心：有 RenderComponent 时取包围盒中心，否则取位置
+    private float getCenterX(GameObject obj) {
+        TransformComponent t = obj.getComponent(TransformComponent.class);
+        if (t == null) return 0f;
+        com.gameengine.components.RenderComponent r = obj.getComponent(com.gameengine.components.RenderComponent.class);
+        return r == null ? t.getX() : t.getX() + r.getWidth() / 2f;
+    }
 
-        return new Vector2(p.x + s.x / 2f, p.y + s.y / 2f);
+    private float getCenterY(GameObject obj) {
+        TransformComponent t = obj.getComponent(TransformComponent.class);
+        if (t == null) return 0f;
+        com.gameengine.components.RenderComponent r = obj.getComponent(com.gameengine.components.RenderComponent.class);
+        return r == null ? t.getY() : t.getY() + r.getHeight() / 2f;
     }
 
-    // 基于 RenderComponent 类型和尺寸做两个 GameObject 的像素级重合判定
-    private boolean isColliding(GameObject a, GameObject b) {
+    /**
+     * 基于 RenderComponent 类型和尺寸做两个 GameObject 的像素级重合判定（窄相位）
+     */
+    public boolean isColliding(GameObject a, GameObject b) {
         com.gameengine.components.RenderComponent ra = a.getComponent(com.gameengine.components.RenderComponent.class);
         com.gameengine.components.RenderComponent rb = b.getComponent(com.gameengine.components.RenderComponent.class);
         TransformComponent ta = a.getComponent(TransformComponent.class);
@@ -408,18 +578,20 @@ public class GameLogic {
 
         // 若缺少渲染组件或变换组件，回退到中心点距离判定（保守策略）
         if (ra == null || rb == null || ta == null || tb == null) {
-            Vector2 pa = ta != null ? ta.getPosition() : new Vector2();
-            Vector2 pb = tb != null ? tb.getPosition() : new Vector2();
-            return pa.distance(pb) < 25;
+            float ax = ta != null ? ta.getX() : 0f;
+            float ay = ta != null ? ta.getY() : 0f;
+            float bx = tb != null ? tb.getX() : 0f;
+            float by = tb != null ? tb.getY() : 0f;
+            return distance(ax, ay, bx, by) < 25;
         }
 
         // 获取类型与尺寸
         com.gameengine.components.RenderComponent.RenderType taType = ra.getRenderType();
         com.gameengine.components.RenderComponent.RenderType tbType = rb.getRenderType();
-        Vector2 pa = ta.getPosition();
-        Vector2 pb = tb.getPosition();
-        Vector2 sa = ra.getSize();
-        Vector2 sb = rb.getSize();
+        float pax = ta.getX(), pay = ta.getY();
+        float pbx = tb.getX(), pby = tb.getY();
+        float sax = ra.getWidth(), say = ra.getHeight();
+        float sbx = rb.getWidth(), sby = rb.getHeight();
 
         // 统一坐标约定：
         // - RECTANGLE: position = top-left, size = width/height
@@ -427,40 +599,40 @@ public class GameLogic {
 
         // 判断几种组合
         if (taType == com.gameengine.components.RenderComponent.RenderType.RECTANGLE && tbType == com.gameengine.components.RenderComponent.RenderType.RECTANGLE) {
-            return rectRectOverlap(pa, sa, pb, sb);
+            return rectRectOverlap(pax, pay, sax, say, pbx, pby, sbx, sby);
         }
         if (taType == com.gameengine.components.RenderComponent.RenderType.CIRCLE && tbType == com.gameengine.components.RenderComponent.RenderType.CIRCLE) {
-            float raRadius = sa.x / 2f;
-            float rbRadius = sb.x / 2f;
-            Vector2 ca = new Vector2(pa.x + sa.x/2f, pa.y + sa.y/2f);
-            Vector2 cb = new Vector2(pb.x + sb.x/2f, pb.y + sb.y/2f);
-            return ca.distance(cb) <= (raRadius + rbRadius);
+            float raRadius = sax / 2f;
+            float rbRadius = sbx / 2f;
+            return distance(pax + sax/2f, pay + say/2f, pbx + sbx/2f, pby + sby/2f) <= (raRadius + rbRadius);
         }
         // rect - circle combinations
         if (taType == com.gameengine.components.RenderComponent.RenderType.RECTANGLE && tbType == com.gameengine.components.RenderComponent.RenderType.CIRCLE) {
-            Vector2 centerB = new Vector2(pb.x + sb.x/2f, pb.y + sb.y/2f);
-            return rectCircleOverlap(pa, sa, centerB, sb.x/2f);
+            return rectCircleOverlap(pax, pay, sax, say, pbx + sbx/2f, pby + sby/2f, sbx/2f);
         }
         if (taType == com.gameengine.components.RenderComponent.RenderType.CIRCLE && tbType == com.gameengine.components.RenderComponent.RenderType.RECTANGLE) {
-            Vector2 centerA = new Vector2(pa.x + sa.x/2f, pa.y + sa.y/2f);
-            return rectCircleOverlap(pb, sb, centerA, sa.x/2f);
+            return rectCircleOverlap(pbx, pby, sbx, sby, pax + sax/2f, pay + say/2f, sax/2f);
         }
 
         // 其他情况（例如 LINE）回退到中心距离判定
-        Vector2 ca = ta.getPosition();
-        Vector2 cb = tb.getPosition();
-        return ca.distance(cb) < 25;
+        return distance(pax, pay, pbx, pby) < 25;
     }
 
-    private boolean rectRectOverlap(Vector2 p1, Vector2 s1, Vector2 p2, Vector2 s2) {
-        return p1.x < p2.x + s2.x && p1.x + s1.x > p2.x && p1.y < p2.y + s2.y && p1.y + s1.y > p2.y;
+    private static float distance(float ax, float ay, float bx, float by) {
+        float dx = ax - bx;
+        float dy = ay - by;
+        return (float) Math.sqrt(dx * dx + dy * dy);
     }
 
-    private boolean rectCircleOverlap(Vector2 rectPos, Vector2 rectSize, Vector2 circleCenter, float radius) {
-        float closestX = clamp(circleCenter.x, rectPos.x, rectPos.x + rectSize.x);
-        float closestY = clamp(circleCenter.y, rectPos.y, rectPos.y + rectSize.y);
-        float dx = circleCenter.x - closestX;
-        float dy = circleCenter.y - closestY;
+    private boolean rectRectOverlap(float x1, float y1, float w1, float h1, float x2, float y2, float w2, float h2) {
+        return x1 < x2 + w2 && x1 + w1 > x2 && y1 < y2 + h2 && y1 + h1 > y2;
+    }
+
+    private boolean rectCircleOverlap(float rectX, float rectY, float rectW, float rectH, float cx, float cy, float radius) {
+        float closestX = clamp(cx, rectX, rectX + rectW);
+        float closestY = clamp(cy, rectY, rectY + rectH);
+        float dx = cx - closestX;
+        float dy = cy - closestY;
         return dx*dx + dy*dy <= radius * radius;
     }
 
@@ -470,6 +642,16 @@ public class GameLogic {
 
     // Shooting related: expose a public method to be called from Scene.update
     public void handleShooting(float deltaTime) {
+        FrameProfiler p = profiler();
+        p.begin(shootingScope);
+        try {
+            applyShooting(deltaTime);
+        } finally {
+            p.end(shootingScope);
+        }
+    }
+
+    private void applyShooting(float deltaTime) {
         timeSinceLastShot += deltaTime;
         boolean mousePressed = inputManager.isMouseButtonPressed(0) || inputManager.isMouseButtonPressed(1);
         boolean spaceJust = inputManager.isKeyJustPressed(32);
@@ -482,9 +664,8 @@ public class GameLogic {
     }
 
     private void spawnBullet() {
-        List<GameObject> players = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (players.isEmpty()) return;
-        GameObject player = players.get(0);
+        if (transforms.isEmpty()) return;
+        GameObject player = transforms.get(0);
         TransformComponent pt = player.getComponent(TransformComponent.class);
         if (pt == null) return;
 
@@ -505,9 +686,8 @@ public class GameLogic {
 
     public Vector2 getAimPosition() {
         // Place crosshair at a fixed distance from the player along the direction to the mouse
-        List<GameObject> players = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (players.isEmpty()) return inputManager.getMousePosition();
-        GameObject player = players.get(0);
+        if (transforms.isEmpty()) return inputManager.getMousePosition();
+        GameObject player = transforms.get(0);
         TransformComponent pt = player.getComponent(TransformComponent.class);
         if (pt == null) return inputManager.getMousePosition();
         Vector2 playerPos = pt.getPosition();
@@ -532,7 +712,8 @@ public class GameLogic {
     public void setTimeSinceLastShot(float value) { this.timeSinceLastShot = Math.max(0f, value); }
 
     public GameObject getUserPlayer() {
-        for (GameObject obj : scene.getGameObjects()) {
+        for (int i = 0; i < transforms.size(); i++) {
+            GameObject obj = transforms.get(i);
             if ("Player".equalsIgnoreCase(obj.getName())) {
                 return obj;
             }
@@ -542,7 +723,8 @@ public class GameLogic {
 
     public List<GameObject> getAIPlayers() {
         List<GameObject> result = new ArrayList<>();
-        for (GameObject obj : scene.getGameObjects()) {
+        for (int i = 0; i < transforms.size(); i++) {
+            GameObject obj = transforms.get(i);
             if ("AIPlayer".equalsIgnoreCase(obj.getName())) {
                 result.add(obj);
             }
@@ -550,10 +732,23 @@ public class GameLogic {
         return result;
     }
 
-    public void cleanup() {
-        if (!executor.isShutdown()) {
-            executor.shutdownNow();
+    private FrameProfiler profiler() {
+        FrameProfiler current = scene.getProfiler();
+        if (current != profiler) {
+            profiler = current;
+            inputScope = current.scope("logic.input");
+            physicsScope = current.scope("logic.physics");
+            avoidanceScope = current.scope("logic.avoidance");
+            collisionScope = current.scope("logic.collisions");
+            shootingScope = current.scope("logic.shooting");
         }
+        return current;
+    }
+
+    /**
+     * 并行任务使用引擎共享的任务系统，这里没有需要释放的线程
+     */
+    public void cleanup() {
     }
 
     public void handleAIPlayerAvoidance(float deltaTime) {
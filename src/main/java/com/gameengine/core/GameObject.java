@@ -1,6 +1,7 @@
 package com.gameengine.core;
 
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
 import java.util.*;
 
 /**
@@ -10,11 +11,15 @@ public class GameObject {
     protected boolean active;
     protected String name;
     protected final List<Component<?>> components;
+    // 按组件类型 ID 索引的槽位，父类类型也会指向同一组件，便于按基类查找
+    private Component<?>[] componentSlots;
+    private Scene scene;
     
     public GameObject() {
         this.active = true;
         this.name = "GameObject";
         this.components = new ArrayList<>();
+        this.componentSlots = new Component<?>[8];
     }
     
     public GameObject(String name) {
@@ -53,6 +58,8 @@ public class GameObject {
             component.destroy();
         }
         components.clear();
+        Arrays.fill(componentSlots, null);
+        notifyComponentsChanged();
     }
     
     /**
@@ -61,7 +68,9 @@ public class GameObject {
     public <T extends Component<T>> T addComponent(T component) {
         component.setOwner(this);
         components.add(component);
+        indexComponent(component);
         component.initialize();
+        notifyComponentsChanged();
         return component;
     }
     
@@ -70,32 +79,54 @@ public class GameObject {
      */
     @SuppressWarnings("unchecked")
     public <T extends Component<T>> T getComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return (T) component;
-            }
-        }
-        return null;
+        return (T) getComponentByTypeId(ComponentTypes.idOf(componentType));
+    }
+    
+    /**
+     * 按类型 ID 获取组件（见 {@link ComponentTypes#idOf}）
+     */
+    public Component<?> getComponentByTypeId(int typeId) {
+        Component<?>[] slots = componentSlots;
+        return typeId < slots.length ? slots[typeId] : null;
     }
     
     /**
      * 检查是否有指定类型的组件
      */
     public <T extends Component<T>> boolean hasComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return true;
+        return getComponentByTypeId(ComponentTypes.idOf(componentType)) != null;
+    }
+    
+    /**
+     * 按类型 ID 检查是否有组件
+     */
+    public boolean hasComponentType(int typeId) {
+        return getComponentByTypeId(typeId) != null;
+    }
+    
+    /**
+     * 将组件登记到其类及所有父类（直到 Component）的槽位；
+     * 同一槽位保留最先添加的组件，与按添加顺序线性查找的结果一致
+     */
+    private void indexComponent(Component<?> component) {
+        for (Class<?> type = component.getClass(); type != null && type != Component.class; type = type.getSuperclass()) {
+            int id = ComponentTypes.idOf(type);
+            if (id >= componentSlots.length) {
+                componentSlots = Arrays.copyOf(componentSlots, Math.max(id + 1, componentSlots.length * 2));
+            }
+            if (componentSlots[id] == null) {
+                componentSlots[id] = component;
             }
         }
-        return false;
     }
     
     /**
      * 更新所有组件
      */
     public void updateComponents(float deltaTime) {
-        // 遍历组件的副本，防止在 update 中销毁组件或 owner 导致并发修改
-        for (Component<?> component : new ArrayList<>(components)) {
+        // 按下标遍历，不复制列表：update 中销毁 owner 会清空列表使循环结束，新增组件会排在末尾
+        for (int i = 0; i < components.size(); i++) {
+            Component<?> component = components.get(i);
             if (component.isEnabled()) {
                 component.update(deltaTime);
             }
@@ -106,16 +137,34 @@ public class GameObject {
      * 渲染所有组件
      */
     public void renderComponents() {
-        // 同样遍历副本以避免并发修改
-        for (Component<?> component : new ArrayList<>(components)) {
+        // 同样按下标遍历
+        for (int i = 0; i < components.size(); i++) {
+            Component<?> component = components.get(i);
             if (component.isEnabled()) {
                 component.render();
             }
         }
     }
     
+    private void notifyComponentsChanged() {
+        if (scene != null) {
+            scene.onComponentsChanged(this);
+        }
+    }
+    
     // Getters and Setters
     
+    /**
+     * 所属场景（由 Scene 在对象加入/移出时设置）
+     */
+    public Scene getScene() {
+        return scene;
+    }
+    
+    public void setScene(Scene scene) {
+        this.scene = scene;
+    }
+    
     public boolean isActive() {
         return active;
     }
@@ -0,0 +1,321 @@
+package com.gameengine.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+/**
+ * 引擎共享的任务系统，基于 ForkJoinPool 的工作窃取。
+ * 由 GameEngine 创建并在退出时关闭，场景和各系统只借用，不自行建线程池。
+ * 区间按需二分：工作线程本地队列里积压的任务不多时才继续拆分，因此块大小随负载自适应；
+ * 默认调用线程（通常是主循环线程）也参与执行，而不是阻塞等待。
+ */
+public class JobSystem {
+    /**
+     * 处理 [start, end) 区间的任务
+     */
+    public interface RangeTask {
+        void run(int start, int end);
+    }
+
+    /**
+     * 对 [start, end) 区间求部分结果的任务
+     */
+    public interface RangeReducer<T> {
+        T reduce(int start, int end);
+    }
+
+    // 工作线程本地队列中多余任务不超过该值时继续拆分
+    private static final int SURPLUS_THRESHOLD = 3;
+
+    private static final JobSystem SERIAL = new JobSystem(0);
+
+    private final ForkJoinPool pool;
+    private final int workerCount;
+    private volatile boolean mainThreadParticipation = true;
+
+    /**
+     * @param workerCount 工作线程数；为 0 时不创建线程，所有任务在调用线程上串行执行
+     */
+    public JobSystem(int workerCount) {
+        this.workerCount = Math.max(0, workerCount);
+        if (this.workerCount > 0) {
+            this.pool = new ForkJoinPool(this.workerCount, new WorkerFactory(), null, false);
+        } else {
+            this.pool = null;
+        }
+    }
+
+    /**
+     * 按 CPU 核数创建：工作线程数 = 核数 - 1，主线程参与补足最后一个核
+     */
+    public static JobSystem createDefault() {
+        return new JobSystem(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * 无线程的串行实例，供未挂到引擎上的场景和工具使用
+     */
+    public static JobSystem serial() {
+        return SERIAL;
+    }
+
+    /**
+     * 参与执行的线程数（工作线程 + 参与模式下的调用线程）
+     */
+    public int getParallelism() {
+        if (pool == null) return 1;
+        return mainThreadParticipation ? workerCount + 1 : workerCount;
+    }
+
+    /**
+     * 主线程参与模式：开启时调用线程执行自己拆出的第一段，其余段交给工作线程；
+     * 关闭时调用线程只提交任务并等待
+     */
+    public void setMainThreadParticipation(boolean enabled) {
+        this.mainThreadParticipation = enabled;
+    }
+
+    public boolean isMainThreadParticipation() {
+        return mainThreadParticipation;
+    }
+
+    /**
+     * 并行处理 [start, end)，返回时全部区间已处理完毕；任务抛出的异常在调用线程上重新抛出
+     * @param grain 最小块大小，区间不超过该值时直接在调用线程上执行
+     */
+    public void parallelFor(int start, int end, int grain, RangeTask task) {
+        if (end <= start) return;
+        int minChunk = Math.max(1, grain);
+        if (pool == null || end - start <= minChunk || pool.isShutdown()) {
+            task.run(start, end);
+            return;
+        }
+        ForAction root = new ForAction(this, start, end, minChunk, task, initialDepth());
+        if (isOwnWorker() || mainThreadParticipation) {
+            root.compute();
+        } else {
+            pool.invoke(root);
+        }
+    }
+
+    /**
+     * 并行归约 [start, end)：各段结果按区间先后顺序用 combiner 合并。
+     * 拆分方式随负载变化，combiner 需满足结合律才能保证结果稳定。
+     */
+    public <T> T parallelReduce(int start, int end, int grain, RangeReducer<T> reducer, BinaryOperator<T> combiner) {
+        if (end <= start) return reducer.reduce(start, start);
+        int minChunk = Math.max(1, grain);
+        if (pool == null || end - start <= minChunk || pool.isShutdown()) {
+            return reducer.reduce(start, end);
+        }
+        ReduceTask<T> root = new ReduceTask<>(this, start, end, minChunk, reducer, combiner, initialDepth());
+        if (isOwnWorker() || mainThreadParticipation) {
+            return root.compute();
+        }
+        return pool.invoke(root);
+    }
+
+    /**
+     * 关闭线程池（由 GameEngine 在退出时调用）
+     */
+    public void shutdown() {
+        if (pool == null || pool.isShutdown()) return;
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isShutdown() {
+        return pool == null || pool.isShutdown();
+    }
+
+    // 调用线程不在池内时无法查看本地队列，先按线程数拆出足够的段（约每线程两段）
+    private int initialDepth() {
+        int pieces = getParallelism() * 2;
+        return 32 - Integer.numberOfLeadingZeros(pieces - 1);
+    }
+
+    private boolean isOwnWorker() {
+        Thread current = Thread.currentThread();
+        return current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == pool;
+    }
+
+    private boolean shouldSplit(int depth) {
+        if (isOwnWorker()) {
+            return ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_THRESHOLD;
+        }
+        return depth > 0;
+    }
+
+    private void fork(ForkJoinTask<?> task) {
+        if (isOwnWorker()) {
+            task.fork();
+        } else {
+            pool.execute(task);
+        }
+    }
+
+    private static void joinOrRun(ForkJoinTask<?> task) {
+        // 还没被窃取的任务直接在当前线程执行，避免阻塞
+        if (task.tryUnfork()) {
+            task.invoke();
+        } else {
+            task.join();
+        }
+    }
+
+    // 本段失败时仍要等拆出的段全部结束再抛出，否则调用返回后它们还在访问调用方的数据
+    private static Throwable addFailure(Throwable failure, Throwable e) {
+        if (failure == null) {
+            return e;
+        }
+        if (failure != e) {
+            failure.addSuppressed(e);
+        }
+        return failure;
+    }
+
+    private static void rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ForAction extends RecursiveAction {
+        private final JobSystem jobs;
+        private final int start;
+        private final int end;
+        private final int minChunk;
+        private final RangeTask task;
+        private final int depth;
+        private ForAction next;
+
+        ForAction(JobSystem jobs, int start, int end, int minChunk, RangeTask task, int depth) {
+            this.jobs = jobs;
+            this.start = start;
+            this.end = end;
+            this.minChunk = minChunk;
+            this.task = task;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            int lo = start;
+            int hi = end;
+            int d = depth;
+            ForAction forked = null;
+            // 保留左半段继续拆分，右半段交出去；链表头是最近拆出的（最靠左的）段
+            while (hi - lo > minChunk && jobs.shouldSplit(d)) {
+                int mid = (lo + hi) >>> 1;
+                ForAction right = new ForAction(jobs, mid, hi, minChunk, task, Math.max(0, d - 1));
+                right.next = forked;
+                forked = right;
+                jobs.fork(right);
+                hi = mid;
+                d--;
+            }
+            Throwable failure = null;
+            try {
+                task.run(lo, hi);
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            }
+            for (ForAction f = forked; f != null; f = f.next) {
+                try {
+                    joinOrRun(f);
+                } catch (RuntimeException | Error e) {
+                    failure = addFailure(failure, e);
+                }
+            }
+            rethrow(failure);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ReduceTask<T> extends RecursiveTask<T> {
+        private final JobSystem jobs;
+        private final int start;
+        private final int end;
+        private final int minChunk;
+        private final RangeReducer<T> reducer;
+        private final BinaryOperator<T> combiner;
+        private final int depth;
+        private ReduceTask<T> next;
+
+        ReduceTask(JobSystem jobs, int start, int end, int minChunk,
+                   RangeReducer<T> reducer, BinaryOperator<T> combiner, int depth) {
+            this.jobs = jobs;
+            this.start = start;
+            this.end = end;
+            this.minChunk = minChunk;
+            this.reducer = reducer;
+            this.combiner = combiner;
+            this.depth = depth;
+        }
+
+        @Override
+        protected T compute() {
+            int lo = start;
+            int hi = end;
+            int d = depth;
+            ReduceTask<T> forked = null;
+            while (hi - lo > minChunk && jobs.shouldSplit(d)) {
+                int mid = (lo + hi) >>> 1;
+                ReduceTask<T> right = new ReduceTask<>(jobs, mid, hi, minChunk, reducer, combiner, Math.max(0, d - 1));
+                right.next = forked;
+                forked = right;
+                jobs.fork(right);
+                hi = mid;
+                d--;
+            }
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = reducer.reduce(lo, hi);
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            }
+            // 链表顺序即区间从左到右的顺序
+            for (ReduceTask<T> f = forked; f != null; f = f.next) {
+                try {
+                    joinOrRun(f);
+                    if (failure == null) {
+                        result = combiner.apply(result, f.getRawResult());
+                    }
+                } catch (RuntimeException | Error e) {
+                    failure = addFailure(failure, e);
+                }
+            }
+            rethrow(failure);
+            return result;
+        }
+    }
+
+    private static final class WorkerFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private int counter;
+
+        @Override
+        public synchronized ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("job-worker-" + (counter++));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.gameengine.core;
+
+import com.gameengine.components.ParticleEmitterComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.InstanceBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 场景级粒子管理器：所有发射器共用一个粒子池，每帧一次批量更新和一次批量绘制。
+ * 发射器是挂在实体上的轻量句柄（{@link ParticleEmitterComponent}），自身不持有粒子；
+ * 实体销毁或停用时发射器自动释放，已发出的粒子照常衰减消失。
+ * 粒子的 tag 指向样式表中的配置，绘制时按各自配置的透明度和最小尺寸处理。
+ */
+public class ParticleManager {
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final ParticlePool pool;
+    private final Random random;
+    private IRenderer renderer;
+    private final InstanceBuffer instances = new InstanceBuffer(1024);
+
+    // 样式表：每个不同的 Config 实例登记一次
+    private final List<ParticleSystem.Config> styles = new ArrayList<>();
+    private final Map<ParticleSystem.Config, Integer> styleIds = new IdentityHashMap<>();
+
+    // 发射器槽位（SoA），释放的槽位放入空闲栈复用
+    private ParticleEmitterComponent[] emitters = new ParticleEmitterComponent[64];
+    private int[] emitterStyle = new int[64];
+    private float[] emitterX = new float[64];
+    private float[] emitterY = new float[64];
+    private float[] sinceSpawn = new float[64];
+    private int slotCount;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int liveCount;
+
+    public ParticleManager(IRenderer renderer) {
+        this(renderer, DEFAULT_CAPACITY, ParticlePool.OverflowPolicy.GROW, new Random());
+    }
+
+    public ParticleManager(IRenderer renderer, int capacity, ParticlePool.OverflowPolicy overflowPolicy, Random random) {
+        this.renderer = renderer;
+        this.pool = new ParticlePool(capacity, overflowPolicy);
+        this.random = random;
+    }
+
+    public void setRenderer(IRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * 在实体上挂一个发射器：跟随实体的 TransformComponent 位置按配置持续发射，
+     * 并立即发射 config.initialCount 个粒子
+     */
+    public ParticleEmitterComponent attach(GameObject owner, ParticleSystem.Config config) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        ParticleEmitterComponent emitter = new ParticleEmitterComponent(this, slot);
+        emitters[slot] = emitter;
+        emitterStyle[slot] = styleId(config);
+        sinceSpawn[slot] = 0f;
+        liveCount++;
+        owner.addComponent(emitter);
+        followOwner(slot);
+        for (int i = 0; i < config.initialCount; i++) {
+            ParticleSystem.spawnInto(pool, random, config, emitterX[slot], emitterY[slot], emitterStyle[slot]);
+        }
+        return emitter;
+    }
+
+    /**
+     * 释放发射器槽位；对已经释放过的句柄无效果
+     */
+    public void release(ParticleEmitterComponent emitter) {
+        int slot = emitter.getSlot();
+        if (slot < 0 || slot >= slotCount || emitters[slot] != emitter) {
+            return;
+        }
+        emitters[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        liveCount--;
+    }
+
+    /**
+     * 在 (x, y) 按配置的爆发参数一次生成 count 个粒子，不需要发射器
+     */
+    public void burst(float x, float y, int count, ParticleSystem.Config config) {
+        ParticleSystem.burstInto(pool, random, config, x, y, count, styleId(config));
+    }
+
+    /**
+     * 批量更新：发射器跟随实体并按频率发射，然后统一积分粒子池
+     */
+    public void update(float deltaTime) {
+        update(deltaTime, null);
+    }
+
+    /**
+     * 同 {@link #update(float)}，粒子积分分块交给任务系统并行执行；
+     * 发射（使用随机数）仍在调用线程上串行进行，因此结果与串行更新一致
+     */
+    public void update(float deltaTime, JobSystem jobs) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            ParticleEmitterComponent emitter = emitters[slot];
+            if (emitter == null) continue;
+            GameObject owner = emitter.getOwner();
+            if (owner == null || !owner.isActive()) {
+                release(emitter);
+                continue;
+            }
+            if (!emitter.isEnabled()) continue;
+            followOwner(slot);
+            ParticleSystem.Config config = styles.get(emitterStyle[slot]);
+            sinceSpawn[slot] += deltaTime;
+            if (sinceSpawn[slot] >= config.spawnRate) {
+                ParticleSystem.spawnInto(pool, random, config, emitterX[slot], emitterY[slot], emitterStyle[slot]);
+                sinceSpawn[slot] = 0f;
+            }
+        }
+        pool.update(deltaTime, jobs);
+    }
+
+    /**
+     * 一次遍历收集池中所有可见粒子，作为一批矩形提交
+     */
+    public void render() {
+        if (renderer == null) return;
+        render(0, 0, renderer.getWidth(), renderer.getHeight());
+    }
+
+    /**
+     * 只绘制与世界空间矩形 [minX, maxX] x [minY, maxY] 相交的粒子
+     */
+    public void render(float minX, float minY, float maxX, float maxY) {
+        if (renderer == null) return;
+        instances.clear();
+        ParticleSystem.appendParticles(instances, pool, null, styles, minX, minY, maxX, maxY);
+        if (!instances.isEmpty()) {
+            renderer.drawRects(instances.getData(), instances.size());
+        }
+    }
+
+    public void clear() {
+        pool.clear();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (emitters[slot] != null) {
+                release(emitters[slot]);
+            }
+        }
+    }
+
+    public int getParticleCount() {
+        return pool.size();
+    }
+
+    public int getEmitterCount() {
+        return liveCount;
+    }
+
+    public ParticlePool getPool() {
+        return pool;
+    }
+
+    private void followOwner(int slot) {
+        GameObject owner = emitters[slot].getOwner();
+        TransformComponent transform = owner != null ? owner.getComponent(TransformComponent.class) : null;
+        if (transform != null) {
+            emitterX[slot] = transform.getX();
+            emitterY[slot] = transform.getY();
+        }
+    }
+
+    private int styleId(ParticleSystem.Config config) {
+        Integer id = styleIds.get(config);
+        if (id == null) {
+            id = styles.size();
+            styles.add(config);
+            styleIds.put(config, id);
+        }
+        return id;
+    }
+
+    private int nextSlot() {
+        if (slotCount == emitters.length) {
+            int n = slotCount * 2;
+            emitters = Arrays.copyOf(emitters, n);
+            emitterStyle = Arrays.copyOf(emitterStyle, n);
+            emitterX = Arrays.copyOf(emitterX, n);
+            emitterY = Arrays.copyOf(emitterY, n);
+            sinceSpawn = Arrays.copyOf(sinceSpawn, n);
+        }
+        return slotCount++;
+    }
+}
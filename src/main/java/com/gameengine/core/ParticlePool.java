@@ -0,0 +1,246 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+
+/**
+ * 定容量的粒子存储：每个属性一列基本类型数组，存活粒子始终紧凑地排在 [0, size) 中。
+ * 粒子死亡时用末尾粒子覆盖它的位置（swap-remove），移除是 O(1)，不保持生成顺序。
+ * 生成、更新和遍历都不产生对象分配；容量用满时按 {@link OverflowPolicy} 处理。
+ */
+public class ParticlePool {
+    /**
+     * 容量用满时新粒子的处理方式
+     */
+    public enum OverflowPolicy {
+        // 丢弃新粒子
+        DROP_NEW,
+        // 按轮转游标覆盖一个已有粒子，不产生分配
+        REPLACE_EXISTING,
+        // 容量翻倍（只在溢出时分配）
+        GROW
+    }
+
+    // 每帧速度衰减系数
+    public static final float DAMPING = 0.98f;
+    // 并行积分时每个任务块至少处理的粒子数
+    private static final int PARALLEL_GRAIN = 2048;
+
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private float[] life;
+    private float[] maxLife;
+    private float[] size;
+    private float[] r;
+    private float[] g;
+    private float[] b;
+    // 使用方自定义的标记（如样式编号），池本身不解释
+    private int[] tag;
+    private int count;
+    private int capacity;
+    private OverflowPolicy overflowPolicy;
+    private int replaceCursor;
+    private long dropped;
+
+    public ParticlePool(int capacity, OverflowPolicy overflowPolicy) {
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.DROP_NEW;
+        allocate(this.capacity);
+    }
+
+    private void allocate(int n) {
+        x = new float[n];
+        y = new float[n];
+        vx = new float[n];
+        vy = new float[n];
+        life = new float[n];
+        maxLife = new float[n];
+        size = new float[n];
+        r = new float[n];
+        g = new float[n];
+        b = new float[n];
+        tag = new int[n];
+    }
+
+    private void grow() {
+        int n = capacity * 2;
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        vx = Arrays.copyOf(vx, n);
+        vy = Arrays.copyOf(vy, n);
+        life = Arrays.copyOf(life, n);
+        maxLife = Arrays.copyOf(maxLife, n);
+        size = Arrays.copyOf(size, n);
+        r = Arrays.copyOf(r, n);
+        g = Arrays.copyOf(g, n);
+        b = Arrays.copyOf(b, n);
+        tag = Arrays.copyOf(tag, n);
+        capacity = n;
+    }
+
+    /**
+     * 添加一个粒子，返回其下标；按溢出策略被丢弃时返回 -1
+     */
+    public int spawn(float px, float py, float pvx, float pvy, float lifetime, float psize,
+                     float pr, float pg, float pb) {
+        return spawn(px, py, pvx, pvy, lifetime, psize, pr, pg, pb, 0);
+    }
+
+    /**
+     * 添加一个带标记的粒子，返回其下标；按溢出策略被丢弃时返回 -1
+     */
+    public int spawn(float px, float py, float pvx, float pvy, float lifetime, float psize,
+                     float pr, float pg, float pb, int ptag) {
+        int i;
+        if (count < capacity) {
+            i = count++;
+        } else if (overflowPolicy == OverflowPolicy.GROW) {
+            grow();
+            i = count++;
+        } else if (overflowPolicy == OverflowPolicy.REPLACE_EXISTING) {
+            i = replaceCursor;
+            replaceCursor = (replaceCursor + 1) % capacity;
+        } else {
+            dropped++;
+            return -1;
+        }
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        life[i] = lifetime;
+        maxLife[i] = lifetime;
+        size[i] = psize;
+        r[i] = pr;
+        g[i] = pg;
+        b[i] = pb;
+        tag[i] = ptag;
+        return i;
+    }
+
+    /**
+     * 积分所有粒子并就地移除死亡粒子
+     */
+    public void update(float deltaTime) {
+        int i = 0;
+        while (i < count) {
+            if (step(i, deltaTime)) {
+                i++;
+            } else {
+                // 末尾粒子换到当前位置，它还没更新，留在原下标继续处理
+                removeAt(i);
+            }
+        }
+    }
+
+    /**
+     * 并行版本：先把积分分块交给任务系统（各粒子互不依赖），再串行按寿命做 swap-remove 压缩。
+     * 压缩时的移动顺序与 {@link #update(float)} 完全相同，结果逐位一致。
+     */
+    public void update(float deltaTime, JobSystem jobs) {
+        int n = count;
+        if (jobs == null || n <= PARALLEL_GRAIN) {
+            update(deltaTime);
+            return;
+        }
+        jobs.parallelFor(0, n, PARALLEL_GRAIN, (start, end) -> {
+            for (int i = start; i < end; i++) {
+                step(i, deltaTime);
+            }
+        });
+        int i = 0;
+        while (i < count) {
+            if (life[i] > 0) {
+                i++;
+            } else {
+                removeAt(i);
+            }
+        }
+    }
+
+    // 单个粒子前进一步，返回是否仍存活
+    private boolean step(int i, float deltaTime) {
+        x[i] += vx[i] * deltaTime;
+        y[i] += vy[i] * deltaTime;
+        float remaining = life[i] - deltaTime;
+        life[i] = remaining;
+        if (remaining > 0) {
+            vx[i] *= DAMPING;
+            vy[i] *= DAMPING;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * O(1) 移除：末尾粒子移到 index 处
+     */
+    public void removeAt(int index) {
+        int last = --count;
+        if (index != last) {
+            x[index] = x[last];
+            y[index] = y[last];
+            vx[index] = vx[last];
+            vy[index] = vy[last];
+            life[index] = life[last];
+            maxLife[index] = maxLife[last];
+            size[index] = size[last];
+            r[index] = r[last];
+            g[index] = g[last];
+            b[index] = b[last];
+            tag[index] = tag[last];
+        }
+        if (replaceCursor >= count) {
+            replaceCursor = 0;
+        }
+    }
+
+    public void clear() {
+        count = 0;
+        replaceCursor = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy != null) {
+            this.overflowPolicy = overflowPolicy;
+        }
+    }
+
+    /**
+     * 因容量不足被丢弃的粒子总数
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    public float getX(int i) { return x[i]; }
+    public float getY(int i) { return y[i]; }
+    public float getVelocityX(int i) { return vx[i]; }
+    public float getVelocityY(int i) { return vy[i]; }
+    public float getLife(int i) { return life[i]; }
+    public float getSize(int i) { return size[i]; }
+    public float getR(int i) { return r[i]; }
+    public float getG(int i) { return g[i]; }
+    public float getB(int i) { return b[i]; }
+    public int getTag(int i) { return tag[i]; }
+
+    /**
+     * 不透明度：剩余寿命占总寿命的比例
+     */
+    public float getAlpha(int i) {
+        return life[i] / maxLife[i];
+    }
+}
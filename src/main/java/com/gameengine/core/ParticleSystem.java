@@ -1,14 +1,15 @@
 package com.gameengine.core;
 
 import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.InstanceBuffer;
 import com.gameengine.math.Vector2;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Iterator;
 import java.util.Random;
 
 public class ParticleSystem {
-    private List<Particle> particles;
+    private final ParticlePool pool;
+    // 每帧渲染时复用的矩形实例缓冲
+    private final InstanceBuffer instances = new InstanceBuffer();
     private Random random;
     private IRenderer renderer;
     private float spawnRate;
@@ -18,65 +19,6 @@ public class ParticleSystem {
     
     private Config config;
     
-    private static class Particle {
-        private Vector2 position;
-        private Vector2 velocity;
-        private float life;
-        private float maxLife;
-        private float size;
-        private float r, g, b, a;
-        
-        public Particle(Vector2 position, Vector2 velocity, float life, float size, float r, float g, float b) {
-            this.position = new Vector2(position);
-            this.velocity = new Vector2(velocity);
-            this.maxLife = life;
-            this.life = life;
-            this.size = size;
-            this.r = r;
-            this.g = g;
-            this.b = b;
-            this.a = 1.0f;
-        }
-        
-        public void update(float deltaTime) {
-            position = position.add(velocity.multiply(deltaTime));
-            life -= deltaTime;
-            
-            if (life > 0) {
-                a = life / maxLife;
-                velocity = velocity.multiply(0.98f);
-            }
-        }
-        
-        public boolean isAlive() {
-            return life > 0;
-        }
-        
-        public Vector2 getPosition() {
-            return new Vector2(position);
-        }
-        
-        public float getSize() {
-            return size;
-        }
-        
-        public float getR() {
-            return r;
-        }
-        
-        public float getG() {
-            return g;
-        }
-        
-        public float getB() {
-            return b;
-        }
-        
-        public float getA() {
-            return a;
-        }
-    }
-    
     public static class Config {
         public float spawnRate = 0.015f;
         public int initialCount = 30;
@@ -103,6 +45,10 @@ public class ParticleSystem {
         public float burstGMax = 1.0f;
         public float burstB = 0.0f;
         
+        // 粒子池容量及容量用满时的处理方式
+        public int capacity = 512;
+        public ParticlePool.OverflowPolicy overflowPolicy = ParticlePool.OverflowPolicy.DROP_NEW;
+        
         public static Config defaultPlayer() {
             Config config = new Config();
             config.spawnRate = 0.015f;
@@ -145,7 +91,7 @@ public class ParticleSystem {
     }
     
     public ParticleSystem(IRenderer renderer, Vector2 position, Config config) {
-        this.particles = new ArrayList<>();
+        this.pool = new ParticlePool(config.capacity, config.overflowPolicy);
         this.random = new Random();
         this.renderer = renderer;
         this.position = new Vector2(position);
@@ -165,11 +111,18 @@ public class ParticleSystem {
     
     public void setPosition(Vector2 position) {
         if (position != null) {
-            this.position = new Vector2(position);
+            this.position.set(position);
         }
     }
     
     public void update(float deltaTime) {
+        update(deltaTime, null);
+    }
+    
+    /**
+     * 同 {@link #update(float)}，大量粒子时积分交给任务系统并行执行
+     */
+    public void update(float deltaTime, JobSystem jobs) {
         if (active) {
             timeSinceLastSpawn += deltaTime;
             if (timeSinceLastSpawn >= spawnRate) {
@@ -178,25 +131,22 @@ public class ParticleSystem {
             }
         }
         
-        Iterator<Particle> iterator = particles.iterator();
-        while (iterator.hasNext()) {
-            Particle particle = iterator.next();
-            particle.update(deltaTime);
-            if (!particle.isAlive()) {
-                iterator.remove();
-            }
-        }
+        pool.update(deltaTime, jobs);
     }
     
     private void spawnParticle() {
         if (position == null) return;
-        
+        spawnInto(pool, random, config, position.x, position.y, 0);
+    }
+    
+    /**
+     * 按配置在 (x, y) 生成一个常规粒子，供本类和 {@link ParticleManager} 共用
+     */
+    static void spawnInto(ParticlePool pool, Random random, Config config, float x, float y, int tag) {
         float angle = (float) (random.nextFloat() * 2.0 * Math.PI);
         float speed = config.speedMin + random.nextFloat() * (config.speedMax - config.speedMin);
-        Vector2 velocity = new Vector2(
-            (float) (Math.cos(angle) * speed),
-            (float) (Math.sin(angle) * speed)
-        );
+        float vx = (float) (Math.cos(angle) * speed);
+        float vy = (float) (Math.sin(angle) * speed);
         
         float life = config.lifeMin + random.nextFloat() * (config.lifeMax - config.lifeMin);
         float size = config.sizeMin + random.nextFloat() * (config.sizeMax - config.sizeMin);
@@ -212,8 +162,7 @@ public class ParticleSystem {
             g = config.g + random.nextFloat() * 0.2f;
         }
         
-        Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
-        particles.add(particle);
+        pool.spawn(x, y, vx, vy, life, size, r, g, b, tag);
     }
     
     public void setSpawnRate(float rate) {
@@ -222,40 +171,60 @@ public class ParticleSystem {
     
     public void render() {
         if (renderer == null) return;
+        render(0, 0, renderer.getWidth(), renderer.getHeight());
+    }
+    
+    /**
+     * 只绘制与世界空间矩形 [minX, maxX] x [minY, maxY] 相交的粒子
+     */
+    public void render(float minX, float minY, float maxX, float maxY) {
+        if (renderer == null) return;
         
-        for (Particle particle : particles) {
-            Vector2 pos = particle.getPosition();
-            float size = particle.getSize();
+        instances.clear();
+        appendParticles(instances, pool, config, null, minX, minY, maxX, maxY);
+        if (!instances.isEmpty()) {
+            renderer.drawRects(instances.getData(), instances.size());
+        }
+    }
+    
+    /**
+     * 把池中可见的粒子追加为矩形实例；styles 非空时按粒子 tag 取配置，否则都用 config。
+     * 先用位置和最大绘制尺寸与视口求交，视口外的粒子不计算颜色；几乎透明的粒子也跳过。
+     */
+    static void appendParticles(InstanceBuffer out, ParticlePool pool, Config config, List<Config> styles,
+                                float minX, float minY, float maxX, float maxY) {
+        for (int i = 0, n = pool.size(); i < n; i++) {
+            Config style = styles != null ? styles.get(pool.getTag(i)) : config;
+            float x = pool.getX(i);
+            float y = pool.getY(i);
+            // 绘制尺寸 max(minRenderSize, size * a) 不超过 max(minRenderSize, size)
+            float half = Math.max(style.minRenderSize, pool.getSize(i)) * 0.5f;
+            if (x + half < minX || x - half > maxX || y + half < minY || y - half > maxY) continue;
             
-            float r = Math.min(1.0f, Math.max(0.0f, particle.getR()));
-            float g = Math.min(1.0f, Math.max(0.0f, particle.getG()));
-            float b = Math.min(1.0f, Math.max(0.0f, particle.getB()));
-            float a = Math.min(1.0f, Math.max(0.0f, particle.getA())) * config.opacityMultiplier;
+            float a = Math.min(1.0f, Math.max(0.0f, pool.getAlpha(i))) * style.opacityMultiplier;
+            if (a <= 0.01f) continue;
             
-            float maxW = renderer != null ? renderer.getWidth() : 1920;
-            float maxH = renderer != null ? renderer.getHeight() : 1080;
-            if (a > 0.01f && pos.x >= -50 && pos.x <= maxW + 50 && pos.y >= -50 && pos.y <= maxH + 50) {
-                float renderSize = Math.max(config.minRenderSize, size * a);
-                try {
-                    renderer.drawRect(
-                        pos.x - renderSize * 0.5f, pos.y - renderSize * 0.5f, 
-                        renderSize, renderSize,
-                        r, g, b, a
-                    );
-                } catch (Exception e) {
-                }
-            }
+            float r = Math.min(1.0f, Math.max(0.0f, pool.getR(i)));
+            float g = Math.min(1.0f, Math.max(0.0f, pool.getG(i)));
+            float b = Math.min(1.0f, Math.max(0.0f, pool.getB(i)));
+            float renderSize = Math.max(style.minRenderSize, pool.getSize(i) * a);
+            out.add(x - renderSize * 0.5f, y - renderSize * 0.5f, renderSize, renderSize, r, g, b, a);
         }
     }
     
     public void burst(int count) {
+        burstInto(pool, random, config, position.x, position.y, count, 0);
+    }
+    
+    /**
+     * 按配置的爆发参数在 (x, y) 一次生成 count 个粒子
+     */
+    static void burstInto(ParticlePool pool, Random random, Config config, float x, float y, int count, int tag) {
         for (int i = 0; i < count; i++) {
             float angle = (float) (random.nextFloat() * 2.0 * Math.PI);
             float speed = config.burstSpeedMin + random.nextFloat() * (config.burstSpeedMax - config.burstSpeedMin);
-            Vector2 velocity = new Vector2(
-                (float) (Math.cos(angle) * speed),
-                (float) (Math.sin(angle) * speed)
-            );
+            float vx = (float) (Math.cos(angle) * speed);
+            float vy = (float) (Math.sin(angle) * speed);
             
             float life = config.burstLifeMin + random.nextFloat() * (config.burstLifeMax - config.burstLifeMin);
             float size = config.burstSizeMin + random.nextFloat() * (config.burstSizeMax - config.burstSizeMin);
@@ -264,16 +233,15 @@ public class ParticleSystem {
             float g = config.burstGMin + random.nextFloat() * (config.burstGMax - config.burstGMin);
             float b = config.burstB;
             
-            Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
-            particles.add(particle);
+            pool.spawn(x, y, vx, vy, life, size, r, g, b, tag);
         }
     }
     
     public int getParticleCount() {
-        return particles.size();
+        return pool.size();
     }
     
     public void clear() {
-        particles.clear();
+        pool.clear();
     }
 }
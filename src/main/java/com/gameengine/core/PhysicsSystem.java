@@ -1,20 +1,18 @@
 package com.gameengine.core;
 
+import com.gameengine.components.BodyStore;
 import com.gameengine.components.TransformComponent;
 import com.gameengine.components.PhysicsComponent;
-import com.gameengine.math.Vector2;
+import com.gameengine.scene.EntityQuery;
 import com.gameengine.scene.Scene;
 
-import java.util.List;
-import java.util.ArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-
 public class PhysicsSystem {
+    // 每个任务块至少处理的刚体数
+    private static final int BODY_GRAIN = 256;
+    private static final int ROW_GRAIN = 4096;
+
     private Scene scene;
-    private ExecutorService physicsExecutor;
+    private final EntityQuery bodies;
     private int screenWidth;
     private int screenHeight;
     
@@ -22,47 +20,64 @@ public class PhysicsSystem {
         this(scene, 1920, 1080);
     }
     
+    /**
+     * 并行任务交给场景所挂引擎的共享任务系统（{@link Scene#getJobSystem()}）
+     */
     public PhysicsSystem(Scene scene, int screenWidth, int screenHeight) {
         this.scene = scene;
+        this.bodies = scene.query(PhysicsComponent.class);
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
-        int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
-        this.physicsExecutor = Executors.newFixedThreadPool(threadCount);
     }
     
     public void update(float deltaTime) {
-        List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
-        if (physicsComponents.isEmpty()) return;
-        
-        int threadCount = Runtime.getRuntime().availableProcessors() - 1;
-        threadCount = Math.max(2, threadCount);
-        int batchSize = Math.max(1, physicsComponents.size() / threadCount + 1);
+        BodyStore store = scene.getBodyStore();
+        if (store != null) {
+            updateStore(store, deltaTime);
+            return;
+        }
         
-        List<Future<?>> futures = new ArrayList<>();
+        int total = bodies.size();
+        if (total == 0) return;
         
-        for (int i = 0; i < physicsComponents.size(); i += batchSize) {
-            final int start = i;
-            final int end = Math.min(i + batchSize, physicsComponents.size());
-            
-            Future<?> future = physicsExecutor.submit(() -> {
-                for (int j = start; j < end; j++) {
-                    PhysicsComponent physics = physicsComponents.get(j);
-                    if (physics.isEnabled()) {
-                        updatePhysics(physics, deltaTime);
-                        handleBoundary(physics);
-                    }
+        scene.getJobSystem().parallelFor(0, total, BODY_GRAIN, (start, end) -> {
+            for (int j = start; j < end; j++) {
+                PhysicsComponent physics = bodies.get(j).getComponent(PhysicsComponent.class);
+                if (physics != null && physics.isEnabled()) {
+                    updatePhysics(physics, deltaTime);
+                    handleBoundary(physics);
                 }
-            });
-            
-            futures.add(future);
-        }
-        
-        for (Future<?> future : futures) {
-            try {
-                future.get();
-            } catch (Exception e) {
-                e.printStackTrace();
             }
+        });
+    }
+    
+    /**
+     * SoA 路径：按行区间分块，直接在连续数组上积分并处理边界
+     */
+    private void updateStore(BodyStore store, float deltaTime) {
+        int total = store.size();
+        if (total == 0) return;
+        
+        scene.getJobSystem().parallelFor(0, total, ROW_GRAIN, (start, end) -> {
+            store.integrate(start, end, deltaTime);
+            handleBoundary(store, start, end);
+        });
+    }
+    
+    private void handleBoundary(BodyStore store, int start, int end) {
+        float maxX = screenWidth - 15;
+        float maxY = screenHeight - 15;
+        for (int row = start; row < end; row++) {
+            if (!store.isEnabled(row)) continue;
+            float posX = store.getX(row);
+            float posY = store.getY(row);
+            if (posX <= 0 || posX >= maxX) {
+                store.setVelocity(row, -store.getVelocityX(row), store.getVelocityY(row));
+            }
+            if (posY <= 0 || posY >= maxY) {
+                store.setVelocity(row, store.getVelocityX(row), -store.getVelocityY(row));
+            }
+            store.setPosition(row, Math.max(0, Math.min(maxX, posX)), Math.max(0, Math.min(maxY, posY)));
         }
     }
     
@@ -73,22 +88,22 @@ public class PhysicsSystem {
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform == null) return;
         
-        Vector2 acceleration = physics.getAcceleration();
-        
+        // 整个积分只用标量，不产生临时向量
+        float accX = physics.getAccelerationX();
+        float accY = physics.getAccelerationY();
         if (physics.isUseGravity()) {
-            acceleration = acceleration.add(physics.getGravity());
-            physics.setAcceleration(acceleration);
+            accX += physics.getGravityX();
+            accY += physics.getGravityY();
         }
         
-        Vector2 velocity = physics.getVelocity();
-        velocity = velocity.add(acceleration.multiply(deltaTime));
-        velocity = velocity.multiply(physics.getFriction());
-        physics.setVelocity(velocity);
+        float friction = physics.getFriction();
+        float velX = (physics.getVelocityX() + accX * deltaTime) * friction;
+        float velY = (physics.getVelocityY() + accY * deltaTime) * friction;
+        physics.setVelocity(velX, velY);
         
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
+        transform.translate(velX * deltaTime, velY * deltaTime);
         
-        physics.setAcceleration(new Vector2());
+        physics.clearAcceleration();
     }
     
     private void handleBoundary(PhysicsComponent physics) {
@@ -98,14 +113,11 @@ public class PhysicsSystem {
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform == null) return;
         
-        Vector2 pos = transform.getPosition();
-        Vector2 velocity = physics.getVelocity();
-        
+        float posX = transform.getX();
+        float posY = transform.getY();
+        float velX = physics.getVelocityX();
+        float velY = physics.getVelocityY();
         boolean velocityChanged = false;
-        float velX = velocity.x;
-        float velY = velocity.y;
-        float posX = pos.x;
-        float posY = pos.y;
         
         if (posX <= 0 || posX >= screenWidth - 15) {
             velX = -velX;
@@ -121,25 +133,16 @@ public class PhysicsSystem {
         if (posX > screenWidth - 15) posX = screenWidth - 15;
         if (posY > screenHeight - 15) posY = screenHeight - 15;
         
-        transform.setPosition(new Vector2(posX, posY));
+        transform.setPosition(posX, posY);
         
         if (velocityChanged) {
-            physics.setVelocity(new Vector2(velX, velY));
+            physics.setVelocity(velX, velY);
         }
     }
     
+    /**
+     * 线程由 GameEngine 的共享任务系统持有，这里没有需要释放的资源
+     */
     public void cleanup() {
-        if (physicsExecutor != null && !physicsExecutor.isShutdown()) {
-            physicsExecutor.shutdown();
-            try {
-                if (!physicsExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
-                    physicsExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                physicsExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
     }
 }
-
@@ -0,0 +1,120 @@
+package com.gameengine.core;
+
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.RenderCommandBuffer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 独立渲染线程：持有后端的渲染上下文，回放游戏线程录好的命令缓冲并呈现（含垂直同步等待），
+ * 游戏线程因此可以在 GPU 提交第 N 帧时模拟第 N+1 帧。
+ *
+ * 游戏线程始终往同一个前台缓冲录制，{@link #submit} 取一个空闲的后台缓冲与它交换内容后排队，
+ * 不复制命令。队列深度是渲染线程最多落后的帧数：1 即双缓冲，加大可吸收抖动但增加输入延迟。
+ * 窗口事件（以及经 GLFW 回调写入 InputManager 的输入）仍在游戏线程的 pollEvents 中处理，
+ * 输入状态不跨线程共享。
+ */
+public class RenderThread {
+    private static final long POLL_MILLIS = 50;
+
+    private final IRenderer backend;
+    private final BlockingQueue<RenderCommandBuffer> free;
+    private final BlockingQueue<RenderCommandBuffer> ready;
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private volatile long framesPresented;
+
+    public RenderThread(IRenderer backend, int queueDepth) {
+        int depth = Math.max(1, queueDepth);
+        this.backend = backend;
+        this.free = new ArrayBlockingQueue<>(depth);
+        this.ready = new ArrayBlockingQueue<>(depth);
+        for (int i = 0; i < depth; i++) {
+            free.add(RenderCommandBuffer.of(backend));
+        }
+        this.thread = new Thread(this::loop, "render");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 从调用线程释放渲染上下文并启动渲染线程
+     */
+    public void start() {
+        backend.releaseCurrent();
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * 把前台缓冲中录好的一帧交给渲染线程；队列已满时等待渲染线程空出一个缓冲。
+     * 返回后前台缓冲的内容是一个旧帧，调用方应在录制下一帧前 beginFrame 清空。
+     */
+    public void submit(RenderCommandBuffer front) throws InterruptedException {
+        RenderCommandBuffer back;
+        while ((back = free.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+            checkAlive();
+        }
+        front.swapContents(back);
+        ready.put(back);
+    }
+
+    private void checkAlive() {
+        if (!thread.isAlive()) {
+            throw new IllegalStateException("渲染线程已退出", failure);
+        }
+    }
+
+    private void loop() {
+        try {
+            backend.makeCurrent();
+            while (running) {
+                RenderCommandBuffer frame = ready.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (frame == null) continue;
+                backend.beginFrame();
+                frame.execute(backend);
+                backend.endFrame();
+                framesPresented++;
+                free.put(frame);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            failure = t;
+            System.err.println("渲染线程异常: " + t);
+            t.printStackTrace();
+        } finally {
+            backend.releaseCurrent();
+        }
+    }
+
+    /**
+     * 停止渲染线程（丢弃尚未呈现的帧），等它释放上下文后由调用线程重新持有
+     */
+    public void stop() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        backend.makeCurrent();
+    }
+
+    public boolean isAlive() {
+        return thread.isAlive();
+    }
+
+    /**
+     * 渲染线程上的异常，正常运行时为 null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public long getFramesPresented() {
+        return framesPresented;
+    }
+}
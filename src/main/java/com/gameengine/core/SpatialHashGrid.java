@@ -0,0 +1,245 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+
+/**
+ * 均匀网格空间哈希，用作碰撞宽相位与邻域查询。
+ * 每帧 clear → add（登记轴对齐包围盒）→ build（计数排序成按哈希桶连续存放的记录）后，
+ * 可以枚举候选对（{@link #findPairs()}）或做区域查询（{@link #query}）。
+ * 一个条目覆盖多个格子时，只在两者格子范围重叠区的最小角格子里报告，保证每对/每个结果只出现一次。
+ * build 之后的查询只读内部数组，可被多个线程同时调用。
+ */
+public class SpatialHashGrid {
+    private float cellSize;
+    private float invCellSize;
+
+    // 条目包围盒及其覆盖的格子范围
+    private int count;
+    private float[] minX = new float[64];
+    private float[] minY = new float[64];
+    private float[] maxX = new float[64];
+    private float[] maxY = new float[64];
+    private int[] cellMinX = new int[64];
+    private int[] cellMinY = new int[64];
+    private int[] cellMaxX = new int[64];
+    private int[] cellMaxY = new int[64];
+
+    // 按桶排序后的 (条目, 格子坐标) 记录；bucketStart[b]..bucketStart[b+1] 为桶 b 的记录
+    private int bucketMask;
+    private int[] bucketStart = new int[1];
+    private int recordCount;
+    private int[] recordEntry = new int[64];
+    private int[] recordCellX = new int[64];
+    private int[] recordCellY = new int[64];
+
+    // 候选对，编码为 (a << 32) | b，a < b
+    private long[] pairs = new long[64];
+    private int pairCount;
+
+    public SpatialHashGrid(float cellSize) {
+        setCellSize(cellSize);
+    }
+
+    /**
+     * 设置格子边长（下一次 build 生效），通常取对象典型尺寸的 1~2 倍
+     */
+    public void setCellSize(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize 必须为正数: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.invCellSize = 1f / cellSize;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * 清空全部条目（保留已分配的数组）
+     */
+    public void clear() {
+        count = 0;
+        recordCount = 0;
+        pairCount = 0;
+        bucketMask = 0;
+        bucketStart[0] = 0;
+    }
+
+    /**
+     * 登记一个包围盒，返回条目编号（按登记顺序从 0 递增）
+     */
+    public int add(float x0, float y0, float x1, float y1) {
+        if (count == minX.length) {
+            int capacity = count * 2;
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            cellMinX = Arrays.copyOf(cellMinX, capacity);
+            cellMinY = Arrays.copyOf(cellMinY, capacity);
+            cellMaxX = Arrays.copyOf(cellMaxX, capacity);
+            cellMaxY = Arrays.copyOf(cellMaxY, capacity);
+        }
+        int id = count++;
+        minX[id] = Math.min(x0, x1);
+        minY[id] = Math.min(y0, y1);
+        maxX[id] = Math.max(x0, x1);
+        maxY[id] = Math.max(y0, y1);
+        cellMinX[id] = cellOf(minX[id]);
+        cellMinY[id] = cellOf(minY[id]);
+        cellMaxX[id] = cellOf(maxX[id]);
+        cellMaxY[id] = cellOf(maxY[id]);
+        return id;
+    }
+
+    /**
+     * 条目数量
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 把条目按格子哈希做计数排序，之后才能查询
+     */
+    public void build() {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += (cellMaxX[i] - cellMinX[i] + 1) * (cellMaxY[i] - cellMinY[i] + 1);
+        }
+        int buckets = Integer.highestOneBit(Math.max(16, total) * 2 - 1);
+        bucketMask = buckets - 1;
+        if (bucketStart.length < buckets + 1) {
+            bucketStart = new int[buckets + 1];
+        } else {
+            Arrays.fill(bucketStart, 0, buckets + 1, 0);
+        }
+        if (recordEntry.length < total) {
+            int capacity = Math.max(total, recordEntry.length * 2);
+            recordEntry = new int[capacity];
+            recordCellX = new int[capacity];
+            recordCellY = new int[capacity];
+        }
+
+        // 计数
+        for (int i = 0; i < count; i++) {
+            for (int cy = cellMinY[i]; cy <= cellMaxY[i]; cy++) {
+                for (int cx = cellMinX[i]; cx <= cellMaxX[i]; cx++) {
+                    bucketStart[bucketOf(cx, cy) + 1]++;
+                }
+            }
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        // 填充：借用 bucketStart[b] 作为写指针，结束后它前移到下一个桶的起点，再整体右移恢复
+        for (int i = 0; i < count; i++) {
+            for (int cy = cellMinY[i]; cy <= cellMaxY[i]; cy++) {
+                for (int cx = cellMinX[i]; cx <= cellMaxX[i]; cx++) {
+                    int slot = bucketStart[bucketOf(cx, cy)]++;
+                    recordEntry[slot] = i;
+                    recordCellX[slot] = cx;
+                    recordCellY[slot] = cy;
+                }
+            }
+        }
+        System.arraycopy(bucketStart, 0, bucketStart, 1, buckets);
+        bucketStart[0] = 0;
+        recordCount = total;
+    }
+
+    /**
+     * 枚举包围盒相交（含边界接触）的全部条目对，按 (a, b) 升序排列，a &lt; b
+     * @return 候选对数量，用 {@link #getPairA}/{@link #getPairB} 读取
+     */
+    public int findPairs() {
+        pairCount = 0;
+        int buckets = bucketMask + 1;
+        for (int b = 0; b < buckets; b++) {
+            int start = bucketStart[b];
+            int end = bucketStart[b + 1];
+            for (int i = start; i < end; i++) {
+                int a = recordEntry[i];
+                int cx = recordCellX[i];
+                int cy = recordCellY[i];
+                for (int j = i + 1; j < end; j++) {
+                    if (recordCellX[j] != cx || recordCellY[j] != cy) continue;
+                    int c = recordEntry[j];
+                    // 只在两者格子范围重叠区的最小角报告
+                    if (cx != Math.max(cellMinX[a], cellMinX[c]) || cy != Math.max(cellMinY[a], cellMinY[c])) continue;
+                    if (!overlaps(a, minX[c], minY[c], maxX[c], maxY[c])) continue;
+                    addPair(Math.min(a, c), Math.max(a, c));
+                }
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+        return pairCount;
+    }
+
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    public int getPairA(int index) {
+        return (int) (pairs[index] >>> 32);
+    }
+
+    public int getPairB(int index) {
+        return (int) pairs[index];
+    }
+
+    /**
+     * 查询与给定区域相交（含边界接触）的条目，结果写入 out（顺序不保证）
+     * @return 命中总数；若大于 out.length，只写入了前 out.length 个，调用方可扩容后重查
+     */
+    public int query(float x0, float y0, float x1, float y1, int[] out) {
+        if (count == 0) return 0;
+        int qMinX = cellOf(x0);
+        int qMinY = cellOf(y0);
+        int qMaxX = cellOf(x1);
+        int qMaxY = cellOf(y1);
+        int found = 0;
+        for (int cy = qMinY; cy <= qMaxY; cy++) {
+            for (int cx = qMinX; cx <= qMaxX; cx++) {
+                int b = bucketOf(cx, cy);
+                for (int r = bucketStart[b], end = bucketStart[b + 1]; r < end; r++) {
+                    if (recordCellX[r] != cx || recordCellY[r] != cy) continue;
+                    int e = recordEntry[r];
+                    if (cx != Math.max(cellMinX[e], qMinX) || cy != Math.max(cellMinY[e], qMinY)) continue;
+                    if (!overlaps(e, x0, y0, x1, y1)) continue;
+                    if (found < out.length) {
+                        out[found] = e;
+                    }
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    public float getMinX(int entry) { return minX[entry]; }
+    public float getMinY(int entry) { return minY[entry]; }
+    public float getMaxX(int entry) { return maxX[entry]; }
+    public float getMaxY(int entry) { return maxY[entry]; }
+
+    private boolean overlaps(int e, float x0, float y0, float x1, float y1) {
+        return minX[e] <= x1 && maxX[e] >= x0 && minY[e] <= y1 && maxY[e] >= y0;
+    }
+
+    private void addPair(int a, int b) {
+        if (pairCount == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairCount * 2);
+        }
+        pairs[pairCount++] = ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    private int cellOf(float v) {
+        return (int) Math.floor(v * invCellSize);
+    }
+
+    private int bucketOf(int cx, int cy) {
+        int h = cx * 73856093 ^ cy * 19349663;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+}
@@ -13,6 +13,7 @@ import com.gameengine.input.InputManager;
 import com.gameengine.math.Vector2;
 import com.gameengine.save.SaveIO;
 import com.gameengine.save.SaveState;
+import com.gameengine.scene.EntityQuery;
 import com.gameengine.scene.Scene;
 
 import java.io.File;
@@ -70,6 +71,7 @@ public class Game {
             private Random random;
             private float time;
             private GameLogic gameLogic;
+            private EntityQuery renderables;
             private float fpsAccumulator = 0f;
             private int fpsFrames = 0;
             private String fpsText = "FPS: 0.0";
@@ -98,7 +100,8 @@ public class Game {
                 this.random = new Random(randomSeed);
                 this.time = 0;
                 this.gameLogic = new GameLogic(this);
-                this.gameLogic.setWorldSize(renderer.getWidth(), renderer.getHeight());
+                this.gameLogic.setGameEngine(engine);
+                this.renderables = query(RenderComponent.class);
                 this.waitingReturn = false;
                 this.waitTimer = 0f;
                 this.paused = false;
@@ -116,24 +119,26 @@ public class Game {
 
             @Override
             public void update(float deltaTime) {
-                super.update(deltaTime);
                 InputManager input = engine.getInputManager();
 
                 boolean escPressed = input.isKeyJustPressed(27) || input.isKeyJustPressed(256);
                 if (!waitingReturn && escPressed) {
-                    paused = !paused;
+                    setPaused(!paused);
                     pauseIndex = 0;
                     pauseMessageTimer = 0f;
                     return;
                 }
 
-                if (waitingReturn) {
-                    handleReturnPrompt(deltaTime);
+                // 暂停时世界不推进，画面使用暂停瞬间的冻结帧
+                if (paused) {
+                    handlePauseMenu(deltaTime, input);
                     return;
                 }
 
-                if (paused) {
-                    handlePauseMenu(deltaTime, input);
+                super.update(deltaTime);
+
+                if (waitingReturn) {
+                    handleReturnPrompt(deltaTime);
                     return;
                 }
 
@@ -156,8 +161,11 @@ public class Game {
                 gameLogic.checkCollisions();
                 gameLogic.handleShooting(deltaTime);
 
-                for (RenderComponent rc : getComponents(RenderComponent.class)) {
-                    rc.setRenderer(renderer);
+                for (int i = 0; i < renderables.size(); i++) {
+                    RenderComponent rc = renderables.get(i).getComponent(RenderComponent.class);
+                    if (rc != null) {
+                        rc.setRenderer(renderer);
+                    }
                 }
 
                 if (time > 0.4f) {
@@ -172,17 +180,35 @@ public class Game {
             }
 
             @Override
-            public void render() {
-                int width = renderer.getWidth();
-                int height = renderer.getHeight();
-                renderer.drawRect(0, 0, width, height, 0.1f, 0.1f, 0.2f, 1.0f);
-                super.render();
+            protected void renderBackground(IRenderer target) {
+                target.drawRect(0, 0, target.getWidth(), target.getHeight(), 0.1f, 0.1f, 0.2f, 1.0f);
+            }
+
+            private void setPaused(boolean paused) {
+                this.paused = paused;
+                if (paused) {
+                    freezeFrame();
+                } else {
+                    unfreezeFrame();
+                }
+            }
+
+            @Override
+            protected void renderWorld() {
+                super.renderWorld();
 
                 String hud = String.format("Score: %d", gameLogic.getScore());
                 renderer.drawText(10, 20, hud, 1f, 1f, 1f, 1f);
                 String life = String.format("Lives: %d", gameLogic.getLives());
                 renderer.drawText(10, 40, life, 1f, 1f, 1f, 1f);
-                renderer.drawText(width - 160, 20, fpsText, 1f, 1f, 0.2f, 1f);
+                renderer.drawText(renderer.getWidth() - 160, 20, fpsText, 1f, 1f, 0.2f, 1f);
+            }
+
+            @Override
+            public void render() {
+                int width = renderer.getWidth();
+                int height = renderer.getHeight();
+                super.render();
 
                 if (gameLogic.isGameOver()) {
                     float cx = width / 2f;
@@ -272,7 +298,7 @@ public class Game {
 
             private void executePauseAction() {
                 switch (pauseOptions[pauseIndex]) {
-                    case "RESUME" -> paused = false;
+                    case "RESUME" -> setPaused(false);
                     case "SAVE" -> performManualSave();
                     case "RETURN MENU" -> {
                         MenuScene menu = new MenuScene(engine, "MainMenu");
@@ -412,6 +438,7 @@ public class Game {
                     new RenderComponent.Color(0.5f, 0.5f, 1.0f, 0.8f)
                 ));
                 render.setRenderer(renderer);
+                render.setStatic(true);
 
                 addGameObject(decoration);
             }
@@ -6,6 +6,7 @@ import com.gameengine.components.TransformComponent;
 import com.gameengine.core.GameEngine;
 import com.gameengine.core.GameLogic;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.ParticleManager;
 import com.gameengine.core.ParticleSystem;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.input.InputManager;
@@ -21,9 +22,10 @@ public class GameScene extends Scene {
     private Random random;
     private float time;
     private GameLogic gameLogic;
-    private ParticleSystem playerParticles;
-    private List<ParticleSystem> collisionParticles;
-    private Map<GameObject, ParticleSystem> aiPlayerParticles;
+    // 场景内所有粒子共用一个池，发射器挂在玩家和 AI 实体上
+    private ParticleManager particles;
+    private final ParticleSystem.Config playerParticleConfig = ParticleSystem.Config.defaultPlayer();
+    private final ParticleSystem.Config aiParticleConfig = ParticleSystem.Config.light();
     private boolean waitingReturn;
     private float waitInputTimer;
     private float freezeTimer;
@@ -47,21 +49,21 @@ public class GameScene extends Scene {
         this.waitingReturn = false;
         this.waitInputTimer = 0f;
         this.freezeTimer = 0f;
+        this.particles = new ParticleManager(renderer);
 
         createPlayer();
         createAIPlayers();
         createDecorations();
-
-        collisionParticles = new ArrayList<>();
-        aiPlayerParticles = new HashMap<>();
-
-        playerParticles = new ParticleSystem(renderer, new Vector2(renderer.getWidth() / 2.0f, renderer.getHeight() / 2.0f));
-        playerParticles.setActive(true);
         
     }
 
     @Override
     public void update(float deltaTime) {
+        // 游戏结束画面冻结后世界不再推进，只等待返回菜单的输入
+        if (isFrameFrozen()) {
+            updateFrozen(deltaTime);
+            return;
+        }
         super.update(deltaTime);
         boolean escPressed = inputManager != null && (inputManager.isKeyJustPressed(27) || inputManager.isKeyJustPressed(256));
         if (escPressed) {
@@ -97,9 +99,7 @@ public class GameScene extends Scene {
                     cfg.burstGMin = 0.0f;
                     cfg.burstGMax = 0.05f;
                     cfg.burstB = 0.0f;
-                    ParticleSystem explosion = new ParticleSystem(renderer, transform.getPosition(), cfg);
-                    explosion.burst(180);
-                    collisionParticles.add(explosion);
+                    particles.burst(transform.getX(), transform.getY(), 180, cfg);
                     waitingReturn = true;
                     waitInputTimer = 0f;
                     freezeTimer = 0f;
@@ -112,6 +112,9 @@ public class GameScene extends Scene {
         if (waitingReturn) {
             waitInputTimer += deltaTime;
             freezeTimer += deltaTime;
+            if (freezeTimer >= freezeDelay) {
+                freezeFrame();
+            }
         }
 
         if (waitingReturn && waitInputTimer >= inputCooldown && (engine.getInputManager().isAnyKeyJustPressed() || engine.getInputManager().isMouseButtonJustPressed(0))) {
@@ -125,73 +128,37 @@ public class GameScene extends Scene {
         }
     }
 
-    private void updateParticles(float deltaTime) {
-        boolean freeze = waitingReturn && freezeTimer >= freezeDelay;
-
-        if (playerParticles != null && !freeze) {
-            GameObject player = gameLogic.getUserPlayer();
-            if (player != null) {
-                TransformComponent transform = player.getComponent(TransformComponent.class);
-                if (transform != null) {
-                    Vector2 playerPos = transform.getPosition();
-                    playerParticles.setPosition(playerPos);
-                }
-            }
-            playerParticles.update(deltaTime);
+    private void updateFrozen(float deltaTime) {
+        boolean escPressed = inputManager != null && (inputManager.isKeyJustPressed(27) || inputManager.isKeyJustPressed(256));
+        waitInputTimer += deltaTime;
+        if (escPressed || (waitInputTimer >= inputCooldown
+                && (engine.getInputManager().isAnyKeyJustPressed() || engine.getInputManager().isMouseButtonJustPressed(0)))) {
+            returnToMenu();
         }
+    }
 
-        List<GameObject> aiPlayers = gameLogic.getAIPlayers();
+    private void updateParticles(float deltaTime) {
+        boolean freeze = waitingReturn && freezeTimer >= freezeDelay;
         if (!freeze) {
-            for (GameObject aiPlayer : aiPlayers) {
-                if (aiPlayer != null && aiPlayer.isActive()) {
-                    ParticleSystem particles = aiPlayerParticles.get(aiPlayer);
-                    if (particles == null) {
-                        TransformComponent transform = aiPlayer.getComponent(TransformComponent.class);
-                        if (transform != null) {
-                            particles = new ParticleSystem(renderer, transform.getPosition(), ParticleSystem.Config.light());
-                            particles.setActive(true);
-                            aiPlayerParticles.put(aiPlayer, particles);
-                        }
-                    }
-                    if (particles != null) {
-                        TransformComponent transform = aiPlayer.getComponent(TransformComponent.class);
-                        if (transform != null) {
-                            particles.setPosition(transform.getPosition());
-                        }
-                        particles.update(deltaTime);
-                    }
-                }
-            }
+            particles.update(deltaTime, getJobSystem());
         }
+    }
 
-        List<GameObject> toRemove = new ArrayList<>();
-        for (Map.Entry<GameObject, ParticleSystem> entry : aiPlayerParticles.entrySet()) {
-            if (!entry.getKey().isActive() || !aiPlayers.contains(entry.getKey())) {
-                toRemove.add(entry.getKey());
-            }
-        }
-        for (GameObject removed : toRemove) {
-            aiPlayerParticles.remove(removed);
-        }
+    @Override
+    protected void renderBackground(IRenderer target) {
+        target.drawRect(0, 0, target.getWidth(), target.getHeight(), 0.1f, 0.1f, 0.2f, 1.0f);
+    }
 
-        for (int i = collisionParticles.size() - 1; i >= 0; i--) {
-            ParticleSystem ps = collisionParticles.get(i);
-            if (ps != null) {
-                if (!freeze) {
-                    ps.update(deltaTime);
-                }
-            }
-        }
+    @Override
+    protected void renderWorld() {
+        super.renderWorld();
+        renderParticles();
     }
 
     @Override
     public void render() {
-        renderer.drawRect(0, 0, renderer.getWidth(), renderer.getHeight(), 0.1f, 0.1f, 0.2f, 1.0f);
-
         super.render();
 
-        renderParticles();
-
         if (gameLogic.isGameOver()) {
             float cx = renderer.getWidth() / 2.0f;
             float cy = renderer.getHeight() / 2.0f;
@@ -203,24 +170,7 @@ public class GameScene extends Scene {
     }
 
     private void renderParticles() {
-        if (playerParticles != null) {
-            int count = playerParticles.getParticleCount();
-            if (count > 0) {
-                playerParticles.render();
-            }
-        }
-
-        for (ParticleSystem ps : aiPlayerParticles.values()) {
-            if (ps != null && ps.getParticleCount() > 0) {
-                ps.render();
-            }
-        }
-
-        for (ParticleSystem ps : collisionParticles) {
-            if (ps != null && ps.getParticleCount() > 0) {
-                ps.render();
-            }
-        }
+        particles.render(getViewMinX(), getViewMinY(), getViewMaxX(), getViewMaxY());
     }
 
     private void createPlayer() {
@@ -275,6 +225,7 @@ public class GameScene extends Scene {
 
         PhysicsComponent physics = player.addComponent(new PhysicsComponent(1.0f));
         physics.setFriction(0.95f);
+        particles.attach(player, playerParticleConfig);
 
         addGameObject(player);
     }
@@ -322,6 +273,7 @@ public class GameScene extends Scene {
             (random.nextFloat() - 0.5f) * 150
         ));
         physics.setFriction(0.98f);
+        particles.attach(aiPlayer, aiParticleConfig);
 
         addGameObject(aiPlayer);
     }
@@ -359,6 +311,7 @@ public class GameScene extends Scene {
             new RenderComponent.Color(0.5f, 0.5f, 1.0f, 0.8f)
         ));
         render.setRenderer(renderer);
+        render.setStatic(true);
 
         addGameObject(decoration);
     }
@@ -368,14 +321,8 @@ public class GameScene extends Scene {
         if (gameLogic != null) {
             gameLogic.cleanup();
         }
-        if (playerParticles != null) {
-            playerParticles.clear();
-        }
-        if (collisionParticles != null) {
-            for (ParticleSystem ps : collisionParticles) {
-                if (ps != null) ps.clear();
-            }
-            collisionParticles.clear();
+        if (particles != null) {
+            particles.clear();
         }
         super.clear();
     }
@@ -0,0 +1,50 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+import java.nio.FloatBuffer;
+
+/**
+ * OpenGL 顶点提交：一个流式 VBO，每次提交先 orphan 再上传，避免等待上一批次的绘制完成，
+ * 然后以顶点、纹理坐标和颜色数组调用一次 glDrawArrays。
+ */
+class GLVertexSink implements VertexSink {
+    private static final int STRIDE_BYTES = VertexBatcher.FLOATS_PER_VERTEX * Float.BYTES;
+
+    private final long capacityBytes;
+    private int vbo;
+
+    GLVertexSink(int maxVertices) {
+        this.capacityBytes = (long) maxVertices * STRIDE_BYTES;
+    }
+
+    @Override
+    public void submit(int primitive, FloatBuffer vertices, int vertexCount) {
+        if (vbo == 0) {
+            vbo = GL15.glGenBuffers();
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, capacityBytes, GL15.GL_STREAM_DRAW);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, vertices);
+
+        GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GL11.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        GL11.glVertexPointer(2, GL11.GL_FLOAT, STRIDE_BYTES, 0L);
+        GL11.glTexCoordPointer(2, GL11.GL_FLOAT, STRIDE_BYTES, 2L * Float.BYTES);
+        GL11.glColorPointer(4, GL11.GL_FLOAT, STRIDE_BYTES, 4L * Float.BYTES);
+        GL11.glDrawArrays(primitive, 0, vertexCount);
+        GL11.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    void cleanup() {
+        if (vbo != 0) {
+            GL15.glDeleteBuffers(vbo);
+            vbo = 0;
+        }
+    }
+}
@@ -6,16 +6,16 @@ import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL14;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GLCapabilities;
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
-import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.awt.Font;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import org.lwjgl.BufferUtils;
-import java.util.HashMap;
-import java.util.Map;
 
 public class GPURenderer implements IRenderer {
     private int width;
@@ -24,10 +24,24 @@ public class GPURenderer implements IRenderer {
     private InputManager inputManager;
     private boolean initialized;
     private long window;
-    private Map<Character, Integer> charTextures;
+    // LWJGL 的 GL 函数表按线程保存，换线程持有上下文时要一并设置
+    private GLCapabilities capabilities;
     private Font font;
     private int fontSize;
-    private boolean texturesPreloaded;
+    // 字形图集纹理，形状也采样其中的白色块，整帧只绑定这一张纹理
+    private GlyphAtlas glyphAtlas;
+    private int atlasTexture;
+    private final float[] glyphUV = new float[4];
+    // 形状批处理的顶点容量
+    private static final int BATCH_VERTICES = 6 * 4096;
+    // -Dgameengine.glDebug=true 时每次提交后检查 GL 错误（glGetError 会让驱动同步）
+    private static final boolean GL_DEBUG = Boolean.getBoolean("gameengine.glDebug");
+    private GLVertexSink vertexSink;
+    private VertexBatcher batcher;
+    // 静态图层烘焙到帧缓冲纹理 {fbo, texture}（需要 GL 3.0 或 ARB_framebuffer_object），不支持时退回逐帧回放
+    private boolean framebufferObjects;
+    private LayerCache<int[]> layerCache;
+    private boolean bakingLayer;
     private static final String PRELOAD_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+-=[]{}|;:,.<>?/~` ";
 
     public GPURenderer(int width, int height, String title) {
@@ -37,22 +51,21 @@ public class GPURenderer implements IRenderer {
         this.inputManager = InputManager.getInstance();
         this.initialized = false;
         this.window = 0;
-        this.charTextures = new HashMap<>();
         this.font = new Font(Font.MONOSPACED, Font.BOLD, 32);
         this.fontSize = 32;
-        this.texturesPreloaded = false;
 
         initialize();
     }
     
     private void initialize() {
         try {
-            System.setProperty("java.awt.headless", "true");
             GLFWErrorCallback.createPrint(System.err).set();
             
             if (!GLFW.glfwInit()) {
                 throw new RuntimeException("无法初始化GLFW");
             }
+            // LWJGL 加载成功后才切换到无头 AWT（只用于栅格化字形），加载失败时工厂还能退回 Java2D 窗口
+            System.setProperty("java.awt.headless", "true");
             
             GLFW.glfwDefaultWindowHints();
             GLFW.glfwWindowHint(GLFW.GLFW_VISIBLE, GLFW.GLFW_TRUE);
@@ -85,7 +98,7 @@ public class GPURenderer implements IRenderer {
             setupInput();
             
             GLFW.glfwMakeContextCurrent(window);
-            GL.createCapabilities();
+            capabilities = GL.createCapabilities();
             GLFW.glfwSwapInterval(1);
             
             GLFW.glfwShowWindow(window);
@@ -95,6 +108,27 @@ public class GPURenderer implements IRenderer {
             GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
             GL11.glDisable(GL11.GL_DEPTH_TEST);
             GL11.glDisable(GL11.GL_LIGHTING);
+            GL11.glLineWidth(2.5f);
+            
+            vertexSink = new GLVertexSink(BATCH_VERTICES);
+            batcher = new VertexBatcher(vertexSink, BATCH_VERTICES);
+            framebufferObjects = capabilities.OpenGL30 || capabilities.GL_ARB_framebuffer_object;
+            layerCache = new LayerCache<>(4, new LayerCache.Backing<int[]>() {
+                @Override
+                public int[] create(StaticLayer.Snapshot layer) {
+                    return createLayerTarget(layer.getWidth(), layer.getHeight());
+                }
+
+                @Override
+                public void bake(int[] target, StaticLayer.Snapshot layer) {
+                    bakeLayer(target, layer);
+                }
+
+                @Override
+                public void dispose(int[] target) {
+                    deleteLayerTarget(target);
+                }
+            });
             
             // 再次确保上下文有效后再查询版本
             GLFW.glfwMakeContextCurrent(window);
@@ -117,8 +151,8 @@ public class GPURenderer implements IRenderer {
             System.out.println("渲染器: " + glRenderer);
             System.out.println("最大纹理尺寸: " + maxTex[0]);
             
-            // 仅在上下文确认有效后再预加载纹理
-            preloadTextures();
+            // 仅在上下文确认有效后再创建字形图集
+            loadGlyphAtlas();
         } catch (Exception e) {
             throw new RuntimeException("GPU渲染器初始化失败: " + e.getMessage(), e);
         }
@@ -152,12 +186,7 @@ public class GPURenderer implements IRenderer {
         
         GLFW.glfwMakeContextCurrent(window);
         
-        GL11.glMatrixMode(GL11.GL_PROJECTION);
-        GL11.glLoadIdentity();
-        GL11.glOrtho(0, width, height, 0, -1, 1);
-        
-        GL11.glMatrixMode(GL11.GL_MODELVIEW);
-        GL11.glLoadIdentity();
+        setScreenProjection();
         
         GL11.glClearColor(0.2f, 0.2f, 0.2f, 1.0f);
         GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
@@ -165,77 +194,213 @@ public class GPURenderer implements IRenderer {
         GL11.glEnable(GL11.GL_BLEND);
         GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
         GL11.glDisable(GL11.GL_DEPTH_TEST);
-        GL11.glDisable(GL11.GL_TEXTURE_2D);
         GL11.glDisable(GL11.GL_LIGHTING);
         GL11.glDisable(GL11.GL_CULL_FACE);
         GL11.glDisable(GL11.GL_COLOR_MATERIAL);
         
+        bindAtlas();
+        GL11.glTexEnvi(GL11.GL_TEXTURE_ENV, GL11.GL_TEXTURE_ENV_MODE, GL11.GL_MODULATE);
+        batcher.beginFrame();
+    }
+    
+    private void setScreenProjection() {
+        GL11.glMatrixMode(GL11.GL_PROJECTION);
+        GL11.glLoadIdentity();
+        GL11.glOrtho(0, width, height, 0, -1, 1);
+        
+        GL11.glMatrixMode(GL11.GL_MODELVIEW);
+        GL11.glLoadIdentity();
+    }
+    
+    private void bindAtlas() {
+        if (atlasTexture > 0) {
+            GL11.glEnable(GL11.GL_TEXTURE_2D);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, atlasTexture);
+        } else {
+            GL11.glDisable(GL11.GL_TEXTURE_2D);
+        }
     }
     
     @Override
     public void endFrame() {
         if (!initialized) return;
+        flushBatch();
         GLFW.glfwSwapBuffers(window);
     }
     
+    /**
+     * 提交批处理中尚未绘制的顶点；帧结束时调用
+     */
+    private void flushBatch() {
+        batcher.flush();
+        if (GL_DEBUG) {
+            checkError("flush");
+        }
+    }
+    
+    private void checkError(String where) {
+        int err = GL11.glGetError();
+        while (err != GL11.GL_NO_ERROR) {
+            System.err.println("[GPURenderer] " + where + " GL error: 0x" + Integer.toHexString(err));
+            err = GL11.glGetError();
+        }
+    }
+    
+    /**
+     * 本帧形状批次的提交次数
+     */
+    public int getFrameBatchFlushes() {
+        return batcher != null ? batcher.getFrameFlushCount() : 0;
+    }
+    
     @Override
     public void drawRect(float x, float y, float w, float h, float r, float g, float b, float a) {
         if (!initialized) return;
-        
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_QUADS);
-        GL11.glVertex2f(x, y);
-        GL11.glVertex2f(x + w, y);
-        GL11.glVertex2f(x + w, y + h);
-        GL11.glVertex2f(x, y + h);
-        GL11.glEnd();
-        int err = GL11.glGetError();
-        if (err != GL11.GL_NO_ERROR) {
-            System.err.println("[GPURenderer] drawRect GL error: 0x" + Integer.toHexString(err));
-        }
+        batcher.quad(x, y, w, h, r, g, b, a);
     }
     
     @Override
     public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
         if (!initialized) return;
-        
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_TRIANGLE_FAN);
-        GL11.glVertex2f(x, y);
-        
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (i * 2.0 * Math.PI / segments);
-            float px = x + (float) (radius * Math.cos(angle));
-            float py = y + (float) (radius * Math.sin(angle));
-            GL11.glVertex2f(px, py);
-        }
-        GL11.glEnd();
+        batcher.circle(x, y, radius, segments, r, g, b, a);
     }
     
     @Override
     public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
         if (!initialized) return;
-        
-        GL11.glLineWidth(2.5f);
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_LINES);
-        GL11.glVertex2f(x1, y1);
-        GL11.glVertex2f(x2, y2);
-        GL11.glEnd();
+        batcher.line(x1, y1, x2, y2, r, g, b, a);
     }
     
+    /**
+     * 图层版本变化时先烘焙到它的帧缓冲纹理，然后以预乘 alpha 画一个全图层大小的纹理四边形
+     */
     @Override
-    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
-        if (!initialized || text == null || text.isEmpty()) return;
-        
-        if (!texturesPreloaded) {
-            preloadTextures();
+    public void drawLayer(StaticLayer.Snapshot layer) {
+        if (!initialized) return;
+        if (!framebufferObjects || bakingLayer) {
+            IRenderer.super.drawLayer(layer);
+            return;
+        }
+        // 创建和烘焙会切换纹理与帧缓冲，先提交已排队的顶点
+        flushBatch();
+        int[] target = layerCache.acquire(layer);
+        if (target[0] == 0) {
+            bindAtlas();
+            IRenderer.super.drawLayer(layer);
+            return;
         }
-        
         GL11.glEnable(GL11.GL_TEXTURE_2D);
-        GL11.glEnable(GL11.GL_BLEND);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, target[1]);
+        GL11.glBlendFunc(GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        batcher.texturedQuad(0, 0, layer.getWidth(), layer.getHeight(), 0f, 0f, 1f, 1f, 1f, 1f, 1f, 1f);
+        flushBatch();
         GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        bindAtlas();
+    }
+    
+    // 返回 {fbo, texture}；帧缓冲不完整时返回 {0, 0} 并停用图层缓存
+    private int[] createLayerTarget(int w, int h) {
+        int texture = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, w, h, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        int fbo = GL30.glGenFramebuffers();
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, fbo);
+        GL30.glFramebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, GL11.GL_TEXTURE_2D, texture, 0);
+        int status = GL30.glCheckFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE) {
+            System.err.println("[GPURenderer] 图层帧缓冲不完整: 0x" + Integer.toHexString(status) + "，改为逐帧回放");
+            GL30.glDeleteFramebuffers(fbo);
+            GL11.glDeleteTextures(texture);
+            framebufferObjects = false;
+            return new int[] {0, 0};
+        }
+        return new int[] {fbo, texture};
+    }
+    
+    // 在图层的帧缓冲上从全透明开始回放内容；alpha 通道按 (ONE, ONE_MINUS_SRC_ALPHA) 累积，得到预乘 alpha 的图像。
+    // 投影为 y 向上，纹理第 0 行即图层顶部，绘制时 v 从 0 到 1 不需要翻转
+    private void bakeLayer(int[] target, StaticLayer.Snapshot layer) {
+        if (target[0] == 0) return;
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, target[0]);
+        GL11.glViewport(0, 0, layer.getWidth(), layer.getHeight());
+        GL11.glMatrixMode(GL11.GL_PROJECTION);
+        GL11.glLoadIdentity();
+        GL11.glOrtho(0, layer.getWidth(), 0, layer.getHeight(), -1, 1);
+        GL11.glMatrixMode(GL11.GL_MODELVIEW);
+        GL11.glClearColor(0f, 0f, 0f, 0f);
+        GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+        GL14.glBlendFuncSeparate(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA, GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        bindAtlas();
+        bakingLayer = true;
+        try {
+            layer.getCommands().execute(this);
+            flushBatch();
+        } finally {
+            bakingLayer = false;
+            GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+            GL11.glViewport(0, 0, width, height);
+            setScreenProjection();
+            GL11.glClearColor(0.2f, 0.2f, 0.2f, 1.0f);
+            GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        }
+        if (GL_DEBUG) {
+            checkError("bakeLayer");
+        }
+    }
+    
+    private void deleteLayerTarget(int[] target) {
+        if (target[0] == 0) return;
+        GL30.glDeleteFramebuffers(target[0]);
+        GL11.glDeleteTextures(target[1]);
+    }
+    
+    /**
+     * 累计烘焙静态图层的次数
+     */
+    public int getLayerBakeCount() {
+        return layerCache != null ? layerCache.getBakeCount() : 0;
+    }
+    
+    @Override
+    public void drawRects(float[] instances, int count) {
+        if (!initialized) return;
+        for (int i = 0, base = 0; i < count; i++, base += InstanceBuffer.STRIDE) {
+            batcher.quad(instances[base], instances[base + 1], instances[base + 2], instances[base + 3],
+                instances[base + 4], instances[base + 5], instances[base + 6], instances[base + 7]);
+        }
+    }
+    
+    @Override
+    public void drawCircles(float[] instances, int count, int segments) {
+        if (!initialized) return;
+        for (int i = 0, base = 0; i < count; i++, base += InstanceBuffer.STRIDE) {
+            float radius = instances[base + 2] * 0.5f;
+            batcher.circle(instances[base] + radius, instances[base + 1] + instances[base + 3] * 0.5f, radius, segments,
+                instances[base + 4], instances[base + 5], instances[base + 6], instances[base + 7]);
+        }
+    }
+    
+    @Override
+    public void drawLines(float[] instances, int count) {
+        if (!initialized) return;
+        for (int i = 0, base = 0; i < count; i++, base += InstanceBuffer.STRIDE) {
+            float x = instances[base];
+            float y = instances[base + 1];
+            batcher.line(x, y, x + instances[base + 2], y + instances[base + 3],
+                instances[base + 4], instances[base + 5], instances[base + 6], instances[base + 7]);
+        }
+    }
+    
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        if (!initialized || text == null || text.isEmpty() || atlasTexture <= 0) return;
         
+        // 字形和形状在同一批次中，按调用顺序绘制，不需要切换纹理
         float currentX = x;
         float charHeight = fontSize;
         float charWidth = fontSize * 0.6f;
@@ -247,196 +412,47 @@ public class GPURenderer implements IRenderer {
                 currentX += charWidth * 0.5f;
                 continue;
             }
-            
-            int textureId = getCharTexture(c);
-            if (textureId > 0) {
-                GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
-                GL11.glTexEnvi(GL11.GL_TEXTURE_ENV, GL11.GL_TEXTURE_ENV_MODE, GL11.GL_MODULATE);
-                GL11.glColor4f(r, g, b, a);
-                GL11.glBegin(GL11.GL_QUADS);
-                GL11.glTexCoord2f(0.0f, 0.0f);
-                GL11.glVertex2f(currentX, y);
-                GL11.glTexCoord2f(1.0f, 0.0f);
-                GL11.glVertex2f(currentX + charWidth, y);
-                GL11.glTexCoord2f(1.0f, 1.0f);
-                GL11.glVertex2f(currentX + charWidth, y + charHeight);
-                GL11.glTexCoord2f(0.0f, 1.0f);
-                GL11.glVertex2f(currentX, y + charHeight);
-                GL11.glEnd();
+            if (glyphAtlas.getGlyphUV(c, glyphUV, 0)) {
+                batcher.texturedQuad(currentX, y, charWidth, charHeight,
+                    glyphUV[0], glyphUV[1], glyphUV[2], glyphUV[3], r, g, b, a);
             }
-            
             currentX += charWidth + spacing;
         }
-        
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-        GL11.glDisable(GL11.GL_TEXTURE_2D);
     }
     
-    private void preloadTextures() {
-        if (!initialized || texturesPreloaded) return;
-        
-        GLFW.glfwMakeContextCurrent(window);
-        
-        int loaded = 0;
-        int failed = 0;
-        
-        for (int i = 0; i < PRELOAD_CHARS.length(); i++) {
-            char c = PRELOAD_CHARS.charAt(i);
-            if (c == ' ') continue;
-            
-            if (!charTextures.containsKey(c)) {
-                int error = GL11.glGetError();
-                while (error != GL11.GL_NO_ERROR) {
-                    error = GL11.glGetError();
-                }
-                
-                int textureId = createCharTexture(c);
-                if (textureId > 0) {
-                    charTextures.put(c, textureId);
-                    loaded++;
-                } else {
-                    failed++;
-                }
-            }
+    private void loadGlyphAtlas() {
+        long start = System.nanoTime();
+        glyphAtlas = GlyphAtlasCache.loadOrRasterize(font, fontSize, PRELOAD_CHARS.replace(" ", ""));
+        atlasTexture = uploadAtlas(glyphAtlas);
+        if (atlasTexture > 0) {
+            batcher.setSolidUV(glyphAtlas.getSolidU(), glyphAtlas.getSolidV());
         }
-        
-        texturesPreloaded = true;
-        System.out.println("预加载字符纹理完成: " + loaded + " 成功, " + failed + " 失败");
+        System.out.printf("字形图集: %dx%d, %d 个字符, %.1f ms%s%n",
+            glyphAtlas.getWidth(), glyphAtlas.getHeight(), glyphAtlas.getCharset().length(),
+            (System.nanoTime() - start) / 1_000_000.0, atlasTexture > 0 ? "" : " (上传失败)");
     }
     
-    private int getCharTexture(char c) {
-        if (charTextures.containsKey(c)) {
-            return charTextures.get(c);
-        }
-        
-        if (!texturesPreloaded) {
-            preloadTextures();
-            if (charTextures.containsKey(c)) {
-                return charTextures.get(c);
-            }
-        }
-        
-        if (!initialized) {
+    private int uploadAtlas(GlyphAtlas atlas) {
+        int textureId = GL11.glGenTextures();
+        if (textureId <= 0) {
             return 0;
         }
-        
-        GLFW.glfwMakeContextCurrent(window);
-        
-        int error = GL11.glGetError();
-        while (error != GL11.GL_NO_ERROR) {
-            error = GL11.glGetError();
-        }
-        
-        int textureId = createCharTexture(c);
-        if (textureId > 0) {
-            charTextures.put(c, textureId);
-        }
-        return textureId;
-    }
-    
-    private int createCharTexture(char c) {
-        try {
-            BufferedImage img = new BufferedImage(fontSize, fontSize, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2d = img.createGraphics();
-            
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-            g2d.setComposite(AlphaComposite.Clear);
-            g2d.fillRect(0, 0, fontSize, fontSize);
-            
-            g2d.setComposite(AlphaComposite.SrcOver);
-            g2d.setColor(new Color(255, 255, 255, 255));
-            g2d.setFont(font);
-            FontMetrics fm = g2d.getFontMetrics();
-            int x = (fontSize - fm.charWidth(c)) / 2;
-            int y = (fontSize - fm.getHeight()) / 2 + fm.getAscent();
-            g2d.drawString(String.valueOf(c), x, y);
-            g2d.dispose();
-            
-            int[] pixels = new int[fontSize * fontSize];
-            img.getRGB(0, 0, fontSize, fontSize, pixels, 0, fontSize);
-            
-            ByteBuffer buffer = ByteBuffer.allocateDirect(fontSize * fontSize * 4);
-            for (int i = 0; i < pixels.length; i++) {
-                int pixel = pixels[i];
-                buffer.put((byte) ((pixel >> 16) & 0xFF));
-                buffer.put((byte) ((pixel >> 8) & 0xFF));
-                buffer.put((byte) (pixel & 0xFF));
-                buffer.put((byte) ((pixel >> 24) & 0xFF));
-            }
-            buffer.flip();
-            
-            GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
-            GL11.glEnable(GL11.GL_TEXTURE_2D);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-            
-            int prevError = GL11.glGetError();
-            while (prevError != GL11.GL_NO_ERROR) {
-                System.err.println("Clearing OpenGL error before genTextures for '" + c + "': " + Integer.toHexString(prevError));
-                prevError = GL11.glGetError();
-            }
-            
-            int textureId;
-            try {
-                IntBuffer ids = BufferUtils.createIntBuffer(1);
-                GL11.glGenTextures(ids);
-                textureId = ids.get(0);
-            } catch (Throwable t) {
-                textureId = GL11.glGenTextures();
-            }
-            
-            if (textureId <= 0) {
-                int genError = GL11.glGetError();
-                System.err.println("glGenTextures returned 0 or negative for char '" + c + "'");
-                if (genError != GL11.GL_NO_ERROR) {
-                    System.err.println("OpenGL error code: 0x" + Integer.toHexString(genError));
-                } else {
-                    System.err.println("No OpenGL error reported, but textureId is invalid. Possible causes:");
-                    System.err.println("  - OpenGL context not properly initialized");
-                    System.err.println("  - Reached texture limit");
-                    System.err.println("  - Graphics driver issue");
-                }
-                return 0;
-            }
-            
-            int genError = GL11.glGetError();
-            if (genError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error after glGenTextures for '" + c + "': 0x" + Integer.toHexString(genError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
-            
-            int bindError = GL11.glGetError();
-            if (bindError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error binding texture for '" + c + "': " + Integer.toHexString(bindError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
-            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, fontSize, fontSize, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buffer);
-            
-            int texError = GL11.glGetError();
-            if (texError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error uploading texture data for '" + c + "': " + Integer.toHexString(texError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-            GL11.glDisable(GL11.GL_TEXTURE_2D);
-            
-            return textureId;
-        } catch (Exception e) {
-            System.err.println("Exception creating texture for char '" + c + "': " + e.getMessage());
-            e.printStackTrace();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, atlas.getWidth(), atlas.getHeight(), 0,
+            GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, atlas.getPixels());
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        int err = GL11.glGetError();
+        if (err != GL11.GL_NO_ERROR) {
+            System.err.println("[GPURenderer] 上传字形图集失败: 0x" + Integer.toHexString(err));
+            GL11.glDeleteTextures(textureId);
             return 0;
         }
+        return textureId;
     }
 
     private int createTestTexture() {
@@ -511,6 +527,19 @@ public class GPURenderer implements IRenderer {
     
     
     
+    @Override
+    public void makeCurrent() {
+        if (window == MemoryUtil.NULL) return;
+        GLFW.glfwMakeContextCurrent(window);
+        GL.setCapabilities(capabilities);
+    }
+    
+    @Override
+    public void releaseCurrent() {
+        GLFW.glfwMakeContextCurrent(MemoryUtil.NULL);
+        GL.setCapabilities(null);
+    }
+    
     @Override
     public boolean shouldClose() {
         if (!initialized) return false;
@@ -529,12 +558,17 @@ public class GPURenderer implements IRenderer {
     
     @Override
     public void cleanup() {
-        for (Integer textureId : charTextures.values()) {
-            if (textureId > 0) {
-                GL11.glDeleteTextures(textureId);
-            }
+        if (layerCache != null) {
+            layerCache.clear();
+        }
+        if (vertexSink != null) {
+            vertexSink.cleanup();
+            vertexSink = null;
+        }
+        if (atlasTexture > 0) {
+            GL11.glDeleteTextures(atlasTexture);
+            atlasTexture = 0;
         }
-        charTextures.clear();
         
         if (window != MemoryUtil.NULL) {
             GLFW.glfwDestroyWindow(window);
@@ -0,0 +1,169 @@
+package com.gameengine.graphics;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 字形图集：字符集中的所有字形栅格化到同一张 RGBA 纹理里，按网格排列，每格四周留 1 像素间隔。
+ * 第 0 格是纯白色块，形状绘制采样它的中心，这样形状和文字可以共用一张纹理、同一个批次。
+ * 只负责 CPU 侧的像素和 UV，不依赖 GL 上下文。
+ */
+public class GlyphAtlas {
+    private static final int PADDING = 1;
+    private static final int COLUMNS = 16;
+
+    private final int cellSize;
+    private final int width;
+    private final int height;
+    private final ByteBuffer pixels;
+    private final String charset;
+    // 按字符编码索引的字形格号，-1 表示图集中没有该字符
+    private final int[] glyphCell;
+
+    GlyphAtlas(int cellSize, int width, int height, String charset, ByteBuffer pixels) {
+        this.cellSize = cellSize;
+        this.width = width;
+        this.height = height;
+        this.charset = charset;
+        this.pixels = pixels;
+        int maxChar = 0;
+        for (int i = 0; i < charset.length(); i++) {
+            maxChar = Math.max(maxChar, charset.charAt(i));
+        }
+        this.glyphCell = new int[maxChar + 1];
+        Arrays.fill(glyphCell, -1);
+        for (int i = 0; i < charset.length(); i++) {
+            char c = charset.charAt(i);
+            if (glyphCell[c] < 0) {
+                glyphCell[c] = i + 1;
+            }
+        }
+    }
+
+    /**
+     * 用 Java2D 栅格化字符集，每个字形居中画在 cellSize × cellSize 的格子里
+     */
+    public static GlyphAtlas rasterize(Font font, int cellSize, String charset) {
+        int cells = charset.length() + 1;
+        int stride = cellSize + PADDING * 2;
+        int width = nextPowerOfTwo(COLUMNS * stride);
+        int height = nextPowerOfTwo(((cells + COLUMNS - 1) / COLUMNS) * stride);
+
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = img.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, width, height);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setColor(Color.WHITE);
+        // 白色块连同间隔一起填满，线性过滤采样时不会混入透明像素
+        g2d.fillRect(0, 0, stride, stride);
+        g2d.setFont(font);
+        FontMetrics fm = g2d.getFontMetrics();
+        for (int i = 0; i < charset.length(); i++) {
+            char c = charset.charAt(i);
+            int cell = i + 1;
+            int cx = (cell % COLUMNS) * stride + PADDING;
+            int cy = (cell / COLUMNS) * stride + PADDING;
+            int x = cx + (cellSize - fm.charWidth(c)) / 2;
+            int y = cy + (cellSize - fm.getHeight()) / 2 + fm.getAscent();
+            g2d.setClip(cx, cy, cellSize, cellSize);
+            g2d.drawString(String.valueOf(c), x, y);
+        }
+        g2d.dispose();
+
+        int[] argb = new int[width * height];
+        img.getRGB(0, 0, width, height, argb, 0, width);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(width * height * 4).order(ByteOrder.nativeOrder());
+        for (int pixel : argb) {
+            buffer.put((byte) ((pixel >> 16) & 0xFF));
+            buffer.put((byte) ((pixel >> 8) & 0xFF));
+            buffer.put((byte) (pixel & 0xFF));
+            buffer.put((byte) ((pixel >> 24) & 0xFF));
+        }
+        buffer.flip();
+        return new GlyphAtlas(cellSize, width, height, charset, buffer);
+    }
+
+    private static int nextPowerOfTwo(int n) {
+        int p = 1;
+        while (p < n) {
+            p <<= 1;
+        }
+        return p;
+    }
+
+    /**
+     * 图集中是否有该字符
+     */
+    public boolean contains(char c) {
+        return c < glyphCell.length && glyphCell[c] >= 0;
+    }
+
+    // 格子左上角（不含间隔）的像素坐标
+    private int cellX(int cell) {
+        return (cell % COLUMNS) * (cellSize + PADDING * 2) + PADDING;
+    }
+
+    private int cellY(int cell) {
+        return (cell / COLUMNS) * (cellSize + PADDING * 2) + PADDING;
+    }
+
+    /**
+     * 字形的纹理坐标，依次写入 out[offset..offset+3]：u0, v0, u1, v1；没有该字符时返回 false
+     */
+    public boolean getGlyphUV(char c, float[] out, int offset) {
+        if (!contains(c)) return false;
+        int cell = glyphCell[c];
+        float x = cellX(cell);
+        float y = cellY(cell);
+        out[offset] = x / width;
+        out[offset + 1] = y / height;
+        out[offset + 2] = (x + cellSize) / width;
+        out[offset + 3] = (y + cellSize) / height;
+        return true;
+    }
+
+    /**
+     * 纯白色块中心的纹理坐标 u
+     */
+    public float getSolidU() {
+        return (cellX(0) + cellSize * 0.5f) / width;
+    }
+
+    public float getSolidV() {
+        return (cellY(0) + cellSize * 0.5f) / height;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    /**
+     * RGBA 像素，position 为 0、limit 为末尾，可直接上传
+     */
+    public ByteBuffer getPixels() {
+        return pixels.duplicate();
+    }
+}
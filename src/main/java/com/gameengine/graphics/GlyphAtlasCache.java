@@ -0,0 +1,137 @@
+package com.gameengine.graphics;
+
+import java.awt.Font;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 字形图集的磁盘缓存：按字体、字号和字符集生成的键保存图集像素与布局，
+ * 下次启动直接内存映射文件得到像素，跳过 AWT 字体初始化和栅格化。
+ * 文件缺失、格式版本或键不一致时视为失效，重新栅格化并覆盖缓存。
+ *
+ * 文件格式：magic、版本、键（UTF）、cellSize、width、height、字符集（UTF），之后是 width × height × 4 字节 RGBA。
+ * 缓存目录默认是工作目录下的 cache（已在 .gitignore 中忽略），可用 -Dgameengine.glyphCache=目录 指定。
+ */
+public final class GlyphAtlasCache {
+    private static final int MAGIC = 0x474C5946; // "GLYF"
+    private static final int VERSION = 1;
+
+    private GlyphAtlasCache() {}
+
+    /**
+     * 优先读取缓存，失效时栅格化并写回缓存；缓存读写失败只打印警告，不影响返回结果
+     */
+    public static GlyphAtlas loadOrRasterize(Font font, int cellSize, String charset) {
+        String key = key(font, cellSize, charset);
+        Path file = cacheFile(key);
+        try {
+            GlyphAtlas cached = read(file, key);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (IOException e) {
+            System.err.println("读取字形缓存失败: " + e.getMessage());
+        }
+        GlyphAtlas atlas = GlyphAtlas.rasterize(font, cellSize, charset);
+        try {
+            write(file, key, atlas);
+        } catch (IOException e) {
+            System.err.println("写入字形缓存失败: " + e.getMessage());
+        }
+        return atlas;
+    }
+
+    /**
+     * 缓存键：字体、字号、字符集，以及会影响栅格化结果的 JDK 版本和操作系统
+     */
+    static String key(Font font, int cellSize, String charset) {
+        return font.getName() + "|" + font.getStyle() + "|" + font.getSize() + "|" + cellSize + "|" + charset
+            + "|" + System.getProperty("java.version") + "|" + System.getProperty("os.name");
+    }
+
+    static Path cacheFile(String key) {
+        String dir = System.getProperty("gameengine.glyphCache", "cache");
+        return Paths.get(dir, "glyphs-" + Integer.toHexString(key.hashCode()) + ".atlas");
+    }
+
+    /**
+     * 映射缓存文件；文件不存在或与键不匹配时返回 null
+     */
+    static GlyphAtlas read(Path file, String key) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (map.remaining() < 8 || map.getInt() != MAGIC || map.getInt() != VERSION) {
+                return null;
+            }
+            if (!key.equals(readUTF(map))) {
+                return null;
+            }
+            int cellSize = map.getInt();
+            int width = map.getInt();
+            int height = map.getInt();
+            String charset = readUTF(map);
+            long bytes = (long) width * height * 4;
+            if (cellSize <= 0 || width <= 0 || height <= 0 || map.remaining() != bytes) {
+                return null;
+            }
+            // 映射在通道关闭后仍然有效，像素直接从页缓存上传
+            ByteBuffer pixels = map.slice();
+            return new GlyphAtlas(cellSize, width, height, charset, pixels);
+        } catch (java.nio.BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    // 与 DataOutputStream.writeUTF 对应（字符集只含 BMP 字符）
+    private static String readUTF(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] data = new byte[length];
+        buffer.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 先写临时文件再原子替换，避免其他进程读到写了一半的缓存
+     */
+    static void write(Path file, String key, GlyphAtlas atlas) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "glyphs", ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new java.io.BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+                out.writeInt(atlas.getCellSize());
+                out.writeInt(atlas.getWidth());
+                out.writeInt(atlas.getHeight());
+                out.writeUTF(atlas.getCharset());
+                ByteBuffer pixels = atlas.getPixels();
+                byte[] chunk = new byte[8192];
+                while (pixels.hasRemaining()) {
+                    int n = Math.min(chunk.length, pixels.remaining());
+                    pixels.get(chunk, 0, n);
+                    out.write(chunk, 0, n);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -9,6 +9,41 @@ public interface IRenderer {
     void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a);
     void drawText(float x, float y, String text, float r, float g, float b, float a);
     
+    /**
+     * 批量绘制矩形，instances 按 {@link InstanceBuffer} 的布局打包 (x, y, w, h, r, g, b, a)
+     */
+    void drawRects(float[] instances, int count);
+    
+    /**
+     * 批量绘制圆，每个实例为外接框：圆心 (x + w/2, y + h/2)，半径 w/2
+     */
+    void drawCircles(float[] instances, int count, int segments);
+    
+    /**
+     * 批量绘制线段，每个实例从 (x, y) 到 (x + w, y + h)
+     */
+    void drawLines(float[] instances, int count);
+    
+    /**
+     * 绘制静态图层，左上角在 (0, 0)。默认直接回放图层内容；
+     * 能缓存离屏图像的后端只在图层版本变化时烘焙，之后每次只画一张图
+     */
+    default void drawLayer(StaticLayer.Snapshot layer) {
+        layer.getCommands().execute(this);
+    }
+    
+    /**
+     * 让调用线程持有渲染上下文，启用渲染线程时由渲染线程调用；没有上下文的后端不需要实现
+     */
+    default void makeCurrent() {
+    }
+    
+    /**
+     * 从调用线程上释放渲染上下文，之后其他线程才能 {@link #makeCurrent()}
+     */
+    default void releaseCurrent() {
+    }
+    
     boolean shouldClose();
     void pollEvents();
     void cleanup();
@@ -17,4 +52,3 @@ public interface IRenderer {
     int getHeight();
     String getTitle();
 }
-
@@ -0,0 +1,58 @@
+package com.gameengine.graphics;
+
+import java.util.Arrays;
+
+/**
+ * 可复用的图元实例缓冲：每个实例占 {@link #STRIDE} 个 float，依次为 x, y, w, h, r, g, b, a。
+ * 矩形为左上角和宽高；圆为外接框（圆心 (x + w/2, y + h/2)，半径 w/2）；线段从 (x, y) 到 (x + w, y + h)。
+ * 每帧 clear 后重新填充，容量只增不减，稳态下不产生分配。
+ */
+public class InstanceBuffer {
+    public static final int STRIDE = 8;
+
+    private float[] data;
+    private int count;
+
+    public InstanceBuffer() {
+        this(256);
+    }
+
+    public InstanceBuffer(int initialCapacity) {
+        this.data = new float[Math.max(1, initialCapacity) * STRIDE];
+    }
+
+    public void add(float x, float y, float w, float h, float r, float g, float b, float a) {
+        int base = count * STRIDE;
+        if (base + STRIDE > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[base] = x;
+        data[base + 1] = y;
+        data[base + 2] = w;
+        data[base + 3] = h;
+        data[base + 4] = r;
+        data[base + 5] = g;
+        data[base + 6] = b;
+        data[base + 7] = a;
+        count++;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * 底层数组，只有前 size() * STRIDE 个元素有效
+     */
+    public float[] getData() {
+        return data;
+    }
+}
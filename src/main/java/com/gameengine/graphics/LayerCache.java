@@ -0,0 +1,83 @@
+package com.gameengine.graphics;
+
+/**
+ * 后端持有的静态图层离屏图像缓存：按图层编号查找，版本变化时重新烘焙，
+ * 槽位用完时淘汰最久没画过的图层（场景切换后旧图层自然被挤出）
+ */
+final class LayerCache<T> {
+    interface Backing<T> {
+        T create(StaticLayer.Snapshot layer);
+
+        void bake(T image, StaticLayer.Snapshot layer);
+
+        void dispose(T image);
+    }
+
+    private final Backing<T> backing;
+    private final int[] ids;
+    private final int[] versions;
+    private final long[] lastUse;
+    private final Object[] images;
+    private long clock;
+    private int bakeCount;
+
+    LayerCache(int slots, Backing<T> backing) {
+        this.backing = backing;
+        this.ids = new int[slots];
+        this.versions = new int[slots];
+        this.lastUse = new long[slots];
+        this.images = new Object[slots];
+    }
+
+    /**
+     * 返回图层当前版本的离屏图像，必要时先创建或重新烘焙
+     */
+    @SuppressWarnings("unchecked")
+    T acquire(StaticLayer.Snapshot layer) {
+        int slot = -1;
+        int victim = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (images[i] != null && ids[i] == layer.getId()) {
+                slot = i;
+                break;
+            }
+            if (images[i] == null || (images[victim] != null && lastUse[i] < lastUse[victim])) {
+                victim = i;
+            }
+        }
+        if (slot < 0) {
+            slot = victim;
+            if (images[slot] != null) {
+                backing.dispose((T) images[slot]);
+            }
+            images[slot] = backing.create(layer);
+            ids[slot] = layer.getId();
+            versions[slot] = 0;
+        }
+        T image = (T) images[slot];
+        if (versions[slot] != layer.getVersion()) {
+            backing.bake(image, layer);
+            versions[slot] = layer.getVersion();
+            bakeCount++;
+        }
+        lastUse[slot] = ++clock;
+        return image;
+    }
+
+    /**
+     * 累计烘焙次数
+     */
+    int getBakeCount() {
+        return bakeCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    void clear() {
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != null) {
+                backing.dispose((T) images[i]);
+                images[i] = null;
+            }
+        }
+    }
+}
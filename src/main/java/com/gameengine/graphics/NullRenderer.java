@@ -0,0 +1,267 @@
+package com.gameengine.graphics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 无窗口的渲染后端：不创建 GLFW 窗口和 OpenGL 上下文，只统计绘制调用，
+ * 可选地记录每次调用的参数。用于 CI、服务器上的批量模拟和回放校验。
+ */
+public class NullRenderer implements IRenderer {
+    /**
+     * 绘制调用类型
+     */
+    public enum DrawType {
+        RECT, CIRCLE, LINE, TEXT
+    }
+
+    /**
+     * 记录下来的一次绘制调用；矩形为 (x, y, w, h)，圆为 (cx, cy, r, segments)，线段为 (x1, y1, x2, y2)
+     */
+    public static final class DrawCall {
+        public final DrawType type;
+        public final float a0, a1, a2, a3;
+        public final float r, g, b, a;
+        public final String text;
+
+        DrawCall(DrawType type, float a0, float a1, float a2, float a3,
+                 float r, float g, float b, float a, String text) {
+            this.type = type;
+            this.a0 = a0;
+            this.a1 = a1;
+            this.a2 = a2;
+            this.a3 = a3;
+            this.r = r;
+            this.g = g;
+            this.b = b;
+            this.a = a;
+            this.text = text;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final String title;
+    // 各类型本帧和累计的调用次数，按 DrawType 序号索引
+    private final int[] frameCounts = new int[DrawType.values().length];
+    private final long[] totalCounts = new long[DrawType.values().length];
+    // 批量接口的提交次数（每次 drawRects/drawCircles/drawLines 计一次）
+    private int frameBatchCalls;
+    private long totalBatchCalls;
+    private long frameCount;
+    private int maxFrames;
+    // 启用渲染线程时由渲染线程写入、主循环读取
+    private volatile boolean closeRequested;
+    private boolean recording;
+    private final List<DrawCall> recorded = new ArrayList<>();
+
+    public NullRenderer(int width, int height, String title) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+    }
+
+    @Override
+    public void beginFrame() {
+        for (int i = 0; i < frameCounts.length; i++) {
+            frameCounts[i] = 0;
+        }
+        frameBatchCalls = 0;
+        if (recording) {
+            recorded.clear();
+        }
+    }
+
+    @Override
+    public void endFrame() {
+        frameCount++;
+        if (maxFrames > 0 && frameCount >= maxFrames) {
+            closeRequested = true;
+        }
+    }
+
+    @Override
+    public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        count(DrawType.RECT);
+        if (recording) {
+            recorded.add(new DrawCall(DrawType.RECT, x, y, width, height, r, g, b, a, null));
+        }
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        count(DrawType.CIRCLE);
+        if (recording) {
+            recorded.add(new DrawCall(DrawType.CIRCLE, x, y, radius, segments, r, g, b, a, null));
+        }
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        count(DrawType.LINE);
+        if (recording) {
+            recorded.add(new DrawCall(DrawType.LINE, x1, y1, x2, y2, r, g, b, a, null));
+        }
+    }
+
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        count(DrawType.TEXT);
+        if (recording) {
+            recorded.add(new DrawCall(DrawType.TEXT, x, y, 0, 0, r, g, b, a, text));
+        }
+    }
+
+    @Override
+    public void drawRects(float[] instances, int count) {
+        countBatch(DrawType.RECT, count);
+        for (int i = 0, base = 0; recording && i < count; i++, base += InstanceBuffer.STRIDE) {
+            recordInstance(DrawType.RECT, instances[base], instances[base + 1], instances[base + 2], instances[base + 3], instances, base);
+        }
+    }
+
+    @Override
+    public void drawCircles(float[] instances, int count, int segments) {
+        countBatch(DrawType.CIRCLE, count);
+        for (int i = 0, base = 0; recording && i < count; i++, base += InstanceBuffer.STRIDE) {
+            // 与 drawCircle 的记录格式一致：圆心、半径、分段数
+            float radius = instances[base + 2] * 0.5f;
+            recordInstance(DrawType.CIRCLE, instances[base] + radius, instances[base + 1] + instances[base + 3] * 0.5f,
+                radius, segments, instances, base);
+        }
+    }
+
+    @Override
+    public void drawLines(float[] instances, int count) {
+        countBatch(DrawType.LINE, count);
+        for (int i = 0, base = 0; recording && i < count; i++, base += InstanceBuffer.STRIDE) {
+            float x = instances[base];
+            float y = instances[base + 1];
+            recordInstance(DrawType.LINE, x, y, x + instances[base + 2], y + instances[base + 3], instances, base);
+        }
+    }
+
+    private void recordInstance(DrawType type, float a0, float a1, float a2, float a3, float[] instances, int base) {
+        recorded.add(new DrawCall(type, a0, a1, a2, a3,
+            instances[base + 4], instances[base + 5], instances[base + 6], instances[base + 7], null));
+    }
+
+    // 批量提交按实例数计入绘制次数，另记一次批量提交
+    private void countBatch(DrawType type, int count) {
+        if (count <= 0) return;
+        frameCounts[type.ordinal()] += count;
+        totalCounts[type.ordinal()] += count;
+        frameBatchCalls++;
+        totalBatchCalls++;
+    }
+
+    private void count(DrawType type) {
+        frameCounts[type.ordinal()]++;
+        totalCounts[type.ordinal()]++;
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return closeRequested;
+    }
+
+    @Override
+    public void pollEvents() {
+        // 没有窗口，也就没有输入事件
+    }
+
+    @Override
+    public void cleanup() {
+        recorded.clear();
+    }
+
+    /**
+     * 让主循环在下一帧开始时退出
+     */
+    public void requestClose() {
+        closeRequested = true;
+    }
+
+    /**
+     * 渲染满指定帧数后自动请求退出，0 表示不限制
+     */
+    public void setMaxFrames(int maxFrames) {
+        this.maxFrames = Math.max(0, maxFrames);
+    }
+
+    /**
+     * 开启后记录每帧的绘制调用（每帧开始时清空），关闭时不产生任何分配
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+        if (!recording) {
+            recorded.clear();
+        }
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * 当前帧记录下的绘制调用（只读视图）
+     */
+    public List<DrawCall> getRecordedCalls() {
+        return Collections.unmodifiableList(recorded);
+    }
+
+    public int getFrameDrawCalls(DrawType type) {
+        return frameCounts[type.ordinal()];
+    }
+
+    public int getFrameDrawCalls() {
+        int sum = 0;
+        for (int c : frameCounts) {
+            sum += c;
+        }
+        return sum;
+    }
+
+    public long getTotalDrawCalls(DrawType type) {
+        return totalCounts[type.ordinal()];
+    }
+
+    public long getTotalDrawCalls() {
+        long sum = 0;
+        for (long c : totalCounts) {
+            sum += c;
+        }
+        return sum;
+    }
+
+    /**
+     * 当前帧通过批量接口提交的次数
+     */
+    public int getFrameBatchCalls() {
+        return frameBatchCalls;
+    }
+
+    public long getTotalBatchCalls() {
+        return totalBatchCalls;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+}
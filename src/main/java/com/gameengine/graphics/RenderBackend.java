@@ -1,6 +1,11 @@
 package com.gameengine.graphics;
 
 public enum RenderBackend {
-    GPU
+    GPU,
+    // 无窗口后端，只统计/记录绘制调用
+    HEADLESS,
+    // 纯 Java 软件光栅化，无窗口，画面可读回
+    SOFTWARE,
+    // Swing 窗口 + BufferStrategy，缺少 LWJGL 本地库时的备用后端
+    JAVA2D
 }
-
@@ -0,0 +1,68 @@
+package com.gameengine.graphics;
+
+/**
+ * 按图元类型收集一帧内的矩形、圆和线段，flush 时每种类型只向渲染器提交一次。
+ * 同一批次内先画全部矩形，再画圆，最后画线段；需要严格交错的绘制应直接调用渲染器。
+ */
+public class RenderBatch {
+    // 批量圆的分段数，与 RenderComponent 逐个绘制时一致
+    public static final int CIRCLE_SEGMENTS = 16;
+
+    private final InstanceBuffer rects = new InstanceBuffer();
+    private final InstanceBuffer circles = new InstanceBuffer();
+    private final InstanceBuffer lines = new InstanceBuffer();
+    private IRenderer target;
+
+    public void addRect(IRenderer renderer, float x, float y, float w, float h, float r, float g, float b, float a) {
+        retarget(renderer);
+        rects.add(x, y, w, h, r, g, b, a);
+    }
+
+    /**
+     * 以外接框添加圆：圆心 (x + w/2, y + h/2)，半径 w/2
+     */
+    public void addCircle(IRenderer renderer, float x, float y, float w, float h, float r, float g, float b, float a) {
+        retarget(renderer);
+        circles.add(x, y, w, h, r, g, b, a);
+    }
+
+    /**
+     * 添加从 (x, y) 到 (x + dx, y + dy) 的线段
+     */
+    public void addLine(IRenderer renderer, float x, float y, float dx, float dy, float r, float g, float b, float a) {
+        retarget(renderer);
+        lines.add(x, y, dx, dy, r, g, b, a);
+    }
+
+    // 换了渲染器时先把已收集的图元提交给原渲染器
+    private void retarget(IRenderer renderer) {
+        if (target != renderer) {
+            flush();
+            target = renderer;
+        }
+    }
+
+    /**
+     * 提交并清空已收集的图元
+     */
+    public void flush() {
+        if (target != null) {
+            if (!rects.isEmpty()) {
+                target.drawRects(rects.getData(), rects.size());
+            }
+            if (!circles.isEmpty()) {
+                target.drawCircles(circles.getData(), circles.size(), CIRCLE_SEGMENTS);
+            }
+            if (!lines.isEmpty()) {
+                target.drawLines(lines.getData(), lines.size());
+            }
+        }
+        rects.clear();
+        circles.clear();
+        lines.clear();
+    }
+
+    public boolean isEmpty() {
+        return rects.isEmpty() && circles.isEmpty() && lines.isEmpty();
+    }
+}
@@ -0,0 +1,391 @@
+package com.gameengine.graphics;
+
+import java.util.Arrays;
+
+/**
+ * 渲染命令缓冲：作为 {@link IRenderer} 交给场景，绘制调用只被记录进预分配的基本类型数组，
+ * 之后由 {@link #execute(IRenderer)} 按排序键回放到任意后端（GPU、无窗口、软件光栅）。
+ * 场景遍历与后端提交因此可以分开计时，也可以放到不同线程。
+ *
+ * 每条命令有一个操作码、一个排序键和 {@link InstanceBuffer} 布局的 8 个参数
+ * （矩形为左上角和宽高，圆为外接框，线段为起点和偏移，静态图层为原点和尺寸）。排序键小的先画，键相同时保持记录顺序。
+ * 回放时相邻的同类形状合并为一次批量调用。容量只增不减，稳态下记录和回放都不产生分配。
+ */
+public class RenderCommandBuffer implements IRenderer {
+    public static final byte OP_RECT = 0;
+    public static final byte OP_CIRCLE = 1;
+    public static final byte OP_LINE = 2;
+    public static final byte OP_TEXT = 3;
+    public static final byte OP_LAYER = 4;
+
+    private int width;
+    private int height;
+    private String title;
+
+    private byte[] ops;
+    private int[] keys;
+    private float[] args;
+    // 圆为分段数，文字为 texts 下标，图层为 layers 下标
+    private int[] extra;
+    private String[] texts;
+    private StaticLayer.Snapshot[] layers;
+    private int count;
+    private int textCount;
+    private int layerCount;
+    private int sortKey;
+    // 记录顺序中排序键是否一直不减；是则回放时不需要排序
+    private boolean ordered = true;
+    // order 是否与当前内容对应；写入新命令后失效
+    private boolean sorted;
+    private long[] order = new long[0];
+    private final InstanceBuffer run = new InstanceBuffer(1024);
+
+    public RenderCommandBuffer(int width, int height, String title) {
+        this(width, height, title, 1024);
+    }
+
+    public RenderCommandBuffer(int width, int height, String title, int initialCapacity) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+        int n = Math.max(16, initialCapacity);
+        ops = new byte[n];
+        keys = new int[n];
+        args = new float[n * InstanceBuffer.STRIDE];
+        extra = new int[n];
+        texts = new String[64];
+        layers = new StaticLayer.Snapshot[4];
+    }
+
+    /**
+     * 以后端的尺寸和标题创建
+     */
+    public static RenderCommandBuffer of(IRenderer backend) {
+        return new RenderCommandBuffer(backend.getWidth(), backend.getHeight(), backend.getTitle());
+    }
+
+    /**
+     * 之后记录的命令使用的排序键（如图层），默认为 0
+     */
+    public void setSortKey(int key) {
+        this.sortKey = key;
+    }
+
+    public int getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * 清空命令，排序键恢复为 0
+     */
+    public void reset() {
+        Arrays.fill(texts, 0, textCount, null);
+        Arrays.fill(layers, 0, layerCount, null);
+        count = 0;
+        textCount = 0;
+        layerCount = 0;
+        sortKey = 0;
+        ordered = true;
+        sorted = false;
+    }
+
+    @Override
+    public void beginFrame() {
+        reset();
+    }
+
+    @Override
+    public void endFrame() {
+        // 由持有缓冲的一方决定何时回放
+    }
+
+    @Override
+    public void drawRect(float x, float y, float w, float h, float r, float g, float b, float a) {
+        add(OP_RECT, 0, x, y, w, h, r, g, b, a);
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        add(OP_CIRCLE, segments, x - radius, y - radius, radius * 2, radius * 2, r, g, b, a);
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        add(OP_LINE, 0, x1, y1, x2 - x1, y2 - y1, r, g, b, a);
+    }
+
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        if (text == null || text.isEmpty()) return;
+        if (textCount == texts.length) {
+            texts = Arrays.copyOf(texts, textCount * 2);
+        }
+        texts[textCount] = text;
+        add(OP_TEXT, textCount++, x, y, 0, 0, r, g, b, a);
+    }
+
+    @Override
+    public void drawLayer(StaticLayer.Snapshot layer) {
+        if (layer == null) return;
+        if (layerCount == layers.length) {
+            layers = Arrays.copyOf(layers, layerCount * 2);
+        }
+        layers[layerCount] = layer;
+        add(OP_LAYER, layerCount++, 0, 0, layer.getWidth(), layer.getHeight(), 1, 1, 1, 1);
+    }
+
+    @Override
+    public void drawRects(float[] instances, int count) {
+        addInstances(OP_RECT, 0, instances, count);
+    }
+
+    @Override
+    public void drawCircles(float[] instances, int count, int segments) {
+        addInstances(OP_CIRCLE, segments, instances, count);
+    }
+
+    @Override
+    public void drawLines(float[] instances, int count) {
+        addInstances(OP_LINE, 0, instances, count);
+    }
+
+    private void addInstances(byte op, int ex, float[] instances, int n) {
+        if (n <= 0) return;
+        ensureCapacity(count + n);
+        System.arraycopy(instances, 0, args, count * InstanceBuffer.STRIDE, n * InstanceBuffer.STRIDE);
+        Arrays.fill(ops, count, count + n, op);
+        Arrays.fill(keys, count, count + n, sortKey);
+        Arrays.fill(extra, count, count + n, ex);
+        noteKey();
+        count += n;
+    }
+
+    private void add(byte op, int ex, float a0, float a1, float a2, float a3, float r, float g, float b, float a) {
+        ensureCapacity(count + 1);
+        int base = count * InstanceBuffer.STRIDE;
+        args[base] = a0;
+        args[base + 1] = a1;
+        args[base + 2] = a2;
+        args[base + 3] = a3;
+        args[base + 4] = r;
+        args[base + 5] = g;
+        args[base + 6] = b;
+        args[base + 7] = a;
+        ops[count] = op;
+        keys[count] = sortKey;
+        extra[count] = ex;
+        noteKey();
+        count++;
+    }
+
+    private void noteKey() {
+        sorted = false;
+        if (count > 0 && sortKey < keys[count - 1]) {
+            ordered = false;
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ops.length) return;
+        int n = Math.max(needed, ops.length * 2);
+        ops = Arrays.copyOf(ops, n);
+        keys = Arrays.copyOf(keys, n);
+        args = Arrays.copyOf(args, n * InstanceBuffer.STRIDE);
+        extra = Arrays.copyOf(extra, n);
+    }
+
+    /**
+     * 按排序键回放所有命令；相邻的同类形状（圆还要求分段数相同）合并为一次批量调用。
+     * 不清空命令，同一帧可以回放到多个后端。
+     */
+    public void execute(IRenderer target) {
+        if (count == 0) return;
+        sortByKey();
+        byte runOp = -1;
+        int runExtra = 0;
+        for (int k = 0; k < count; k++) {
+            int i = getOrderedIndex(k);
+            byte op = ops[i];
+            if (op != runOp || extra[i] != runExtra || op >= OP_TEXT) {
+                flushRun(target, runOp, runExtra);
+                runOp = op;
+                runExtra = extra[i];
+            }
+            int base = i * InstanceBuffer.STRIDE;
+            if (op == OP_TEXT) {
+                target.drawText(args[base], args[base + 1], texts[extra[i]],
+                    args[base + 4], args[base + 5], args[base + 6], args[base + 7]);
+            } else if (op == OP_LAYER) {
+                target.drawLayer(layers[extra[i]]);
+            } else {
+                run.add(args[base], args[base + 1], args[base + 2], args[base + 3],
+                    args[base + 4], args[base + 5], args[base + 6], args[base + 7]);
+            }
+        }
+        flushRun(target, runOp, runExtra);
+    }
+
+    /**
+     * 按排序键整理回放顺序（键相同时保持记录顺序）。之后直到下一次写入，
+     * {@link #getOrderedIndex} 只读，可以在多个线程中并发调用
+     */
+    public void sortByKey() {
+        if (!ordered && !sorted) {
+            sortCommands();
+        }
+    }
+
+    /**
+     * 回放顺序中第 k 条命令的记录下标；按记录下标读取命令的后端用它遍历，与 {@link #execute} 的顺序一致。
+     * 排序键有过下降时须先调用 {@link #sortByKey()}
+     */
+    public int getOrderedIndex(int k) {
+        if (ordered) return k;
+        if (!sorted) {
+            throw new IllegalStateException("命令未按排序键整理，先调用 sortByKey");
+        }
+        return (int) order[k];
+    }
+
+    // 高 32 位为排序键，低 32 位为记录序号，排序后即为稳定顺序
+    private void sortCommands() {
+        if (order.length < count) {
+            order = new long[ops.length];
+        }
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) keys[i] << 32) | i;
+        }
+        Arrays.sort(order, 0, count);
+        sorted = true;
+    }
+
+    private void flushRun(IRenderer target, byte op, int ex) {
+        if (run.isEmpty()) return;
+        switch (op) {
+            case OP_RECT:
+                target.drawRects(run.getData(), run.size());
+                break;
+            case OP_CIRCLE:
+                target.drawCircles(run.getData(), run.size(), ex);
+                break;
+            case OP_LINE:
+                target.drawLines(run.getData(), run.size());
+                break;
+            default:
+                break;
+        }
+        run.clear();
+    }
+
+    /**
+     * 把 [from, to) 的命令连同排序键追加到另一个缓冲，用于截取已经录好的一段画面
+     */
+    public void copyTo(RenderCommandBuffer dst, int from, int to) {
+        int savedKey = dst.sortKey;
+        for (int i = from; i < to; i++) {
+            int base = i * InstanceBuffer.STRIDE;
+            dst.sortKey = keys[i];
+            switch (ops[i]) {
+                case OP_TEXT:
+                    dst.drawText(args[base], args[base + 1], texts[extra[i]],
+                        args[base + 4], args[base + 5], args[base + 6], args[base + 7]);
+                    break;
+                case OP_LAYER:
+                    dst.drawLayer(layers[extra[i]]);
+                    break;
+                default:
+                    dst.add(ops[i], extra[i], args[base], args[base + 1], args[base + 2], args[base + 3],
+                        args[base + 4], args[base + 5], args[base + 6], args[base + 7]);
+                    break;
+            }
+        }
+        dst.sortKey = savedKey;
+    }
+
+    /**
+     * 与另一个缓冲交换全部命令（只交换数组引用），用于把录好的一帧交给渲染线程而不复制
+     */
+    public void swapContents(RenderCommandBuffer other) {
+        byte[] o = ops; ops = other.ops; other.ops = o;
+        int[] k = keys; keys = other.keys; other.keys = k;
+        float[] a = args; args = other.args; other.args = a;
+        int[] e = extra; extra = other.extra; other.extra = e;
+        String[] t = texts; texts = other.texts; other.texts = t;
+        StaticLayer.Snapshot[] l = layers; layers = other.layers; other.layers = l;
+        long[] so = order; order = other.order; other.order = so;
+        int c = count; count = other.count; other.count = c;
+        int tc = textCount; textCount = other.textCount; other.textCount = tc;
+        int lc = layerCount; layerCount = other.layerCount; other.layerCount = lc;
+        int sk = sortKey; sortKey = other.sortKey; other.sortKey = sk;
+        boolean od = ordered; ordered = other.ordered; other.ordered = od;
+        boolean st = sorted; sorted = other.sorted; other.sorted = st;
+    }
+
+    /**
+     * 已记录的命令数
+     */
+    public int size() {
+        return count;
+    }
+
+    public byte getOp(int i) {
+        return ops[i];
+    }
+
+    public int getKey(int i) {
+        return keys[i];
+    }
+
+    /**
+     * 第 i 条命令的第 j 个参数（0..7，{@link InstanceBuffer} 布局）
+     */
+    public float getArg(int i, int j) {
+        return args[i * InstanceBuffer.STRIDE + j];
+    }
+
+    public String getText(int i) {
+        return ops[i] == OP_TEXT ? texts[extra[i]] : null;
+    }
+
+    public StaticLayer.Snapshot getLayer(int i) {
+        return ops[i] == OP_LAYER ? layers[extra[i]] : null;
+    }
+
+    /**
+     * 后端尺寸变化时同步
+     */
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return false;
+    }
+
+    @Override
+    public void pollEvents() {
+        // 命令缓冲没有窗口
+    }
+
+    @Override
+    public void cleanup() {
+        reset();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+}
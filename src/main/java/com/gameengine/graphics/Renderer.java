@@ -1,308 +1,396 @@
 package com.gameengine.graphics;
 
 import com.gameengine.input.InputManager;
-import com.gameengine.math.Vector2;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 
 /**
- * 渲染器
+ * Java2D 渲染后端（RenderBackend.JAVA2D），用于缺少 LWJGL 本地库的机器。
+ * 主动渲染：绘制调用记录到命令缓冲，endFrame 时在调用线程上通过 BufferStrategy
+ * （加速的 VolatileImage 后台缓冲）一次画完并翻转，不经过 repaint 和 EDT。
+ * AWT 输入事件在 EDT 上入队，pollEvents 时在游戏线程上转交 InputManager。
  */
-public class Renderer extends JFrame {
+public class Renderer implements IRenderer {
+    // 与 GPURenderer 的清屏色相同
+    private static final Color CLEAR_COLOR = new Color(0.2f, 0.2f, 0.2f, 1f);
+    private static final int COLOR_CACHE_SIZE = 256;
+    // 输入事件类型
+    private static final int KEY_PRESSED = 0;
+    private static final int KEY_RELEASED = 1;
+    private static final int MOUSE_PRESSED = 2;
+    private static final int MOUSE_RELEASED = 3;
+    private static final int MOUSE_MOVED = 4;
+
     private int width;
     private int height;
     private String title;
-    private GamePanel gamePanel;
     private InputManager inputManager;
-    
+    private JFrame frame;
+    private Canvas canvas;
+    private BufferStrategy strategy;
+    private final RenderCommandBuffer commands;
+    // 静态图层缓存为预乘 alpha 的 BufferedImage，版本不变时每帧只 drawImage 一次
+    private boolean bakingLayer;
+    private final LayerCache<BufferedImage> layerCache = new LayerCache<>(4, new LayerCache.Backing<BufferedImage>() {
+        @Override
+        public BufferedImage create(StaticLayer.Snapshot layer) {
+            return new BufferedImage(layer.getWidth(), layer.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+
+        @Override
+        public void bake(BufferedImage image, StaticLayer.Snapshot layer) {
+            Graphics2D g = image.createGraphics();
+            try {
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(0, 0, image.getWidth(), image.getHeight());
+                g.setComposite(AlphaComposite.SrcOver);
+                bakingLayer = true;
+                replay(g, layer.getCommands());
+            } finally {
+                bakingLayer = false;
+                g.dispose();
+            }
+        }
+
+        @Override
+        public void dispose(BufferedImage image) {
+            image.flush();
+        }
+    });
+    private final Font font = new Font(Font.MONOSPACED, Font.BOLD, 32);
+    private final BasicStroke lineStroke = new BasicStroke(2.5f);
+    // 按 ARGB 直接映射的颜色缓存，命中时不分配 Color
+    private final Color[] colorCache = new Color[COLOR_CACHE_SIZE];
+    private final int[] colorKeys = new int[COLOR_CACHE_SIZE];
+    // EDT 写入、游戏线程读出的输入事件，每个事件 3 个 int：类型、参数 1、参数 2
+    private final Object eventLock = new Object();
+    private int[] events = new int[3 * 64];
+    private int eventCount;
+    private volatile boolean closed;
+
     public Renderer(int width, int height, String title) {
         this.width = width;
         this.height = height;
         this.title = title;
         this.inputManager = InputManager.getInstance();
-        
+        this.commands = new RenderCommandBuffer(width, height, title);
+
         initialize();
     }
-    
+
     private void initialize() {
-        setTitle(title);
-        setSize(width, height);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setResizable(false);
-        
-        gamePanel = new GamePanel();
-        add(gamePanel);
-        
+        try {
+            SwingUtilities.invokeAndWait(this::createWindow);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException("Java2D渲染器初始化失败: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Java2D渲染器初始化被中断", e);
+        }
+    }
+
+    private void createWindow() {
+        frame = new JFrame(title);
+        frame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        frame.setResizable(false);
+        frame.setIgnoreRepaint(true);
+
+        canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(width, height));
+        canvas.setIgnoreRepaint(true);
+        canvas.setBackground(CLEAR_COLOR);
+        frame.add(canvas);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+
         setupInput();
-        
-        setVisible(true);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                closed = true;
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                closed = true;
+            }
+        });
+
+        frame.setVisible(true);
+        canvas.createBufferStrategy(2);
+        strategy = canvas.getBufferStrategy();
+        canvas.requestFocus();
     }
-    
+
     private void setupInput() {
-        // 键盘输入
-        addKeyListener(new KeyAdapter() {
+        canvas.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                inputManager.onKeyPressed(e.getKeyCode());
+                queueEvent(KEY_PRESSED, e.getKeyCode(), 0);
             }
-            
+
             @Override
             public void keyReleased(KeyEvent e) {
-                inputManager.onKeyReleased(e.getKeyCode());
+                queueEvent(KEY_RELEASED, e.getKeyCode(), 0);
             }
         });
-        
-        // 鼠标输入
-        addMouseListener(new MouseAdapter() {
+
+        // AWT 按键从 1 开始编号，InputManager 与 GLFW 一致从 0 开始
+        canvas.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
-                inputManager.onMousePressed(e.getButton());
+                queueEvent(MOUSE_PRESSED, e.getButton() - 1, 0);
             }
-            
+
             @Override
             public void mouseReleased(MouseEvent e) {
-                inputManager.onMouseReleased(e.getButton());
+                queueEvent(MOUSE_RELEASED, e.getButton() - 1, 0);
             }
         });
-        
-        addMouseMotionListener(new MouseAdapter() {
+
+        canvas.addMouseMotionListener(new MouseAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                inputManager.onMouseMoved(e.getX(), e.getY());
+                queueEvent(MOUSE_MOVED, e.getX(), e.getY());
             }
 
             @Override
             public void mouseDragged(MouseEvent e) {
-                // 当按住鼠标并移动时会触发 mouseDragged，确保也更新鼠标位置
-                inputManager.onMouseMoved(e.getX(), e.getY());
+                queueEvent(MOUSE_MOVED, e.getX(), e.getY());
             }
         });
-        
-        setFocusable(true);
-        requestFocus();
+        canvas.setFocusable(true);
     }
-    
-    /**
-     * 开始渲染帧
-     */
+
+    private void queueEvent(int type, int a, int b) {
+        synchronized (eventLock) {
+            int base = eventCount * 3;
+            if (base + 3 > events.length) {
+                events = Arrays.copyOf(events, events.length * 2);
+            }
+            events[base] = type;
+            events[base + 1] = a;
+            events[base + 2] = b;
+            eventCount++;
+        }
+    }
+
+    @Override
     public void beginFrame() {
-        gamePanel.clear();
+        commands.reset();
     }
-    
-    /**
-     * 结束渲染帧
-     */
+
+    @Override
     public void endFrame() {
-        gamePanel.repaint();
+        if (strategy == null || closed) return;
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    paint(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
     }
-    
-    /**
-     * 绘制矩形
-     */
+
+    private void paint(Graphics2D g) {
+        g.setColor(CLEAR_COLOR);
+        g.fillRect(0, 0, width, height);
+        replay(g, commands);
+    }
+
+    // 按排序键决定的回放顺序回放命令，与 RenderCommandBuffer.execute 一致
+    private void replay(Graphics2D g, RenderCommandBuffer commands) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setStroke(lineStroke);
+        g.setFont(font);
+        int ascent = g.getFontMetrics().getAscent();
+        commands.sortByKey();
+        for (int k = 0, n = commands.size(); k < n; k++) {
+            int i = commands.getOrderedIndex(k);
+            float x = commands.getArg(i, 0);
+            float y = commands.getArg(i, 1);
+            float w = commands.getArg(i, 2);
+            float h = commands.getArg(i, 3);
+            g.setColor(color(commands.getArg(i, 4), commands.getArg(i, 5), commands.getArg(i, 6), commands.getArg(i, 7)));
+            switch (commands.getOp(i)) {
+                case RenderCommandBuffer.OP_RECT:
+                    g.fillRect(Math.round(x), Math.round(y), Math.round(w), Math.round(h));
+                    break;
+                case RenderCommandBuffer.OP_CIRCLE:
+                    g.fillOval(Math.round(x), Math.round(y), Math.round(w), Math.round(h));
+                    break;
+                case RenderCommandBuffer.OP_LINE:
+                    g.drawLine(Math.round(x), Math.round(y), Math.round(x + w), Math.round(y + h));
+                    break;
+                case RenderCommandBuffer.OP_TEXT:
+                    // 与 GPURenderer 一致，y 为文字顶部
+                    g.drawString(commands.getText(i), x, y + ascent);
+                    break;
+                case RenderCommandBuffer.OP_LAYER:
+                    // 烘焙图层时嵌套的图层直接展开，不重入缓存
+                    if (bakingLayer) {
+                        replay(g, commands.getLayer(i).getCommands());
+                    } else {
+                        g.drawImage(layerCache.acquire(commands.getLayer(i)), 0, 0, null);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private Color color(float r, float g, float b, float a) {
+        int argb = (channel(a) << 24) | (channel(r) << 16) | (channel(g) << 8) | channel(b);
+        int slot = (argb ^ (argb >>> 11) ^ (argb >>> 19)) & (COLOR_CACHE_SIZE - 1);
+        Color c = colorCache[slot];
+        if (c == null || colorKeys[slot] != argb) {
+            c = new Color(argb, true);
+            colorCache[slot] = c;
+            colorKeys[slot] = argb;
+        }
+        return c;
+    }
+
+    private static int channel(float v) {
+        if (v <= 0f) return 0;
+        if (v >= 1f) return 255;
+        return (int) (v * 255f + 0.5f);
+    }
+
+    @Override
     public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new RectDrawable(x, y, width, height, r, g, b, a));
+        commands.drawRect(x, y, width, height, r, g, b, a);
     }
-    
-    /**
-     * 绘制圆形
-     */
+
+    @Override
     public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new CircleDrawable(x, y, radius, r, g, b, a));
+        commands.drawCircle(x, y, radius, segments, r, g, b, a);
     }
-    
-    /**
-     * 绘制线条
-     */
+
+    @Override
     public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new LineDrawable(x1, y1, x2, y2, r, g, b, a));
+        commands.drawLine(x1, y1, x2, y2, r, g, b, a);
     }
 
-    /**
-     * 绘制文字（用于HUD）
-     */
-    public void drawText(String text, float x, float y, int fontSize, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new TextDrawable(text, x, y, fontSize, r, g, b, a));
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        commands.drawText(x, y, text, r, g, b, a);
     }
-    
-    /**
-     * 检查窗口是否应该关闭
-     */
+
+    @Override
+    public void drawLayer(StaticLayer.Snapshot layer) {
+        commands.drawLayer(layer);
+    }
+
+    @Override
+    public void drawRects(float[] instances, int count) {
+        commands.drawRects(instances, count);
+    }
+
+    @Override
+    public void drawCircles(float[] instances, int count, int segments) {
+        commands.drawCircles(instances, count, segments);
+    }
+
+    @Override
+    public void drawLines(float[] instances, int count) {
+        commands.drawLines(instances, count);
+    }
+
+    @Override
     public boolean shouldClose() {
-        return !isVisible();
+        return closed;
     }
-    
+
     /**
-     * 处理事件
+     * 把 EDT 上收到的输入事件按顺序交给 InputManager
      */
+    @Override
     public void pollEvents() {
-        // Swing自动处理事件
+        synchronized (eventLock) {
+            for (int i = 0, base = 0; i < eventCount; i++, base += 3) {
+                int a = events[base + 1];
+                int b = events[base + 2];
+                switch (events[base]) {
+                    case KEY_PRESSED:
+                        inputManager.onKeyPressed(a);
+                        break;
+                    case KEY_RELEASED:
+                        inputManager.onKeyReleased(a);
+                        break;
+                    case MOUSE_PRESSED:
+                        inputManager.onMousePressed(a);
+                        break;
+                    case MOUSE_RELEASED:
+                        inputManager.onMouseReleased(a);
+                        break;
+                    default:
+                        inputManager.onMouseMoved(a, b);
+                        break;
+                }
+            }
+            eventCount = 0;
+        }
     }
-    
-    /**
-     * 清理资源
-     */
+
+    @Override
     public void cleanup() {
-        dispose();
+        closed = true;
+        commands.cleanup();
+        layerCache.clear();
+        if (strategy != null) {
+            strategy.dispose();
+            strategy = null;
+        }
+        if (frame != null) {
+            frame.dispose();
+        }
     }
-    
-    // Getters
+
+    @Override
     public int getWidth() {
         return width;
     }
-    
+
+    @Override
     public int getHeight() {
         return height;
     }
 
     /**
-     * 返回实际绘制区域的宽度（GamePanel 的宽度），在窗口可见后此值更准确
+     * 返回实际绘制区域的宽度，在窗口可见后此值更准确
      */
     public int getDrawableWidth() {
-        if (gamePanel != null) return gamePanel.getWidth();
+        if (canvas != null) return canvas.getWidth();
         return width;
     }
 
     /**
-     * 返回实际绘制区域的高度（GamePanel 的高度）
+     * 返回实际绘制区域的高度
      */
     public int getDrawableHeight() {
-        if (gamePanel != null) return gamePanel.getHeight();
+        if (canvas != null) return canvas.getHeight();
         return height;
     }
-    
+
+    @Override
     public String getTitle() {
         return title;
     }
-    
-    /**
-     * 游戏面板类
-     */
-    private class GamePanel extends JPanel {
-        private List<Drawable> drawables = new ArrayList<>();
-        
-        public GamePanel() {
-            setPreferredSize(new Dimension(width, height));
-            setBackground(Color.BLACK);
-        }
-        
-        public void clear() {
-            drawables.clear();
-        }
-        
-        public void addDrawable(Drawable drawable) {
-            drawables.add(drawable);
-        }
-        
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            for (Drawable drawable : drawables) {
-                drawable.draw(g2d);
-            }
-        }
-    }
-    
-    /**
-     * 可绘制对象接口
-     */
-    private interface Drawable {
-        void draw(Graphics2D g);
-    }
-    
-    /**
-     * 矩形绘制类
-     */
-    private static class RectDrawable implements Drawable {
-        private float x, y, width, height;
-        private Color color;
-        
-        public RectDrawable(float x, float y, float width, float height, float r, float g, float b, float a) {
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
-            this.color = new Color(r, g, b, a);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            g.fillRect((int) x, (int) y, (int) width, (int) height);
-        }
-    }
-    
-    /**
-     * 圆形绘制类
-     */
-    private static class CircleDrawable implements Drawable {
-        private float x, y, radius;
-        private Color color;
-        
-        public CircleDrawable(float x, float y, float radius, float r, float g, float b, float a) {
-            this.x = x;
-            this.y = y;
-            this.radius = radius;
-            this.color = new Color(r, g, b, a);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            g.fillOval((int) (x - radius), (int) (y - radius), (int) (radius * 2), (int) (radius * 2));
-        }
-    }
-    
-    /**
-     * 线条绘制类
-     */
-    private static class LineDrawable implements Drawable {
-        private float x1, y1, x2, y2;
-        private Color color;
-        
-        public LineDrawable(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
-            this.x1 = x1;
-            this.y1 = y1;
-            this.x2 = x2;
-            this.y2 = y2;
-            this.color = new Color(r, g, b, a);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            g.drawLine((int) x1, (int) y1, (int) x2, (int) y2);
-        }
-    }
-
-    private static class TextDrawable implements Drawable {
-        private String text;
-        private float x, y;
-        private Color color;
-        private int fontSize;
-
-        public TextDrawable(String text, float x, float y, int fontSize, float r, float g, float b, float a) {
-            this.text = text;
-            this.x = x;
-            this.y = y;
-            this.fontSize = fontSize;
-            this.color = new Color(r, g, b, a);
-        }
-
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            g.setFont(new Font("Arial", Font.BOLD, fontSize));
-            g.drawString(text, (int) x, (int) y);
-        }
-    }
 }
@@ -1,9 +1,34 @@
 package com.gameengine.graphics;
 
+import com.gameengine.core.JobSystem;
+
 public class RendererFactory {
     public static IRenderer createRenderer(RenderBackend backend, int width, int height, String title) {
+        return createRenderer(backend, width, height, title, JobSystem.serial());
+    }
+
+    /**
+     * @param jobSystem 需要并行的后端（软件光栅化）借用的任务系统
+     */
+    public static IRenderer createRenderer(RenderBackend backend, int width, int height, String title,
+                                           JobSystem jobSystem) {
         if (backend == RenderBackend.GPU) {
-            return new GPURenderer(width, height, title);
+            try {
+                return new GPURenderer(width, height, title);
+            } catch (LinkageError e) {
+                // 缺少 LWJGL 本地库时退回 Java2D 后端
+                System.err.println("GPU渲染器不可用（" + e + "），改用 Java2D 渲染器");
+                return new Renderer(width, height, title);
+            }
+        }
+        if (backend == RenderBackend.HEADLESS) {
+            return new NullRenderer(width, height, title);
+        }
+        if (backend == RenderBackend.SOFTWARE) {
+            return new SoftwareRenderer(width, height, title, jobSystem);
+        }
+        if (backend == RenderBackend.JAVA2D) {
+            return new Renderer(width, height, title);
         }
         throw new IllegalArgumentException("不支持的渲染后端: " + backend);
     }
@@ -0,0 +1,531 @@
+package com.gameengine.graphics;
+
+import com.gameengine.core.JobSystem;
+
+import javax.imageio.ImageIO;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 纯 Java 软件光栅化后端：不需要窗口和 GPU，把一帧画进 int[] ARGB 帧缓冲，用于无 GPU 环境下的画面检查和帧截取。
+ *
+ * 绘制调用先记录到命令缓冲，endFrame 时把画面按行切成若干条带，交给任务系统并行光栅化；
+ * 每个条带按记录顺序回放全部命令并只写自己的行，因此结果与串行光栅化逐像素一致。
+ * 混合与 GPURenderer 的 glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA) 相同（包括 alpha 通道），
+ * 按 8 位整数运算。像素中心 (x + 0.5, y + 0.5) 落在图形内即被覆盖；线段按 2.5 像素宽的矩形处理，
+ * 圆按真实圆而不是多边形近似；文字使用与 GPURenderer 相同的字形图集和等宽排版，最近点采样。
+ * 静态图层烘焙成预乘 alpha 的像素缓冲，版本不变时每帧只叠加一次。
+ */
+public class SoftwareRenderer implements IRenderer {
+    // 每个条带的行数
+    private static final int BAND_ROWS = 16;
+    // 与 GPURenderer 的 glClearColor(0.2, 0.2, 0.2, 1) 相同
+    private static final int CLEAR_COLOR = 0xFF333333;
+    private static final float LINE_HALF_WIDTH = 1.25f;
+    private static final int FONT_SIZE = 32;
+    private static final String CHARSET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+-=[]{}|;:,.<>?/~`";
+
+    private final int width;
+    private final int height;
+    private final String title;
+    private final int[] pixels;
+    private final RenderCommandBuffer commands;
+    private final Raster screen;
+    // 静态图层缓存成预乘 alpha 的像素缓冲，版本不变时每帧只做一次叠加
+    private final LayerCache<Raster> layerCache = new LayerCache<>(4, new LayerCache.Backing<Raster>() {
+        @Override
+        public Raster create(StaticLayer.Snapshot layer) {
+            return createLayerRaster(layer);
+        }
+
+        @Override
+        public void bake(Raster image, StaticLayer.Snapshot layer) {
+            bakeLayer(image, layer);
+        }
+
+        @Override
+        public void dispose(Raster image) {
+            // 像素缓冲交给 GC
+        }
+    });
+    private Raster[] frameLayers = new Raster[4];
+    private JobSystem jobSystem;
+    private GlyphAtlas glyphAtlas;
+    private ByteBuffer glyphPixels;
+    private long frameCount;
+    private int maxFrames;
+    private volatile boolean closeRequested;
+
+    public SoftwareRenderer(int width, int height, String title) {
+        this(width, height, title, JobSystem.serial());
+    }
+
+    public SoftwareRenderer(int width, int height, String title, JobSystem jobSystem) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+        this.pixels = new int[width * height];
+        this.screen = new Raster(pixels, width, height, false);
+        this.commands = new RenderCommandBuffer(width, height, title);
+        this.jobSystem = jobSystem != null ? jobSystem : JobSystem.serial();
+        Arrays.fill(pixels, CLEAR_COLOR);
+    }
+
+    /**
+     * 条带并行使用的任务系统；传入 {@link JobSystem#serial()} 即串行光栅化
+     */
+    public void setJobSystem(JobSystem jobSystem) {
+        this.jobSystem = jobSystem != null ? jobSystem : JobSystem.serial();
+    }
+
+    @Override
+    public void beginFrame() {
+        commands.reset();
+    }
+
+    @Override
+    public void endFrame() {
+        prepareLayers();
+        int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        jobSystem.parallelFor(0, bands, 1, (start, end) -> {
+            for (int band = start; band < end; band++) {
+                rasterizeBand(band * BAND_ROWS, Math.min(height, (band + 1) * BAND_ROWS));
+            }
+        });
+        frameCount++;
+        if (maxFrames > 0 && frameCount >= maxFrames) {
+            closeRequested = true;
+        }
+    }
+
+    @Override
+    public void drawRect(float x, float y, float w, float h, float r, float g, float b, float a) {
+        commands.drawRect(x, y, w, h, r, g, b, a);
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        commands.drawCircle(x, y, radius, segments, r, g, b, a);
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        commands.drawLine(x1, y1, x2, y2, r, g, b, a);
+    }
+
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        ensureGlyphAtlas();
+        commands.drawText(x, y, text, r, g, b, a);
+    }
+
+    // 第一次画文字时才初始化 AWT 字体（或读取图集缓存）
+    private void ensureGlyphAtlas() {
+        if (glyphAtlas == null) {
+            glyphAtlas = GlyphAtlasCache.loadOrRasterize(new Font(Font.MONOSPACED, Font.BOLD, FONT_SIZE), FONT_SIZE, CHARSET);
+            glyphPixels = glyphAtlas.getPixels();
+        }
+    }
+
+    @Override
+    public void drawLayer(StaticLayer.Snapshot layer) {
+        commands.drawLayer(layer);
+    }
+
+    @Override
+    public void drawRects(float[] instances, int count) {
+        commands.drawRects(instances, count);
+    }
+
+    @Override
+    public void drawCircles(float[] instances, int count, int segments) {
+        commands.drawCircles(instances, count, segments);
+    }
+
+    @Override
+    public void drawLines(float[] instances, int count) {
+        commands.drawLines(instances, count);
+    }
+
+    // 清空 [y0, y1) 行后按回放顺序回放全部命令，只写这些行
+    private void rasterizeBand(int y0, int y1) {
+        Arrays.fill(pixels, y0 * width, y1 * width, CLEAR_COLOR);
+        screen.replay(commands, y0, y1, frameLayers);
+    }
+
+    // 在光栅化条带之前整理回放顺序并烘焙本帧用到的图层（版本未变的直接取缓存），按回放顺序放进 frameLayers
+    private void prepareLayers() {
+        commands.sortByKey();
+        int n = 0;
+        for (int k = 0, count = commands.size(); k < count; k++) {
+            int i = commands.getOrderedIndex(k);
+            if (commands.getOp(i) != RenderCommandBuffer.OP_LAYER) continue;
+            if (n == frameLayers.length) {
+                frameLayers = Arrays.copyOf(frameLayers, n * 2);
+            }
+            frameLayers[n++] = layerCache.acquire(commands.getLayer(i));
+        }
+        Arrays.fill(frameLayers, n, frameLayers.length, null);
+    }
+
+    private Raster createLayerRaster(StaticLayer.Snapshot layer) {
+        return new Raster(new int[layer.getWidth() * layer.getHeight()], layer.getWidth(), layer.getHeight(), true);
+    }
+
+    // 图层从全透明开始按预乘 alpha 烘焙，条带同样并行
+    private void bakeLayer(Raster raster, StaticLayer.Snapshot layer) {
+        RenderCommandBuffer content = layer.getCommands();
+        content.sortByKey();
+        if (containsText(content)) {
+            ensureGlyphAtlas();
+        }
+        int bands = (raster.height + BAND_ROWS - 1) / BAND_ROWS;
+        jobSystem.parallelFor(0, bands, 1, (start, end) -> {
+            for (int band = start; band < end; band++) {
+                int y0 = band * BAND_ROWS;
+                int y1 = Math.min(raster.height, y0 + BAND_ROWS);
+                Arrays.fill(raster.pixels, y0 * raster.width, y1 * raster.width, 0);
+                raster.replay(content, y0, y1, null);
+            }
+        });
+    }
+
+    private static boolean containsText(RenderCommandBuffer content) {
+        for (int i = 0, n = content.size(); i < n; i++) {
+            byte op = content.getOp(i);
+            if (op == RenderCommandBuffer.OP_TEXT
+                || (op == RenderCommandBuffer.OP_LAYER && containsText(content.getLayer(i).getCommands()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 累计烘焙静态图层的次数
+     */
+    public int getLayerBakeCount() {
+        return layerCache.getBakeCount();
+    }
+
+    // 覆盖像素中心在 [left, right) 内的像素下标
+    private static int firstCovered(float edge) {
+        return (int) Math.ceil(edge - 0.5f);
+    }
+
+    /**
+     * 一块 ARGB 像素缓冲及其上的光栅化操作：屏幕帧缓冲按 SRC_ALPHA 混合（与 GPU 一致），
+     * 图层缓冲按预乘 alpha 混合，合成到屏幕时再按 (ONE, ONE_MINUS_SRC_ALPHA) 叠加
+     */
+    private final class Raster {
+        final int[] pixels;
+        final int width;
+        final int height;
+        final boolean premultiplied;
+
+        Raster(int[] pixels, int width, int height, boolean premultiplied) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.premultiplied = premultiplied;
+        }
+
+        // 按排序键决定的回放顺序（须已 sortByKey）回放命令，只写 [y0, y1) 行；layerImages 为各 OP_LAYER
+        // 按回放顺序依次对应的已烘焙图层，为 null 时（烘焙图层本身时）嵌套的图层直接展开回放
+        void replay(RenderCommandBuffer commands, int y0, int y1, Raster[] layerImages) {
+            float[] uv = new float[4];
+            int layerIndex = 0;
+            for (int k = 0, n = commands.size(); k < n; k++) {
+                int i = commands.getOrderedIndex(k);
+                byte op = commands.getOp(i);
+                if (op == RenderCommandBuffer.OP_LAYER) {
+                    if (layerImages == null) {
+                        replay(commands.getLayer(i).getCommands(), y0, y1, null);
+                    } else if (layerImages[layerIndex] != null) {
+                        composite(y0, y1, layerImages[layerIndex]);
+                    }
+                    layerIndex++;
+                    continue;
+                }
+                float a0 = commands.getArg(i, 0);
+                float a1 = commands.getArg(i, 1);
+                float a2 = commands.getArg(i, 2);
+                float a3 = commands.getArg(i, 3);
+                int r = channel(commands.getArg(i, 4));
+                int g = channel(commands.getArg(i, 5));
+                int b = channel(commands.getArg(i, 6));
+                int a = channel(commands.getArg(i, 7));
+                if (a == 0) continue;
+                switch (op) {
+                    case RenderCommandBuffer.OP_RECT:
+                        fillRect(y0, y1, a0, a1, a0 + a2, a1 + a3, r, g, b, a);
+                        break;
+                    case RenderCommandBuffer.OP_CIRCLE:
+                        fillCircle(y0, y1, a0 + a2 * 0.5f, a1 + a3 * 0.5f, a2 * 0.5f, r, g, b, a);
+                        break;
+                    case RenderCommandBuffer.OP_LINE:
+                        fillLine(y0, y1, a0, a1, a0 + a2, a1 + a3, r, g, b, a);
+                        break;
+                    case RenderCommandBuffer.OP_TEXT:
+                        fillText(y0, y1, a0, a1, commands.getText(i), r, g, b, a, uv);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        // 预乘 alpha 的图层叠加到 [y0, y1) 行：dst = src + dst * (1 - srcA)
+        private void composite(int y0, int y1, Raster layer) {
+            int rowEnd = Math.min(y1, layer.height);
+            int cols = Math.min(width, layer.width);
+            for (int y = y0; y < rowEnd; y++) {
+                int src = y * layer.width;
+                int dst = y * width;
+                for (int x = 0; x < cols; x++) {
+                    int p = layer.pixels[src + x];
+                    int sa = p >>> 24;
+                    if (sa == 255) {
+                        pixels[dst + x] = p;
+                    } else if (sa != 0) {
+                        int q = pixels[dst + x];
+                        int inv = 255 - sa;
+                        int oa = sa + ((q >>> 24) * inv + 127) / 255;
+                        int or = ((p >> 16) & 0xFF) + (((q >> 16) & 0xFF) * inv + 127) / 255;
+                        int og = ((p >> 8) & 0xFF) + (((q >> 8) & 0xFF) * inv + 127) / 255;
+                        int ob = (p & 0xFF) + ((q & 0xFF) * inv + 127) / 255;
+                        pixels[dst + x] = (Math.min(255, oa) << 24) | (Math.min(255, or) << 16)
+                            | (Math.min(255, og) << 8) | Math.min(255, ob);
+                    }
+                }
+            }
+        }
+
+        private void fillRect(int y0, int y1, float left, float top, float right, float bottom, int r, int g, int b, int a) {
+            int rowStart = Math.max(y0, firstCovered(top));
+            int rowEnd = Math.min(y1, firstCovered(bottom));
+            int colStart = Math.max(0, firstCovered(left));
+            int colEnd = Math.min(width, firstCovered(right));
+            for (int y = rowStart; y < rowEnd; y++) {
+                span(y, colStart, colEnd, r, g, b, a);
+            }
+        }
+
+        private void fillCircle(int y0, int y1, float cx, float cy, float radius, int r, int g, int b, int a) {
+            if (radius <= 0) return;
+            int rowStart = Math.max(y0, firstCovered(cy - radius));
+            int rowEnd = Math.min(y1, firstCovered(cy + radius) + 1);
+            float r2 = radius * radius;
+            for (int y = rowStart; y < rowEnd; y++) {
+                float dy = y + 0.5f - cy;
+                float rest = r2 - dy * dy;
+                if (rest < 0) continue;
+                float half = (float) Math.sqrt(rest);
+                span(y, Math.max(0, firstCovered(cx - half)), Math.min(width, firstCovered(cx + half)), r, g, b, a);
+            }
+        }
+
+        // 线段扩成宽 2.5 像素的矩形（四边形），逐行求与四条边的交点区间
+        private void fillLine(int y0, int y1, float x1, float ly1, float x2, float ly2, int r, int g, int b, int a) {
+            float dx = x2 - x1;
+            float dy = ly2 - ly1;
+            float len = (float) Math.sqrt(dx * dx + dy * dy);
+            if (len < 1e-4f) return;
+            float nx = -dy / len * LINE_HALF_WIDTH;
+            float ny = dx / len * LINE_HALF_WIDTH;
+            float px0 = x1 + nx, py0 = ly1 + ny;
+            float px1 = x2 + nx, py1 = ly2 + ny;
+            float px2 = x2 - nx, py2 = ly2 - ny;
+            float px3 = x1 - nx, py3 = ly1 - ny;
+            float minY = Math.min(Math.min(py0, py1), Math.min(py2, py3));
+            float maxY = Math.max(Math.max(py0, py1), Math.max(py2, py3));
+            int rowStart = Math.max(y0, firstCovered(minY));
+            int rowEnd = Math.min(y1, firstCovered(maxY));
+            for (int y = rowStart; y < rowEnd; y++) {
+                float cy = y + 0.5f;
+                float c0 = crossX(px0, py0, px1, py1, cy);
+                float c1 = crossX(px1, py1, px2, py2, cy);
+                float c2 = crossX(px2, py2, px3, py3, cy);
+                float c3 = crossX(px3, py3, px0, py0, cy);
+                // 凸四边形与水平线恰有两个交点，不相交的边为 NaN，min/max 时跳过
+                float lo = minIgnoringNaN(minIgnoringNaN(c0, c1), minIgnoringNaN(c2, c3));
+                float hi = maxIgnoringNaN(maxIgnoringNaN(c0, c1), maxIgnoringNaN(c2, c3));
+                if (lo < hi) {
+                    span(y, Math.max(0, firstCovered(lo)), Math.min(width, firstCovered(hi)), r, g, b, a);
+                }
+            }
+        }
+
+        // 与 GPURenderer.drawText 相同的排版：字宽 0.6 × 字号，字距 1，空格前进半个字宽
+        private void fillText(int y0, int y1, float x, float y, String text, int r, int g, int b, int a, float[] uv) {
+            if (text == null || glyphAtlas == null) return;
+            float charWidth = FONT_SIZE * 0.6f;
+            float charHeight = FONT_SIZE;
+            int rowStart = Math.max(y0, firstCovered(y));
+            int rowEnd = Math.min(y1, firstCovered(y + charHeight));
+            if (rowStart >= rowEnd) return;
+            int atlasWidth = glyphAtlas.getWidth();
+            int atlasHeight = glyphAtlas.getHeight();
+            float currentX = x;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ' ') {
+                    currentX += charWidth * 0.5f;
+                    continue;
+                }
+                if (glyphAtlas.getGlyphUV(c, uv, 0)) {
+                    int colStart = Math.max(0, firstCovered(currentX));
+                    int colEnd = Math.min(width, firstCovered(currentX + charWidth));
+                    for (int py = rowStart; py < rowEnd; py++) {
+                        float v = uv[1] + (py + 0.5f - y) / charHeight * (uv[3] - uv[1]);
+                        int ty = Math.min(atlasHeight - 1, (int) (v * atlasHeight));
+                        for (int px = colStart; px < colEnd; px++) {
+                            float u = uv[0] + (px + 0.5f - currentX) / charWidth * (uv[2] - uv[0]);
+                            int tx = Math.min(atlasWidth - 1, (int) (u * atlasWidth));
+                            int coverage = glyphPixels.get((ty * atlasWidth + tx) * 4 + 3) & 0xFF;
+                            if (coverage != 0) {
+                                blend(py * width + px, r, g, b, (a * coverage + 127) / 255);
+                            }
+                        }
+                    }
+                }
+                currentX += charWidth + 1.0f;
+            }
+        }
+
+        // 调用方只从下方截断了起点，整个在画面右侧的图形会给出 x0 >= width，这里一并跳过
+        private void span(int y, int x0, int x1, int r, int g, int b, int a) {
+            if (x0 >= x1) return;
+            int row = y * width;
+            if (a == 255) {
+                Arrays.fill(pixels, row + x0, row + x1, 0xFF000000 | (r << 16) | (g << 8) | b);
+                return;
+            }
+            for (int x = x0; x < x1; x++) {
+                blend(row + x, r, g, b, a);
+            }
+        }
+
+        // dst = src * a + dst * (1 - a)；屏幕的 alpha 通道同样按 (SRC_ALPHA, ONE_MINUS_SRC_ALPHA) 混合，
+        // 预乘图层的 alpha 通道按 (ONE, ONE_MINUS_SRC_ALPHA) 累积
+        private void blend(int index, int r, int g, int b, int a) {
+            int dst = pixels[index];
+            int inv = 255 - a;
+            int da = dst >>> 24;
+            int dr = (dst >> 16) & 0xFF;
+            int dg = (dst >> 8) & 0xFF;
+            int db = dst & 0xFF;
+            int oa = premultiplied ? a + (da * inv + 127) / 255 : (a * a + da * inv + 127) / 255;
+            int or = (r * a + dr * inv + 127) / 255;
+            int og = (g * a + dg * inv + 127) / 255;
+            int ob = (b * a + db * inv + 127) / 255;
+            pixels[index] = (oa << 24) | (or << 16) | (og << 8) | ob;
+        }
+    }
+
+    private static float minIgnoringNaN(float p, float q) {
+        if (Float.isNaN(p)) return q;
+        if (Float.isNaN(q)) return p;
+        return Math.min(p, q);
+    }
+
+    private static float maxIgnoringNaN(float p, float q) {
+        if (Float.isNaN(p)) return q;
+        if (Float.isNaN(q)) return p;
+        return Math.max(p, q);
+    }
+
+    // 边 (xa, ya)-(xb, yb) 与水平线 y 的交点 x；不相交时返回 NaN
+    private static float crossX(float xa, float ya, float xb, float yb, float y) {
+        if ((y < ya) == (y < yb)) return Float.NaN;
+        return xa + (y - ya) * (xb - xa) / (yb - ya);
+    }
+
+    private static int channel(float v) {
+        if (v <= 0f) return 0;
+        if (v >= 1f) return 255;
+        return (int) (v * 255f + 0.5f);
+    }
+
+    /**
+     * 上一次 endFrame 完成的帧缓冲（ARGB，按行存放），下次 endFrame 前保持不变
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    public int getPixel(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    /**
+     * 把当前帧复制成 BufferedImage
+     */
+    public BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        return image;
+    }
+
+    /**
+     * 把当前帧保存为 PNG
+     */
+    public void writePng(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录: " + parent);
+        }
+        ImageIO.write(toImage(), "png", file);
+    }
+
+    /**
+     * 渲染满指定帧数后自动请求退出，0 表示不限制
+     */
+    public void setMaxFrames(int maxFrames) {
+        this.maxFrames = Math.max(0, maxFrames);
+    }
+
+    public void requestClose() {
+        closeRequested = true;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return closeRequested;
+    }
+
+    @Override
+    public void pollEvents() {
+        // 没有窗口，也就没有输入事件
+    }
+
+    @Override
+    public void cleanup() {
+        commands.cleanup();
+        layerCache.clear();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+}
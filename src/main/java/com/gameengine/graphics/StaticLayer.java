@@ -0,0 +1,139 @@
+package com.gameengine.graphics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 静态图层：背景、装饰等不动的图元录制一次，由后端缓存成一张离屏图像
+ * （GPU 为帧缓冲纹理，软件后端为像素缓冲，Java2D 为 BufferedImage），之后每帧只画一次缓存，
+ * 开销与图层内的图元数无关。内容变化时 {@link #invalidate()}，下次重新录制并发布新版本，
+ * 后端发现版本变化才重新烘焙。
+ *
+ * 图层覆盖绘制坐标中的 [0, width) x [0, height)。发布出去的 {@link Snapshot} 不再修改，
+ * 命令缓冲只引用快照，渲染线程回放旧帧时游戏线程可以放心地录制新内容。
+ */
+public class StaticLayer {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final int width;
+    private final int height;
+    private RenderCommandBuffer recording;
+    private Snapshot snapshot;
+    private int version;
+    private boolean dirty = true;
+
+    public StaticLayer(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 标记内容已变化，持有者应在下一帧重新录制
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * 是否需要重新录制（新建后或 {@link #invalidate()} 之后）
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * 开始录制新内容，返回的渲染器只在 {@link #end()} 之前有效
+     */
+    public IRenderer begin() {
+        recording = new RenderCommandBuffer(width, height, "layer-" + id);
+        return recording;
+    }
+
+    /**
+     * 结束录制并发布新版本的快照
+     */
+    public Snapshot end() {
+        if (recording == null) {
+            throw new IllegalStateException("图层未开始录制");
+        }
+        // 快照发布后只读，先整理好回放顺序，后端可以并行按顺序读取
+        recording.sortByKey();
+        snapshot = new Snapshot(id, ++version, width, height, recording);
+        recording = null;
+        dirty = false;
+        return snapshot;
+    }
+
+    /**
+     * 把命令缓冲中 [from, to) 的命令复制为新版本的内容并发布，用于把已经录好的一段画面冻结成图层
+     */
+    public Snapshot capture(RenderCommandBuffer source, int from, int to) {
+        recording = new RenderCommandBuffer(width, height, "layer-" + id, to - from);
+        source.copyTo(recording, from, to);
+        return end();
+    }
+
+    /**
+     * 最近发布的快照，从未录制时为 null
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * 图层某一版本的内容，发布后不再修改
+     */
+    public static final class Snapshot {
+        private final int id;
+        private final int version;
+        private final int width;
+        private final int height;
+        private final RenderCommandBuffer commands;
+
+        Snapshot(int id, int version, int width, int height, RenderCommandBuffer commands) {
+            this.id = id;
+            this.version = version;
+            this.width = width;
+            this.height = height;
+            this.commands = commands;
+        }
+
+        /**
+         * 所属图层的编号，后端按它缓存离屏图像
+         */
+        public int getId() {
+            return id;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * 图层内容；只用于回放，不要再写入
+         */
+        public RenderCommandBuffer getCommands() {
+            return commands;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.gameengine.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * 顶点批处理：矩形、圆、线段和字形写入一个常驻的直接 FloatBuffer，
+ * 图元类型改变、缓冲写满或调用方显式 flush（如帧结束）时才向 {@link VertexSink} 提交一次。
+ * 形状使用 {@link #setSolidUV} 指定的纹理坐标（图集里的白色块），因此可以和文字共用批次。
+ * 写入过程不产生分配。
+ */
+public class VertexBatcher {
+    // 与 GL_LINES / GL_TRIANGLES 的取值相同
+    public static final int LINES = 0x0001;
+    public static final int TRIANGLES = 0x0004;
+    public static final int FLOATS_PER_VERTEX = 8;
+
+    private static final int DEFAULT_MAX_VERTICES = 6 * 4096;
+    // 常用分段数的单位圆表，避免每次画圆都算 cos/sin
+    private static final int MAX_CACHED_SEGMENTS = 128;
+
+    private final VertexSink sink;
+    private final FloatBuffer vertices;
+    private final int maxVertices;
+    private int vertexCount;
+    private int primitive = TRIANGLES;
+    private final float[][] circleTables = new float[MAX_CACHED_SEGMENTS + 1][];
+    private float solidU;
+    private float solidV;
+    private int frameFlushes;
+    private long totalFlushes;
+
+    public VertexBatcher(VertexSink sink) {
+        this(sink, DEFAULT_MAX_VERTICES);
+    }
+
+    public VertexBatcher(VertexSink sink, int maxVertices) {
+        this.sink = sink;
+        // 三角形和线段都能整批放下
+        this.maxVertices = Math.max(6, maxVertices - maxVertices % 6);
+        this.vertices = ByteBuffer.allocateDirect(this.maxVertices * FLOATS_PER_VERTEX * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+    }
+
+    /**
+     * 形状顶点使用的纹理坐标
+     */
+    public void setSolidUV(float u, float v) {
+        this.solidU = u;
+        this.solidV = v;
+    }
+
+    public void quad(float x, float y, float w, float h, float r, float g, float b, float a) {
+        texturedQuad(x, y, w, h, solidU, solidV, solidU, solidV, r, g, b, a);
+    }
+
+    /**
+     * 带纹理坐标的矩形，(u0, v0) 对应左上角，(u1, v1) 对应右下角
+     */
+    public void texturedQuad(float x, float y, float w, float h, float u0, float v0, float u1, float v1,
+                             float r, float g, float b, float a) {
+        begin(TRIANGLES, 6);
+        vertex(x, y, u0, v0, r, g, b, a);
+        vertex(x + w, y, u1, v0, r, g, b, a);
+        vertex(x + w, y + h, u1, v1, r, g, b, a);
+        vertex(x, y, u0, v0, r, g, b, a);
+        vertex(x + w, y + h, u1, v1, r, g, b, a);
+        vertex(x, y + h, u0, v1, r, g, b, a);
+    }
+
+    public void circle(float cx, float cy, float radius, int segments, float r, float g, float b, float a) {
+        if (segments < 3) return;
+        float[] table = circleTable(segments);
+        float prevX = cx + radius;
+        float prevY = cy;
+        for (int s = 1; s <= segments; s++) {
+            float px;
+            float py;
+            if (table != null) {
+                px = cx + radius * table[s * 2];
+                py = cy + radius * table[s * 2 + 1];
+            } else {
+                double angle = s * 2.0 * Math.PI / segments;
+                px = cx + (float) (radius * Math.cos(angle));
+                py = cy + (float) (radius * Math.sin(angle));
+            }
+            begin(TRIANGLES, 3);
+            vertex(cx, cy, solidU, solidV, r, g, b, a);
+            vertex(prevX, prevY, solidU, solidV, r, g, b, a);
+            vertex(px, py, solidU, solidV, r, g, b, a);
+            prevX = px;
+            prevY = py;
+        }
+    }
+
+    public void line(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        begin(LINES, 2);
+        vertex(x1, y1, solidU, solidV, r, g, b, a);
+        vertex(x2, y2, solidU, solidV, r, g, b, a);
+    }
+
+    // 切换图元类型或空间不足时先提交已有顶点
+    private void begin(int mode, int needed) {
+        if (mode != primitive) {
+            flush();
+            primitive = mode;
+        } else if (vertexCount + needed > maxVertices) {
+            flush();
+        }
+    }
+
+    private void vertex(float x, float y, float u, float v, float r, float g, float b, float a) {
+        int base = vertexCount * FLOATS_PER_VERTEX;
+        vertices.put(base, x);
+        vertices.put(base + 1, y);
+        vertices.put(base + 2, u);
+        vertices.put(base + 3, v);
+        vertices.put(base + 4, r);
+        vertices.put(base + 5, g);
+        vertices.put(base + 6, b);
+        vertices.put(base + 7, a);
+        vertexCount++;
+    }
+
+    /**
+     * 提交已写入的顶点；没有顶点时什么都不做
+     */
+    public void flush() {
+        if (vertexCount == 0) return;
+        vertices.position(0);
+        vertices.limit(vertexCount * FLOATS_PER_VERTEX);
+        sink.submit(primitive, vertices, vertexCount);
+        vertices.clear();
+        vertexCount = 0;
+        frameFlushes++;
+        totalFlushes++;
+    }
+
+    /**
+     * 开始新的一帧，重置本帧提交计数
+     */
+    public void beginFrame() {
+        frameFlushes = 0;
+    }
+
+    public int getFrameFlushCount() {
+        return frameFlushes;
+    }
+
+    public long getTotalFlushCount() {
+        return totalFlushes;
+    }
+
+    public int getPendingVertexCount() {
+        return vertexCount;
+    }
+
+    private float[] circleTable(int segments) {
+        if (segments > MAX_CACHED_SEGMENTS) return null;
+        float[] table = circleTables[segments];
+        if (table == null) {
+            table = new float[(segments + 1) * 2];
+            for (int s = 0; s <= segments; s++) {
+                double angle = s * 2.0 * Math.PI / segments;
+                table[s * 2] = (float) Math.cos(angle);
+                table[s * 2 + 1] = (float) Math.sin(angle);
+            }
+            circleTables[segments] = table;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,42 @@
+package com.gameengine.graphics;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 顶点批次的提交目标。{@link VertexBatcher} 每次 flush 调用一次 submit；
+ * GPU 后端用 VBO 实现，测试和基准可以换成只计数的实现，不需要 GL 上下文。
+ */
+public interface VertexSink {
+    /**
+     * 提交 [0, vertexCount) 个顶点，每个顶点按 {@link VertexBatcher#FLOATS_PER_VERTEX} 个 float 打包 (x, y, u, v, r, g, b, a)
+     * @param primitive {@link VertexBatcher#TRIANGLES} 或 {@link VertexBatcher#LINES}
+     */
+    void submit(int primitive, FloatBuffer vertices, int vertexCount);
+
+    /**
+     * 只统计提交次数和顶点数的实现
+     */
+    class Counting implements VertexSink {
+        private long submits;
+        private long vertices;
+
+        @Override
+        public void submit(int primitive, FloatBuffer data, int vertexCount) {
+            submits++;
+            vertices += vertexCount;
+        }
+
+        public long getSubmitCount() {
+            return submits;
+        }
+
+        public long getVertexCount() {
+            return vertices;
+        }
+
+        public void reset() {
+            submits = 0;
+            vertices = 0;
+        }
+    }
+}
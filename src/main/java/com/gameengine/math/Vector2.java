@@ -72,6 +72,109 @@ public class Vector2 {
         return this.subtract(other).magnitude();
     }
     
+    /**
+     * 距离的平方（避免开方）
+     */
+    public float distanceSq(Vector2 other) {
+        return distanceSq(other.x, other.y);
+    }
+    
+    /**
+     * 到点 (x, y) 距离的平方
+     */
+    public float distanceSq(float x, float y) {
+        float dx = this.x - x;
+        float dy = this.y - y;
+        return dx * dx + dy * dy;
+    }
+    
+    /**
+     * 长度的平方
+     */
+    public float lengthSq() {
+        return x * x + y * y;
+    }
+    
+    // 原地修改的版本：不分配新对象，返回 this 以便链式调用
+    
+    /**
+     * 设置分量
+     */
+    public Vector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+    
+    /**
+     * 复制另一个向量的分量
+     */
+    public Vector2 set(Vector2 other) {
+        this.x = other.x;
+        this.y = other.y;
+        return this;
+    }
+    
+    /**
+     * 原地加法
+     */
+    public Vector2 addLocal(Vector2 other) {
+        this.x += other.x;
+        this.y += other.y;
+        return this;
+    }
+    
+    /**
+     * 原地加法
+     */
+    public Vector2 addLocal(float x, float y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+    
+    /**
+     * 原地减法
+     */
+    public Vector2 subtractLocal(Vector2 other) {
+        this.x -= other.x;
+        this.y -= other.y;
+        return this;
+    }
+    
+    /**
+     * 原地标量乘法
+     */
+    public Vector2 scaleLocal(float scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        return this;
+    }
+    
+    /**
+     * 原地加上 other * scalar（常用于 v += a * dt）
+     */
+    public Vector2 addScaledLocal(Vector2 other, float scalar) {
+        this.x += other.x * scalar;
+        this.y += other.y * scalar;
+        return this;
+    }
+    
+    /**
+     * 原地标准化，零向量保持为零
+     */
+    public Vector2 normalizeLocal() {
+        float mag = magnitude();
+        if (mag == 0) {
+            this.x = 0;
+            this.y = 0;
+        } else {
+            this.x /= mag;
+            this.y /= mag;
+        }
+        return this;
+    }
+    
     @Override
     public String toString() {
         return String.format("Vector2(%.2f, %.2f)", x, y);
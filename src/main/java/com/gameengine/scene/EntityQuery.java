@@ -0,0 +1,123 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.ComponentTypes;
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 场景内的实时查询视图：包含同时拥有一组组件类型的全部游戏对象。
+ * 由 Scene 在对象加入、移除或组件变化时增量维护，调用方按下标遍历即可，无需每帧分配。
+ */
+public final class EntityQuery {
+    private final Set<Class<?>> componentTypes;
+    private final int[] typeIds;
+    private final ArrayList<GameObject> matches;
+    private final List<GameObject> readOnlyView;
+    private final IdentityHashMap<GameObject, Boolean> members;
+    private boolean stale;
+
+    EntityQuery(Set<Class<?>> componentTypes) {
+        this.componentTypes = Collections.unmodifiableSet(componentTypes);
+        this.typeIds = new int[componentTypes.size()];
+        int i = 0;
+        for (Class<?> type : componentTypes) {
+            typeIds[i++] = ComponentTypes.idOf(type);
+        }
+        this.matches = new ArrayList<>();
+        this.readOnlyView = Collections.unmodifiableList(matches);
+        this.members = new IdentityHashMap<>();
+    }
+
+    /**
+     * 匹配的对象数量
+     */
+    public int size() {
+        return matches.size();
+    }
+
+    public boolean isEmpty() {
+        return matches.isEmpty();
+    }
+
+    /**
+     * 按下标获取匹配对象（顺序与加入场景的顺序一致）
+     */
+    public GameObject get(int index) {
+        return matches.get(index);
+    }
+
+    /**
+     * 只读的实时列表视图，不复制
+     */
+    public List<GameObject> asList() {
+        return readOnlyView;
+    }
+
+    public Set<Class<?>> getComponentTypes() {
+        return componentTypes;
+    }
+
+    /**
+     * 判断对象当前是否拥有查询要求的全部组件
+     */
+    public boolean matches(GameObject obj) {
+        for (int typeId : typeIds) {
+            if (!obj.hasComponentType(typeId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void offer(GameObject obj) {
+        if (matches(obj) && members.put(obj, Boolean.TRUE) == null) {
+            matches.add(obj);
+        }
+    }
+
+    /**
+     * 组件变化后重新判定成员关系；移除的对象在 {@link #compact()} 时才真正从列表删除
+     */
+    void refresh(GameObject obj) {
+        if (matches(obj)) {
+            if (!members.containsKey(obj)) {
+                // 先清掉可能残留的旧条目，避免同一对象重复出现
+                compact();
+                members.put(obj, Boolean.TRUE);
+                matches.add(obj);
+            }
+        } else if (members.remove(obj) != null) {
+            stale = true;
+        }
+    }
+
+    void removeAll(Set<GameObject> removed) {
+        for (GameObject obj : removed) {
+            if (members.remove(obj) != null) {
+                stale = true;
+            }
+        }
+        compact();
+    }
+
+    /**
+     * 一次性压缩掉已失效的成员，保持其余对象的相对顺序
+     */
+    void compact() {
+        if (stale) {
+            matches.removeIf(obj -> !members.containsKey(obj));
+            stale = false;
+        }
+    }
+
+    void clear() {
+        matches.clear();
+        members.clear();
+        stale = false;
+    }
+}
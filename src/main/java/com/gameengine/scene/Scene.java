@@ -1,21 +1,60 @@
 package com.gameengine.scene;
 
+import com.gameengine.components.BodyStore;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
 import com.gameengine.core.GameObject;
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentTypes;
+import com.gameengine.core.FrameProfiler;
+import com.gameengine.core.JobSystem;
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.RenderBatch;
+import com.gameengine.graphics.RenderCommandBuffer;
+import com.gameengine.graphics.StaticLayer;
 // 移除具体游戏逻辑的import
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 场景类，管理游戏对象和组件
  */
 public class Scene {
+    private static final int RENDER_TYPE = ComponentTypes.idOf(RenderComponent.class);
     private String name;
     private List<GameObject> gameObjects;
     private List<GameObject> objectsToAdd;
     private List<GameObject> objectsToRemove;
     private boolean initialized;
-    // 移除未使用的组件索引
+    // 按组件类型集合索引的实时查询视图
+    private final Map<Set<Class<?>>, EntityQuery> queries;
+    private final List<EntityQuery> queryList;
+    private final List<GameObject> changedObjects;
+    private final Set<GameObject> pendingRemoval;
+    // 可选的刚体 SoA 存储，启用后同时拥有变换和物理组件的对象会绑定到其中一行
+    private BodyStore bodyStore;
+    // 由 GameEngine 注入的共享任务系统，未挂到引擎时串行执行
+    private JobSystem jobSystem = JobSystem.serial();
+    // 由 GameEngine 注入的帧分析器，未挂到引擎时不计时
+    private FrameProfiler profiler = FrameProfiler.disabled();
+    // 固定步长模式下当前渲染帧处于两次模拟之间的位置（0..1），可变步长时恒为 1
+    private float interpolationAlpha = 1f;
+    // RenderComponent 的图元先收集到这里，场景遍历结束后按类型批量提交
+    private final RenderBatch renderBatch = new RenderBatch();
+    // 世界空间视口，默认不裁剪；GameEngine 切换场景时设为窗口大小
+    private float viewMinX = Float.NEGATIVE_INFINITY;
+    private float viewMinY = Float.NEGATIVE_INFINITY;
+    private float viewMaxX = Float.POSITIVE_INFINITY;
+    private float viewMaxY = Float.POSITIVE_INFINITY;
+    private int culledCount;
+    // 由 GameEngine 注入的渲染器；有渲染器时背景和静态对象烘焙进静态图层，每帧只画一次
+    private IRenderer renderer;
+    private StaticLayer staticLayer;
+    // 冻结帧：暂停、游戏结束时截取的整帧世界画面，冻结期间每帧只画这一张图层；
+    // 截取依赖命令缓冲，渲染器不是命令缓冲时 frozenLayer 为 null，冻结请求被忽略
+    private StaticLayer frozenLayer;
+    private StaticLayer.Snapshot frozenFrame;
+    private boolean freezeRequested;
     
     public Scene(String name) {
         this.name = name;
@@ -23,7 +62,10 @@ public class Scene {
         this.objectsToAdd = new ArrayList<>();
         this.objectsToRemove = new ArrayList<>();
         this.initialized = false;
-        // 移除组件索引初始化
+        this.queries = new HashMap<>();
+        this.queryList = new ArrayList<>();
+        this.changedObjects = new ArrayList<>();
+        this.pendingRemoval = Collections.newSetFromMap(new IdentityHashMap<>());
     }
     
     /**
@@ -40,9 +82,16 @@ public class Scene {
      * 更新场景
      */
     public void update(float deltaTime) {
-        // 添加新对象
-        for (GameObject obj : objectsToAdd) {
+        // 添加新对象（initialize 中可能继续添加，按下标遍历）
+        for (int i = 0; i < objectsToAdd.size(); i++) {
+            GameObject obj = objectsToAdd.get(i);
             gameObjects.add(obj);
+            obj.setScene(this);
+            for (EntityQuery query : queryList) {
+                query.offer(obj);
+            }
+            bindBody(obj);
+            noteStatic(obj);
             if (initialized) {
                 obj.initialize();
             }
@@ -50,34 +99,330 @@ public class Scene {
         objectsToAdd.clear();
         
         // 移除标记的对象
-        for (GameObject obj : objectsToRemove) {
-            gameObjects.remove(obj);
-        }
+        pendingRemoval.addAll(objectsToRemove);
         objectsToRemove.clear();
+        flushRemovals();
+        applyComponentChanges();
         
-        // 更新所有活跃的游戏对象
-        Iterator<GameObject> iterator = gameObjects.iterator();
-        while (iterator.hasNext()) {
-            GameObject obj = iterator.next();
+        // 更新所有活跃的游戏对象，失活对象在遍历后统一移除
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
             if (obj.isActive()) {
                 obj.update(deltaTime);
             } else {
-                iterator.remove();
+                pendingRemoval.add(obj);
+            }
+        }
+        flushRemovals();
+    }
+    
+    /**
+     * 对象组件发生变化（添加组件或销毁）时由 GameObject 回调；
+     * 查询视图的成员关系在下一次 update 时统一调整，避免打断正在进行的遍历
+     */
+    public void onComponentsChanged(GameObject obj) {
+        changedObjects.add(obj);
+    }
+    
+    private void applyComponentChanges() {
+        if (changedObjects.isEmpty()) return;
+        for (int i = 0; i < changedObjects.size(); i++) {
+            GameObject obj = changedObjects.get(i);
+            if (obj.getScene() != this) continue;
+            for (EntityQuery query : queryList) {
+                query.refresh(obj);
+            }
+            bindBody(obj);
+        }
+        changedObjects.clear();
+        for (EntityQuery query : queryList) {
+            query.compact();
+        }
+    }
+    
+    private void flushRemovals() {
+        if (pendingRemoval.isEmpty()) return;
+        gameObjects.removeIf(pendingRemoval::contains);
+        for (EntityQuery query : queryList) {
+            query.removeAll(pendingRemoval);
+        }
+        for (GameObject obj : pendingRemoval) {
+            releaseBody(obj);
+            noteStatic(obj);
+            if (obj.getScene() == this) {
+                obj.setScene(null);
+            }
+        }
+        pendingRemoval.clear();
+    }
+    
+    /**
+     * 启用刚体 SoA 存储：之后变换和物理组件的数据保存在场景持有的连续数组中，
+     * PhysicsSystem 会直接在数组上批量积分。已在场景中的对象立即绑定。
+     */
+    public BodyStore enableBodyStore(int initialCapacity) {
+        if (bodyStore == null) {
+            bodyStore = new BodyStore(initialCapacity);
+            for (GameObject obj : gameObjects) {
+                bindBody(obj);
             }
         }
+        return bodyStore;
+    }
+    
+    /**
+     * 获取共享任务系统（未挂到引擎时为串行实例）
+     */
+    public JobSystem getJobSystem() {
+        return jobSystem;
+    }
+    
+    public void setJobSystem(JobSystem jobSystem) {
+        this.jobSystem = jobSystem != null ? jobSystem : JobSystem.serial();
+    }
+    
+    /**
+     * 获取帧分析器（未挂到引擎时为不计时的实例）
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+    
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler != null ? profiler : FrameProfiler.disabled();
     }
     
     /**
-     * 渲染场景
+     * 获取刚体 SoA 存储，未启用时返回 null
+     */
+    public BodyStore getBodyStore() {
+        return bodyStore;
+    }
+    
+    private void bindBody(GameObject obj) {
+        if (bodyStore == null) return;
+        PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+        if (physics == null || physics.isBound()) return;
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        if (transform != null && !transform.isBound()) {
+            bodyStore.bind(transform, physics);
+        }
+    }
+    
+    private void releaseBody(GameObject obj) {
+        if (bodyStore == null) return;
+        PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+        if (physics != null && physics.isBound()) {
+            bodyStore.release(physics.getRow());
+        }
+    }
+    
+    /**
+     * 记录所有变换组件的当前位置作为渲染插值起点，由 GameEngine 在每个固定步长前调用
+     */
+    public void snapshotTransforms() {
+        EntityQuery transforms = query(TransformComponent.class);
+        for (int i = 0; i < transforms.size(); i++) {
+            TransformComponent transform = transforms.get(i).getComponent(TransformComponent.class);
+            if (transform != null) {
+                transform.snapshotPosition();
+            }
+        }
+    }
+    
+    /**
+     * 以指定插值系数渲染场景，子类一般只需重写 {@link #render()}
+     */
+    public void render(float alpha) {
+        this.interpolationAlpha = alpha;
+        render();
+    }
+    
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+    
+    /**
+     * 渲染场景：画面冻结时只画冻结帧，否则调用 {@link #renderWorld()}；
+     * 刚请求冻结时照常绘制这一帧并把世界部分的命令截取为冻结帧。
+     * 子类重写时先调用 super.render()，再叠加菜单、提示等始终实时绘制的内容
      */
     public void render() {
-        for (GameObject obj : gameObjects) {
-            if (obj.isActive()) {
-                obj.render();
+        if (frozenFrame != null) {
+            renderer.drawLayer(frozenFrame);
+            return;
+        }
+        RenderCommandBuffer capture = freezeRequested ? (RenderCommandBuffer) renderer : null;
+        int mark = capture != null ? capture.size() : 0;
+        renderWorld();
+        if (capture != null) {
+            frozenFrame = frozenLayer.capture(capture, mark, capture.size());
+            freezeRequested = false;
+        }
+    }
+    
+    /**
+     * 绘制世界：带 RenderComponent 的对象先按其缓存的世界包围盒与视口求交，
+     * 完全在视口外的对象不调用 render，不产生绘制命令；没有 RenderComponent 的对象总是渲染。
+     * 子类在这里追加粒子、HUD 等随世界一起冻结的内容
+     */
+    protected void renderWorld() {
+        boolean layered = renderStaticLayer();
+        int culled = 0;
+        for (int i = 0, n = gameObjects.size(); i < n; i++) {
+            GameObject obj = gameObjects.get(i);
+            if (!obj.isActive()) continue;
+            RenderComponent rc = (RenderComponent) obj.getComponentByTypeId(RENDER_TYPE);
+            if (layered && rc != null && rc.isStatic()) continue;
+            if (rc != null && rc.updateBounds(interpolationAlpha)
+                    && !isInView(rc.getMinX(), rc.getMinY(), rc.getMaxX(), rc.getMaxY())) {
+                culled++;
+                continue;
+            }
+            obj.render();
+        }
+        culledCount = culled;
+        renderBatch.flush();
+    }
+    
+    /**
+     * 背景绘制钩子：内容烘焙进静态图层，位于所有对象之下，只在图层失效时重新调用。
+     * 子类在这里画不随帧变化的背景，变化时调用 {@link #invalidateStaticLayer()}
+     */
+    protected void renderBackground(IRenderer target) {
+    }
+    
+    // 图层失效时重新录制背景和落在图层范围内的静态对象，然后整层作为一条命令提交；没有渲染器时返回 false。
+    // 烘焙按图层自身范围而不是视口筛选，视口变化后不必重新烘焙，之前在视口外的静态对象也不会丢失
+    private boolean renderStaticLayer() {
+        if (staticLayer == null) return false;
+        if (staticLayer.isDirty()) {
+            IRenderer target = staticLayer.begin();
+            renderBackground(target);
+            for (int i = 0, n = gameObjects.size(); i < n; i++) {
+                GameObject obj = gameObjects.get(i);
+                if (!obj.isActive()) continue;
+                RenderComponent rc = (RenderComponent) obj.getComponentByTypeId(RENDER_TYPE);
+                if (rc == null || !rc.isStatic() || !rc.updateBounds(1f)) continue;
+                if (rc.getMaxX() >= 0 && rc.getMinX() <= staticLayer.getWidth()
+                        && rc.getMaxY() >= 0 && rc.getMinY() <= staticLayer.getHeight()) {
+                    rc.renderTo(target, renderBatch);
+                }
             }
+            renderBatch.flush();
+            staticLayer.end();
+        }
+        StaticLayer.Snapshot snapshot = staticLayer.getSnapshot();
+        if (snapshot.getCommands().size() > 0) {
+            renderer.drawLayer(snapshot);
+        }
+        return true;
+    }
+    
+    /**
+     * 设置场景绘制用的渲染器（GameEngine 切换场景时注入），同时创建与其等大的静态图层
+     */
+    public void setRenderer(IRenderer renderer) {
+        this.renderer = renderer;
+        this.staticLayer = renderer != null ? new StaticLayer(renderer.getWidth(), renderer.getHeight()) : null;
+        this.frozenLayer = renderer instanceof RenderCommandBuffer
+            ? new StaticLayer(renderer.getWidth(), renderer.getHeight()) : null;
+        this.freezeRequested = false;
+        this.frozenFrame = null;
+    }
+    
+    /**
+     * 冻结画面：下一次 {@link #render()} 照常绘制世界并截取下来，之后世界不再遍历绘制，
+     * 每帧只画这一张冻结帧（后端缓存为一张离屏图像），直到 {@link #unfreezeFrame()}。
+     * 用于暂停、游戏结束这类世界静止、上面叠加菜单的画面；没有渲染器或渲染器不是命令缓冲时不生效
+     */
+    public void freezeFrame() {
+        if (frozenFrame == null && frozenLayer != null) {
+            freezeRequested = true;
+        }
+    }
+    
+    /**
+     * 恢复实时绘制世界
+     */
+    public void unfreezeFrame() {
+        freezeRequested = false;
+        frozenFrame = null;
+    }
+    
+    /**
+     * 是否已请求或处于冻结画面
+     */
+    public boolean isFrameFrozen() {
+        return freezeRequested || frozenFrame != null;
+    }
+    
+    public IRenderer getRenderer() {
+        return renderer;
+    }
+    
+    /**
+     * 标记静态图层需要在下一帧重新烘焙
+     */
+    public void invalidateStaticLayer() {
+        if (staticLayer != null) {
+            staticLayer.invalidate();
+        }
+    }
+    
+    private void noteStatic(GameObject obj) {
+        RenderComponent rc = (RenderComponent) obj.getComponentByTypeId(RENDER_TYPE);
+        if (rc != null && rc.isStatic()) {
+            invalidateStaticLayer();
         }
     }
     
+    /**
+     * 设置世界空间中的可见区域，之后的渲染只为与其相交的对象生成命令
+     */
+    public void setViewport(float x, float y, float width, float height) {
+        viewMinX = x;
+        viewMinY = y;
+        viewMaxX = x + width;
+        viewMaxY = y + height;
+    }
+    
+    /**
+     * 取消视口裁剪
+     */
+    public void clearViewport() {
+        viewMinX = Float.NEGATIVE_INFINITY;
+        viewMinY = Float.NEGATIVE_INFINITY;
+        viewMaxX = Float.POSITIVE_INFINITY;
+        viewMaxY = Float.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * 包围盒是否与视口相交（含边界接触）
+     */
+    public boolean isInView(float minX, float minY, float maxX, float maxY) {
+        return maxX >= viewMinX && minX <= viewMaxX && maxY >= viewMinY && minY <= viewMaxY;
+    }
+    
+    public float getViewMinX() { return viewMinX; }
+    public float getViewMinY() { return viewMinY; }
+    public float getViewMaxX() { return viewMaxX; }
+    public float getViewMaxY() { return viewMaxY; }
+    
+    /**
+     * 上一次 {@link #render()} 中因在视口外而跳过的对象数
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+    
+    /**
+     * 本场景的图元批次，在 {@link #render()} 遍历结束时统一提交
+     */
+    public RenderBatch getRenderBatch() {
+        return renderBatch;
+    }
+    
     /**
      * 添加游戏对象到场景
      */
@@ -86,31 +431,67 @@ public class Scene {
     }
     
     /**
-     * 根据组件类型查找游戏对象
+     * 获取同时拥有指定组件类型的实时查询视图。
+     * 相同类型集合返回同一实例，建议调用方在初始化时获取并持有，每帧直接遍历。
+     */
+    public EntityQuery query(Class<?>... componentTypes) {
+        Set<Class<?>> key = new HashSet<>(Arrays.asList(componentTypes));
+        EntityQuery query = queries.get(key);
+        if (query == null) {
+            query = new EntityQuery(key);
+            for (GameObject obj : gameObjects) {
+                query.offer(obj);
+            }
+            queries.put(key, query);
+            queryList.add(query);
+        }
+        return query;
+    }
+    
+    /**
+     * 根据组件类型查找游戏对象（返回副本，热路径请使用 {@link #query}）
      */
     public <T extends Component<T>> List<GameObject> findGameObjectsByComponent(Class<T> componentType) {
-        return gameObjects.stream()
-            .filter(obj -> obj.hasComponent(componentType))
-            .collect(Collectors.toList());
+        return new ArrayList<>(query(componentType).asList());
     }
     
     /**
      * 获取所有具有指定组件的游戏对象
      */
     public <T extends Component<T>> List<T> getComponents(Class<T> componentType) {
-        return findGameObjectsByComponent(componentType).stream()
-            .map(obj -> obj.getComponent(componentType))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        EntityQuery query = query(componentType);
+        List<T> result = new ArrayList<>(query.size());
+        for (int i = 0; i < query.size(); i++) {
+            T component = query.get(i).getComponent(componentType);
+            if (component != null) {
+                result.add(component);
+            }
+        }
+        return result;
     }
     
     /**
      * 清空场景
      */
     public void clear() {
+        for (GameObject obj : gameObjects) {
+            if (obj.getScene() == this) {
+                obj.setScene(null);
+            }
+        }
         gameObjects.clear();
         objectsToAdd.clear();
         objectsToRemove.clear();
+        changedObjects.clear();
+        pendingRemoval.clear();
+        for (EntityQuery query : queryList) {
+            query.clear();
+        }
+        if (bodyStore != null) {
+            bodyStore.clear();
+        }
+        invalidateStaticLayer();
+        unfreezeFrame();
     }
     
     /**